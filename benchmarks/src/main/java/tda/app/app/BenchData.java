@@ -0,0 +1,105 @@
+package tda.app.app;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Deterministická testovací data pro benchmarky (stejný seed = stejná data napříč commity).
+ *
+ * MaterialController ukládá do ./uploads relativně k pracovnímu adresáři. Aby benchmark
+ * nikdy nepřepsal data aplikace, pracuje jen v adresáři označeném souborem .benchmark
+ * (vytvoří ho sám, pokud ./uploads ještě neexistuje) – spouštějte z benchmarks/.
+ */
+public final class BenchData {
+
+    public static final ObjectMapper MAPPER = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private static final Path UPLOADS = Paths.get("uploads");
+    private static final Path MARKER = UPLOADS.resolve(".benchmark");
+
+    private static final String[] WORDS = {
+            "základy", "programování", "javascript", "html", "css", "databáze", "sítě", "bezpečnost",
+            "algoritmy", "java", "python", "grafika", "úvod", "pokročilé", "webové", "aplikace",
+            "testování", "cloud", "linux", "matematika", "statistika", "design", "react", "spring"
+    };
+
+    private BenchData() {
+    }
+
+    public static Random random() {
+        return new Random(42);
+    }
+
+    public static String words(Random rnd, int n) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            if (i > 0) sb.append(' ');
+            sb.append(WORDS[rnd.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+
+    public static List<CourseEntity> courses(int n) {
+        Random rnd = random();
+        List<CourseEntity> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            String w = words(rnd, 2 + rnd.nextInt(3));
+            out.add(new CourseEntity("c" + i, Character.toUpperCase(w.charAt(0)) + w.substring(1),
+                    words(rnd, 12), "Lektor " + words(rnd, 1)));
+        }
+        return out;
+    }
+
+    public static List<Material> materials(String courseId, int n) {
+        Random rnd = random();
+        Instant base = Instant.parse("2026-01-01T00:00:00Z");
+        List<Material> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            Instant created = base.plusSeconds(rnd.nextInt(10_000_000));
+            if (i % 2 == 0) {
+                out.add(new Material("m" + i, courseId, MaterialType.LINK, words(rnd, 3), words(rnd, 10), created,
+                        "https://example.com/" + i, "https://example.com/favicon.ico", null, null, null, 0L));
+            } else {
+                out.add(new Material("m" + i, courseId, MaterialType.FILE, words(rnd, 3), words(rnd, 10), created,
+                        null, null, "soubor-" + i + ".pdf", "uuid_soubor-" + i + ".pdf", "application/pdf",
+                        100_000L + rnd.nextInt(1_000_000)));
+            }
+        }
+        return out;
+    }
+
+    /** MaterialController nad materials.json s daným počtem kurzů a materiálů v každém z nich. */
+    public static MaterialController materialController(int courses, int perCourse) throws IOException {
+        requireScratchUploads();
+        Map<String, List<Material>> all = new HashMap<>();
+        for (int c = 0; c < courses; c++) all.put("c" + c, materials("c" + c, perCourse));
+        Files.write(UPLOADS.resolve("materials.json"), MAPPER.writeValueAsBytes(all));
+
+        MaterialController controller = new MaterialController(null, event -> {}, new SimpleMeterRegistry());
+        controller.init();
+        return controller;
+    }
+
+    private static void requireScratchUploads() throws IOException {
+        if (Files.exists(UPLOADS) && !Files.exists(MARKER)) {
+            throw new IllegalStateException("./uploads patří aplikaci (" + UPLOADS.toAbsolutePath()
+                    + ") – benchmarky spouštějte z adresáře benchmarks/.");
+        }
+        Files.createDirectories(UPLOADS);
+        if (!Files.exists(MARKER)) Files.createFile(MARKER);
+    }
+}
@@ -0,0 +1,36 @@
+package tda.app.app;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Vyhledávání v katalogu (CourseSearchIndex, který používá GET /api/courses?q=). */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CourseSearchBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int courses;
+
+    /** přesná shoda, prefix, podřetězec, více slov */
+    @Param({"java", "progr", "gramo", "zaklady webove"})
+    public String query;
+
+    private CourseSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        index = new CourseSearchIndex(null);
+        index.load(BenchData.courses(courses));
+    }
+
+    @Benchmark
+    public List<Course> search() {
+        return index.search(query);
+    }
+}
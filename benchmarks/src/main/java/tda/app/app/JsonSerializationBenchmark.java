@@ -0,0 +1,59 @@
+package tda.app.app;
+
+import org.openjdk.jmh.annotations.*;
+import tda.app.app.feed.FeedItemType;
+import tda.app.app.feed.FeedService;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Jackson serializace DTO odpovědí API (stejná konfigurace ObjectMapperu jako v aplikaci). */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    @Param({"course-page", "materials", "feed"})
+    public String dto;
+
+    @Param({"20", "100"})
+    public int items;
+
+    private Object payload;
+
+    @Setup
+    public void setUp() {
+        Random rnd = BenchData.random();
+        payload = switch (dto) {
+            case "course-page" -> {
+                List<CourseController.CourseDto> list = new ArrayList<>();
+                for (CourseEntity e : BenchData.courses(items)) {
+                    list.add(new CourseController.CourseDto(e.getId(), e.getTitle(), e.getDescription(), e.getLecturer()));
+                }
+                yield new CourseController.CoursePage(list, null, items, true, "Y3Vyc29y");
+            }
+            case "materials" -> BenchData.materials("c0", items);
+            case "feed" -> {
+                List<FeedService.FeedItemDto> list = new ArrayList<>();
+                Instant now = Instant.parse("2026-01-01T00:00:00Z");
+                for (int i = 0; i < items; i++) {
+                    list.add(new FeedService.FeedItemDto("f" + i, "c0", i % 3 == 0 ? FeedItemType.POST : FeedItemType.AUTO,
+                            BenchData.words(rnd, 15), now.plusSeconds(i), now.plusSeconds(i), false));
+                }
+                yield list;
+            }
+            default -> throw new IllegalArgumentException(dto);
+        };
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return BenchData.MAPPER.writeValueAsBytes(payload);
+    }
+}
@@ -0,0 +1,31 @@
+package tda.app.app;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/** Přepis celého materials.json (serializace + zápis do tmp + atomický přesun). */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MaterialIndexSaveBenchmark {
+
+    /** celkový počet materiálů v indexu (rozložený do 10 kurzů) */
+    @Param({"100", "1000", "10000"})
+    public int materials;
+
+    private MaterialController controller;
+
+    @Setup
+    public void setUp() throws Exception {
+        controller = BenchData.materialController(10, materials / 10);
+    }
+
+    @Benchmark
+    public void saveIndex() throws Exception {
+        controller.saveIndexToDisk("c0");
+    }
+}
@@ -0,0 +1,31 @@
+package tda.app.app;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** MaterialController.list: kopie seznamu kurzu pod zámkem + řazení od nejnovějších. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MaterialListBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int materialsPerCourse;
+
+    private MaterialController controller;
+
+    @Setup
+    public void setUp() throws Exception {
+        controller = BenchData.materialController(20, materialsPerCourse);
+    }
+
+    @Benchmark
+    public List<Material> list() {
+        return controller.list("c7");
+    }
+}
@@ -0,0 +1,46 @@
+package tda.app.app.feed;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kódování události feedu pro SSE (serializace payloadu + sestavení rámce), tj. práce,
+ * kterou broadcast dělá jednou na událost bez ohledu na počet odběratelů.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BroadcastEncodingBenchmark {
+
+    /** 1 = jedna nová položka ("new"), víc = sloučená dávka auto událostí ("batch") */
+    @Param({"1", "10", "100"})
+    public int items;
+
+    @Param({"80", "2000"})
+    public int messageChars;
+
+    private FeedEvent event;
+
+    @Setup
+    public void setUp() {
+        String message = "x".repeat(messageChars);
+        Instant now = Instant.parse("2026-01-01T00:00:00Z");
+        List<FeedService.FeedItemDto> list = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            list.add(new FeedService.FeedItemDto("f" + i, "c0", FeedItemType.AUTO, message, now, now, false));
+        }
+        event = items == 1 ? FeedEvent.created(list.get(0)) : FeedEvent.batch("c0", list);
+    }
+
+    @Benchmark
+    public Object encode() throws Exception {
+        return SseSubscribers.frame("feed", SseSubscribers.encode(event.toPayload()));
+    }
+}
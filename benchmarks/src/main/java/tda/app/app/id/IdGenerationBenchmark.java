@@ -0,0 +1,49 @@
+package tda.app.app.id;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/** Propustnost generátorů ID – UUIDv4 (sdílený SecureRandom) vs. UUIDv7 (CAS + ThreadLocalRandom). */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IdGenerationBenchmark {
+
+    private final IdGenerator v7 = new UuidV7Generator();
+
+    @Benchmark
+    @Threads(1)
+    public UUID random1() {
+        return IdGenerator.RANDOM.next();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public UUID v7_1() {
+        return v7.next();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public UUID random8() {
+        return IdGenerator.RANDOM.next();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public UUID v7_8() {
+        return v7.next();
+    }
+
+    /** celá cesta, kterou volají controllery (včetně toString) */
+    @Benchmark
+    @Threads(1)
+    public String newIdString() {
+        return Ids.newId();
+    }
+}
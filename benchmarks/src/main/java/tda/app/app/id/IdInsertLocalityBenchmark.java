@@ -0,0 +1,87 @@
+package tda.app.app.id;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Vkládání do H2 tabulky s VARCHAR primárním klíčem (stejně jako feed_posts/feed_events):
+ * náhodná UUIDv4 rozhazují zápisy po celém B-stromu, UUIDv7 přidávají na konec.
+ *
+ * Jedna operace = dávka 1000 INSERTů v transakci do tabulky, která už má `rows` řádků.
+ * Na konci iterace se vypíše DISK_SPACE_USED tabulky (fragmentace stránek po dělení).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IdInsertLocalityBenchmark {
+
+    private static final int BATCH = 1000;
+
+    @Param({"random", "v7"})
+    public String generator;
+
+    /** řádků v tabulce před měřením */
+    @Param({"100000"})
+    public int rows;
+
+    private IdGenerator ids;
+    private Path dir;
+    private Connection conn;
+    private PreparedStatement insert;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws Exception {
+        ids = "v7".equals(generator) ? new UuidV7Generator() : IdGenerator.RANDOM;
+        dir = Files.createDirectories(Path.of("uploads", "bench-ids-" + generator));
+        deleteDb();
+        conn = DriverManager.getConnection("jdbc:h2:file:" + dir.toAbsolutePath().resolve("db"), "sa", "");
+        try (Statement st = conn.createStatement()) {
+            st.execute("CREATE TABLE t (id VARCHAR(36) PRIMARY KEY, created_at BIGINT, body VARCHAR(200))");
+        }
+        conn.setAutoCommit(false);
+        insert = conn.prepareStatement("INSERT INTO t (id, created_at, body) VALUES (?, ?, ?)");
+        for (int i = 0; i < rows; i += BATCH) insertBatch();
+    }
+
+    @Benchmark
+    public void insertBatch() throws Exception {
+        for (int i = 0; i < BATCH; i++) {
+            insert.setString(1, ids.next().toString());
+            insert.setLong(2, System.currentTimeMillis());
+            insert.setString(3, "příspěvek do feedu");
+            insert.addBatch();
+        }
+        insert.executeBatch();
+        conn.commit();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws Exception {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT DISK_SPACE_USED('T'), COUNT(*) FROM t")) {
+            rs.next();
+            System.out.printf("%n[%s] rows=%d diskSpaceUsed=%d KB%n", generator, rs.getLong(2), rs.getLong(1) / 1024);
+        }
+        insert.close();
+        conn.close();
+        deleteDb();
+    }
+
+    private void deleteDb() throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path p : files.toList()) Files.deleteIfExists(p);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package tda.app.app.quiz;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Vyhodnocení odevzdaného kvízu (QuizStore.grade – bez zápisu na disk). */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QuizGradingBenchmark {
+
+    @Param({"5", "20", "100"})
+    public int questions;
+
+    @Param({"4", "10"})
+    public int options;
+
+    private Quiz quiz;
+    private QuizStore.SubmitRequest request;
+
+    @Setup
+    public void setUp() {
+        Random rnd = new Random(42);
+        List<QuizQuestion> qs = new ArrayList<>();
+        Map<String, List<String>> answers = new HashMap<>();
+        for (int i = 0; i < questions; i++) {
+            boolean multi = i % 2 == 1;
+            List<QuizOption> opts = new ArrayList<>();
+            for (int o = 0; o < options; o++) opts.add(new QuizOption("q" + i + "o" + o, "Možnost " + o));
+
+            List<String> correct = new ArrayList<>();
+            correct.add(opts.get(rnd.nextInt(options)).id());
+            if (multi) correct.add(opts.get(rnd.nextInt(options)).id());
+            qs.add(new QuizQuestion("q" + i, multi ? QuestionType.MULTI : QuestionType.SINGLE, "Otázka " + i, opts,
+                    correct.stream().distinct().toList()));
+
+            // zhruba polovina odpovědí správně
+            answers.put("q" + i, rnd.nextBoolean() ? correct : List.of(opts.get(rnd.nextInt(options)).id()));
+        }
+        quiz = new Quiz("quiz", "c0", "Benchmark", Instant.now(), qs, QuizStatus.OPEN);
+        request = new QuizStore.SubmitRequest(answers);
+    }
+
+    @Benchmark
+    public QuizStore.SubmitResponse grade() {
+        return QuizStore.grade(quiz, request);
+    }
+}
@@ -0,0 +1,104 @@
+package tda.app.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Srovnání dvou JMH výsledků (-rf json), např. z různých commitů.
+ *
+ *   java -cp target/benchmarks.jar tda.app.bench.CompareResults base.json new.json [maxRegressionPercent]
+ *
+ * Klíč = benchmark + parametry. Změna se počítá jako zhoršení jen když je větší než součet
+ * chyb obou měření (99.9% CI z JMH). S prahem skončí kódem 1, pokud nějaký benchmark
+ * zhoršil o víc než práh – hodí se do CI.
+ */
+public final class CompareResults {
+
+    private record Score(double score, double error, String unit) {
+        boolean lowerIsBetter() {
+            // avgt/sample/ss: "us/op" apod.; thrpt: "ops/s"
+            return unit.endsWith("/op");
+        }
+    }
+
+    private CompareResults() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Použití: CompareResults base.json new.json [maxRegressionPercent]");
+            System.exit(2);
+        }
+        Map<String, Score> base = read(new File(args[0]));
+        Map<String, Score> next = read(new File(args[1]));
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : Double.NaN;
+
+        int regressions = 0;
+        System.out.printf("%-70s %14s %14s %9s%n", "benchmark", "base", "new", "změna");
+        for (Map.Entry<String, Score> en : new TreeMap<>(next).entrySet()) {
+            Score b = base.get(en.getKey());
+            Score n = en.getValue();
+            if (b == null) {
+                System.out.printf("%-70s %14s %14s %9s%n", en.getKey(), "-", format(n), "nový");
+                continue;
+            }
+
+            double change = (n.score() - b.score()) / b.score() * 100.0;
+            double worse = n.lowerIsBetter() ? change : -change;
+            boolean significant = Math.abs(n.score() - b.score()) > finite(b.error()) + finite(n.error());
+            String mark = !significant ? "" : (worse > 0 ? " !" : " +");
+            System.out.printf("%-70s %14s %14s %+8.1f%%%s%n", en.getKey(), format(b), format(n), change, mark);
+
+            if (significant && !Double.isNaN(threshold) && worse > threshold) regressions++;
+        }
+        for (String key : base.keySet()) {
+            if (!next.containsKey(key)) System.out.printf("%-70s %14s %14s %9s%n", key, format(base.get(key)), "-", "chybí");
+        }
+
+        if (regressions > 0) {
+            System.err.println(regressions + " benchmark(ů) se zhoršilo o víc než " + threshold + " %");
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Score> read(File file) throws Exception {
+        JsonNode root = new ObjectMapper().readTree(file);
+        Map<String, Score> out = new LinkedHashMap<>();
+        for (JsonNode run : root) {
+            StringBuilder key = new StringBuilder(shortName(run.path("benchmark").asText()));
+            JsonNode params = run.path("params");
+            Map<String, String> sorted = new TreeMap<>();
+            for (Iterator<Map.Entry<String, JsonNode>> it = params.fields(); it.hasNext(); ) {
+                Map.Entry<String, JsonNode> p = it.next();
+                sorted.put(p.getKey(), p.getValue().asText());
+            }
+            if (!sorted.isEmpty()) key.append(sorted);
+
+            JsonNode m = run.path("primaryMetric");
+            out.put(key.toString(), new Score(m.path("score").asDouble(), m.path("scoreError").asDouble(Double.NaN),
+                    m.path("scoreUnit").asText()));
+        }
+        return out;
+    }
+
+    private static String shortName(String benchmark) {
+        // tda.app.app.quiz.QuizGradingBenchmark.grade -> QuizGradingBenchmark.grade
+        int method = benchmark.lastIndexOf('.');
+        int type = method > 0 ? benchmark.lastIndexOf('.', method - 1) : -1;
+        return benchmark.substring(type + 1);
+    }
+
+    private static String format(Score s) {
+        return String.format("%.3f %s", s.score(), s.unit());
+    }
+
+    private static double finite(double d) {
+        return Double.isNaN(d) || Double.isInfinite(d) ? 0 : d;
+    }
+}
@@ -0,0 +1,122 @@
+package tda.app.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * HTTP klient proti běžící aplikaci (java.net.http, HTTP/1.1 – jedno spojení na souběžný request
+ * jako u prohlížečů). Asynchronní části klienta běží na virtuálních vláknech, takže stovky
+ * otevřených SSE streamů a souběžných stahování nedrží platformní vlákna.
+ */
+final class Api implements AutoCloseable {
+
+    static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final String baseUrl;
+    private final Duration timeout;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient client;
+    private String token;
+
+    Api(String baseUrl, Duration timeout) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.timeout = timeout;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(executor)
+                .build();
+    }
+
+    HttpClient client() {
+        return client;
+    }
+
+    /** Přihlášení lektora přes /api/login (stejně jako frontend). */
+    void login(String username, String password) throws IOException, InterruptedException {
+        JsonNode res = json("POST", "/api/login", Map.of("username", username, "password", password), false);
+        token = res.path("token").asText();
+        if (token.isEmpty()) throw new IOException("Přihlášení nevrátilo token.");
+    }
+
+    HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(timeout);
+    }
+
+    HttpRequest.Builder lecturer(String path) {
+        return request(path).header("Authorization", "Bearer " + token);
+    }
+
+    /** JSON request lektora; při ne-2xx vyhodí IOException se statusem a tělem odpovědi. */
+    JsonNode json(String method, String path, Object body) throws IOException, InterruptedException {
+        return json(method, path, body, true);
+    }
+
+    private JsonNode json(String method, String path, Object body, boolean auth) throws IOException, InterruptedException {
+        HttpRequest.Builder b = auth ? lecturer(path) : request(path);
+        if (body == null) {
+            b.method(method, HttpRequest.BodyPublishers.noBody());
+        } else {
+            b.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(MAPPER.writeValueAsBytes(body)));
+        }
+        HttpResponse<byte[]> res = client.send(b.build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (res.statusCode() / 100 != 2) {
+            throw new IOException(method + " " + path + " -> " + res.statusCode() + ": "
+                    + new String(res.body(), StandardCharsets.UTF_8));
+        }
+        return res.body().length == 0 ? MAPPER.missingNode() : MAPPER.readTree(res.body());
+    }
+
+    /** Jedna část multipart těla; filename == null -> obyčejné pole formuláře. */
+    record FormPart(String name, String filename, String contentType, byte[] content) {}
+
+    /** Upload souboru jako multipart/form-data (pole title + file) – stejný tvar jako z UI lektora. */
+    HttpRequest upload(String path, String title, String filename, String contentType, byte[] content) {
+        return multipart(lecturer(path), List.of(
+                new FormPart("title", null, null, title.getBytes(StandardCharsets.UTF_8)),
+                new FormPart("file", filename, contentType, content)
+        )).build();
+    }
+
+    /** Nastaví tělo multipart/form-data (POST) včetně boundary v Content-Type. */
+    static HttpRequest.Builder multipart(HttpRequest.Builder b, List<FormPart> parts) {
+        String boundary = "----tda-load-" + UUID.randomUUID();
+        List<byte[]> chunks = new ArrayList<>();
+        for (FormPart p : parts) {
+            StringBuilder head = new StringBuilder("--").append(boundary).append("\r\n")
+                    .append("Content-Disposition: form-data; name=\"").append(p.name()).append('"');
+            if (p.filename() != null) head.append("; filename=\"").append(p.filename()).append('"');
+            head.append("\r\n");
+            if (p.contentType() != null) head.append("Content-Type: ").append(p.contentType()).append("\r\n");
+            head.append("\r\n");
+            chunks.add(head.toString().getBytes(StandardCharsets.UTF_8));
+            chunks.add(p.content());
+            chunks.add("\r\n".getBytes(StandardCharsets.UTF_8));
+        }
+        chunks.add(("--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        return b.header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArrays(chunks));
+    }
+
+    @Override
+    public void close() {
+        client.shutdownNow();
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,76 @@
+package tda.app.load;
+
+import java.io.InputStream;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Všichni studenti si naráz stáhnou záznam přednášky (mp4).
+ *
+ * - download.ttfb = do přijetí hlaviček odpovědi (zahrnuje čekání ve frontě přepážky files)
+ * - download.ttlb = do posledního bajtu; neúplné tělo i 503 z přepážky jsou chyba
+ */
+final class DownloadScenario implements Scenario {
+
+    @Override
+    public String name() {
+        return "download";
+    }
+
+    @Override
+    public List<Measurement> run(Context ctx) throws Exception {
+        LoadConfig cfg = ctx.config();
+        String base = "/api/courses/" + ctx.courseId() + "/materials";
+        Measurement ttfb = new Measurement("download.ttfb");
+        Measurement ttlb = new Measurement("download.ttlb");
+
+        byte[] video = new byte[cfg.getInt("download.size-mb") * 1024 * 1024];
+        new Random(42).nextBytes(video);
+
+        HttpResponse<byte[]> uploaded = ctx.api().client().send(
+                ctx.api().upload(base, "Záznam přednášky (zátěžový test)", "lecture.mp4", "video/mp4", video),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (uploaded.statusCode() != 200) {
+            throw new IllegalStateException("Upload videa selhal: " + uploaded.statusCode());
+        }
+        String materialId = Api.MAPPER.readTree(uploaded.body()).path("id").asText();
+
+        LongAdder totalBytes = new LongAdder();
+        long wallStart = System.nanoTime();
+        try {
+            String path = base + "/" + materialId + "/download";
+            Storm.run(ctx.students(), student -> {
+                long start = System.nanoTime();
+                try {
+                    HttpResponse<InputStream> res = ctx.api().client().send(
+                            ctx.api().request(path).GET().build(), HttpResponse.BodyHandlers.ofInputStream());
+                    try (InputStream in = res.body()) {
+                        if (res.statusCode() != 200) {
+                            ttlb.error(String.valueOf(res.statusCode()));
+                            return;
+                        }
+                        ttfb.recordSince(start);
+
+                        byte[] buf = new byte[64 * 1024];
+                        long n = 0;
+                        for (int r; (r = in.read(buf)) >= 0; ) n += r;
+                        totalBytes.add(n);
+                        if (n == video.length) ttlb.recordSince(start);
+                        else ttlb.error("short-body");
+                    }
+                } catch (Exception e) {
+                    ttlb.error(Storm.reason(e));
+                }
+            });
+        } finally {
+            if (cfg.getBoolean("cleanup")) ctx.api().json("DELETE", base + "/" + materialId, null);
+        }
+
+        double seconds = (System.nanoTime() - wallStart) / 1e9;
+        System.out.printf("  download: %.1f MB za %.1f s = %.1f MB/s%n",
+                totalBytes.sum() / 1048576.0, seconds, totalBytes.sum() / 1048576.0 / seconds);
+        return List.of(ttfb, ttlb);
+    }
+}
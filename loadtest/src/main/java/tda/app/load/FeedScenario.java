@@ -0,0 +1,201 @@
+package tda.app.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Začátek hodiny: všichni studenti otevřou /feed/stream naráz, pak lektor pošle několik zpráv.
+ *
+ * - feed.join     = od odeslání GET po událost „hello“ (spojení je živé)
+ * - feed.delivery = od odeslání zprávy lektorem po přijetí události „feed“ u každého studenta
+ *
+ * Nepřipojený student i nedoručená zpráva se počítají jako chyba (error-rate) – každé selhání
+ * jednou: student, který se nepřipojil (chyba i timeout), se do chybějících doručení nepočítá.
+ */
+final class FeedScenario implements Scenario {
+
+    private static final Pattern MARKER = Pattern.compile("lt#(\\d+)#");
+    // odstup zpráv, aby se doručení jednotlivých zpráv nepřekrývala
+    private static final long MESSAGE_GAP_MILLIS = 250;
+
+    // stav připojení studenta; z PENDING se přechází jen jednou (CAS), takže se selhání počítá jednou
+    private static final int PENDING = 0;
+    private static final int JOINED = 1;
+    private static final int FAILED = 2;
+
+    @Override
+    public String name() {
+        return "feed";
+    }
+
+    @Override
+    public List<Measurement> run(Context ctx) throws Exception {
+        LoadConfig cfg = ctx.config();
+        int students = ctx.students();
+        int messages = cfg.getInt("feed.messages");
+
+        Measurement join = new Measurement("feed.join");
+        Measurement delivery = new Measurement("feed.delivery");
+
+        String base = "/api/courses/" + ctx.courseId() + "/feed";
+        CountDownLatch joined = new CountDownLatch(students);
+        CountDownLatch allDelivered = new CountDownLatch(students);
+        AtomicLongArray sentAt = new AtomicLongArray(messages);
+        AtomicIntegerArray received = new AtomicIntegerArray(students);
+        Joins joins = new Joins(students, join, joined, allDelivered);
+        List<InputStream> streams = Collections.synchronizedList(new ArrayList<>());
+        List<String> postIds = new ArrayList<>();
+        Phase phase = new Phase();
+
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < students; i++) {
+                int student = i;
+                pool.submit(() -> listen(ctx, base + "/stream", student, messages, joins, delivery,
+                        allDelivered, sentAt, received, streams, phase));
+            }
+
+            try {
+                if (!joined.await(cfg.getInt("feed.join-timeout-seconds"), TimeUnit.SECONDS)) {
+                    for (int i = 0; i < students; i++) joins.fail(i, "timeout");
+                }
+
+                for (int k = 0; k < messages; k++) {
+                    sentAt.set(k, System.nanoTime());
+                    JsonNode post = ctx.api().json("POST", base, Map.of("message", "lt#" + k + "# zátěžový test – zpráva " + (k + 1)));
+                    postIds.add(post.path("id").asText());
+                    Thread.sleep(MESSAGE_GAP_MILLIS);
+                }
+
+                allDelivered.await(cfg.getInt("feed.delivery-timeout-seconds"), TimeUnit.SECONDS);
+                phase.done = true;
+                for (int i = 0; i < students; i++) {
+                    if (!joins.joined(i)) continue; // už započtený v feed.join
+                    for (int missing = messages - received.get(i); missing > 0; missing--) delivery.error("missed");
+                }
+            } finally {
+                phase.done = true;
+                // zavření streamu ukončí čtení ve vláknech studentů -> pool se může zavřít
+                synchronized (streams) {
+                    for (InputStream in : streams) {
+                        try {
+                            in.close();
+                        } catch (IOException ignored) {
+                        }
+                    }
+                }
+            }
+        } finally {
+            if (cfg.getBoolean("cleanup")) {
+                for (String id : postIds) ctx.api().json("DELETE", base + "/" + id, null);
+            }
+        }
+        return List.of(join, delivery);
+    }
+
+    private static void listen(Context ctx, String path, int student, int messages,
+                               Joins joins, Measurement delivery, CountDownLatch allDelivered,
+                               AtomicLongArray sentAt, AtomicIntegerArray received,
+                               List<InputStream> streams, Phase phase) {
+        boolean hello = false;
+        long start = System.nanoTime();
+        try {
+            HttpResponse<InputStream> res = ctx.api().client().send(
+                    ctx.api().request(path).header("Accept", "text/event-stream").GET().build(),
+                    HttpResponse.BodyHandlers.ofInputStream());
+            if (res.statusCode() != 200) {
+                res.body().close();
+                joins.fail(student, String.valueOf(res.statusCode()));
+                return;
+            }
+            streams.add(res.body());
+            if (phase.done) {
+                // připojil se až po konci scénáře (úklid streamů už proběhl)
+                res.body().close();
+                return;
+            }
+
+            BufferedReader reader = new BufferedReader(new InputStreamReader(res.body(), StandardCharsets.UTF_8));
+            String event = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    event = null;
+                } else if (line.startsWith("event:")) {
+                    event = line.substring("event:".length()).trim();
+                } else if (line.startsWith("data:")) {
+                    if (!hello && "hello".equals(event)) {
+                        hello = true;
+                        // po timeoutu už je student započtený jako chyba; zprávy se mu nepočítají
+                        if (!joins.join(student, start)) return;
+                    } else if ("feed".equals(event)) {
+                        Matcher m = MARKER.matcher(line);
+                        if (!m.find()) continue;
+                        int k = Integer.parseInt(m.group(1));
+                        if (k >= messages || sentAt.get(k) == 0) continue;
+                        delivery.recordSince(sentAt.get(k));
+                        if (received.incrementAndGet(student) == messages) allDelivered.countDown();
+                    }
+                }
+            }
+            if (!hello && !phase.done) joins.fail(student, "closed");
+        } catch (Exception e) {
+            if (!hello && !phase.done) joins.fail(student, Storm.reason(e));
+        }
+    }
+
+    /** Výsledek připojení každého studenta – zapsaný do feed.join právě jednou. */
+    private static final class Joins {
+        private final AtomicIntegerArray state;
+        private final Measurement join;
+        private final CountDownLatch joined;
+        private final CountDownLatch allDelivered;
+
+        Joins(int students, Measurement join, CountDownLatch joined, CountDownLatch allDelivered) {
+            this.state = new AtomicIntegerArray(students);
+            this.join = join;
+            this.joined = joined;
+            this.allDelivered = allDelivered;
+        }
+
+        /** @return false, pokud už student selhal (timeout) */
+        boolean join(int student, long start) {
+            if (!state.compareAndSet(student, PENDING, JOINED)) return false;
+            join.recordSince(start);
+            joined.countDown();
+            return true;
+        }
+
+        void fail(int student, String reason) {
+            if (!state.compareAndSet(student, PENDING, FAILED)) return;
+            join.error(reason);
+            joined.countDown();
+            allDelivered.countDown(); // nepřipojený student nic nedostane, nečekáme na něj
+        }
+
+        boolean joined(int student) {
+            return state.get(student) == JOINED;
+        }
+    }
+
+    private static final class Phase {
+        volatile boolean done;
+    }
+}
@@ -0,0 +1,85 @@
+package tda.app.load;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Nastavení běhu: loadtest.properties z classpath, pak volitelný soubor (config=...),
+ * nakonec argumenty klíč=hodnota z příkazové řádky.
+ */
+final class LoadConfig {
+
+    private final Properties props;
+
+    private LoadConfig(Properties props) {
+        this.props = props;
+    }
+
+    static LoadConfig load(String[] args) throws IOException {
+        Properties props = new Properties();
+        try (InputStream in = LoadConfig.class.getResourceAsStream("/loadtest.properties")) {
+            if (in != null) props.load(in);
+        }
+
+        Properties cli = new Properties();
+        for (String arg : args) {
+            String a = arg.startsWith("--") ? arg.substring(2) : arg;
+            int eq = a.indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("Argument musí být klíč=hodnota: " + arg);
+            cli.setProperty(a.substring(0, eq).trim(), a.substring(eq + 1).trim());
+        }
+
+        String file = cli.getProperty("config");
+        if (file != null && !file.isBlank()) {
+            try (Reader r = Files.newBufferedReader(Path.of(file), StandardCharsets.UTF_8)) {
+                props.load(r);
+            }
+        }
+        props.putAll(cli);
+        return new LoadConfig(props);
+    }
+
+    String get(String key) {
+        String v = props.getProperty(key);
+        if (v == null) throw new IllegalArgumentException("Chybí nastavení: " + key);
+        return v.trim();
+    }
+
+    String get(String key, String def) {
+        String v = props.getProperty(key);
+        return (v == null || v.isBlank()) ? def : v.trim();
+    }
+
+    int getInt(String key) {
+        return Integer.parseInt(get(key));
+    }
+
+    boolean getBoolean(String key) {
+        return Boolean.parseBoolean(get(key));
+    }
+
+    List<String> getList(String key) {
+        return Arrays.stream(get(key, "").split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .toList();
+    }
+
+    /** Klíče začínající prefixem (v pořadí podle abecedy). */
+    List<String> keys(String prefix) {
+        List<String> out = new ArrayList<>();
+        for (String k : props.stringPropertyNames()) {
+            if (k.startsWith(prefix)) out.add(k);
+        }
+        out.sort(null);
+        return out;
+    }
+}
@@ -0,0 +1,116 @@
+package tda.app.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Kolik studentů unese jedna instance? Spustí scénáře výuky proti běžící aplikaci,
+ * vypíše percentily latencí (HDR histogram), zapíše .hgrm soubory a vyhodnotí SLO.
+ *
+ *   java -jar target/loadtest.jar base-url=http://localhost:8080 students=500 scenarios=feed,quiz,download,upload
+ *
+ * Exit kód: 0 = všechna SLO splněna, 1 = některé SLO porušeno, 2 = chyba konfigurace nebo přípravy dat.
+ */
+public final class LoadTest {
+
+    private static final Map<String, Scenario> SCENARIOS = new LinkedHashMap<>();
+
+    static {
+        for (Scenario s : List.of(new FeedScenario(), new QuizScenario(), new DownloadScenario(), new UploadScenario())) {
+            SCENARIOS.put(s.name(), s);
+        }
+    }
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) {
+        try {
+            System.exit(run(LoadConfig.load(args)) ? 0 : 1);
+        } catch (Exception e) {
+            System.err.println("Zátěžový test nelze spustit: " + e.getMessage());
+            System.exit(2);
+        }
+    }
+
+    private static boolean run(LoadConfig cfg) throws Exception {
+        List<Scenario> selected = new ArrayList<>();
+        for (String name : cfg.getList("scenarios")) {
+            Scenario s = SCENARIOS.get(name);
+            if (s == null) throw new IllegalArgumentException("Neznámý scénář: " + name + " (známé: " + SCENARIOS.keySet() + ")");
+            selected.add(s);
+        }
+        List<Slo> slos = Slo.parse(cfg);
+        int students = cfg.getInt("students");
+        Path reportDir = Path.of(cfg.get("report-dir"));
+
+        Map<String, Measurement> results = new LinkedHashMap<>();
+        try (Api api = new Api(cfg.get("base-url"), Duration.ofSeconds(cfg.getInt("request-timeout-seconds")))) {
+            api.login(cfg.get("lecturer.username", "lecturer"), cfg.get("lecturer.password", "TdA26!"));
+
+            String courseId = cfg.get("course-id", "");
+            boolean tempCourse = courseId.isEmpty();
+            if (tempCourse) {
+                courseId = api.json("POST", "/api/courses", Map.of(
+                        "title", "Zátěžový test " + System.currentTimeMillis(),
+                        "description", "Dočasný kurz pro zátěžové scénáře",
+                        "lecturer", "loadtest"
+                )).path("id").asText();
+            }
+
+            try {
+                Scenario.Context ctx = new Scenario.Context(cfg, api, courseId, students);
+                for (Scenario s : selected) {
+                    System.out.printf("== %s (%d studentů) ==%n", s.name(), students);
+                    long start = System.nanoTime();
+                    for (Measurement m : s.run(ctx)) results.put(m.name(), m);
+                    System.out.printf("   hotovo za %.1f s%n", (System.nanoTime() - start) / 1e9);
+                }
+            } finally {
+                if (tempCourse && cfg.getBoolean("cleanup")) api.json("DELETE", "/api/courses/" + courseId, null);
+            }
+        }
+
+        for (Measurement m : results.values()) m.writeHgrm(reportDir);
+        printLatencies(results);
+        boolean passed = printSlos(slos, results);
+        System.out.println("HDR histogramy: " + reportDir.toAbsolutePath());
+        return passed;
+    }
+
+    private static void printLatencies(Map<String, Measurement> results) {
+        System.out.println();
+        System.out.printf("%-16s %8s %8s %10s %10s %10s %10s %10s%n",
+                "metrika", "ok", "chyby", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Measurement m : results.values()) {
+            System.out.printf("%-16s %8d %8d %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                    m.name(), m.ok(), m.errorCount(),
+                    m.percentileMillis(50), m.percentileMillis(90), m.percentileMillis(99),
+                    m.percentileMillis(99.9), m.maxMillis());
+            if (m.errorCount() > 0) System.out.println("    chyby: " + m.errorsByReason());
+        }
+    }
+
+    private static boolean printSlos(List<Slo> slos, Map<String, Measurement> results) {
+        System.out.println();
+        boolean passed = true;
+        for (Slo slo : slos) {
+            Measurement m = results.get(slo.metric());
+            if (m == null) continue; // scénář nebyl spuštěn
+            Slo.Verdict v = slo.check(m);
+            passed &= v.passed();
+            System.out.printf("%-4s %-16s %-11s %10.3f <= %s%n",
+                    v.passed() ? "OK" : "FAIL", slo.metric(), slo.kind(), v.actual(), format(slo.limit()));
+        }
+        System.out.println(passed ? "SLO: splněno" : "SLO: PORUŠENO");
+        return passed;
+    }
+
+    private static String format(double d) {
+        return d == Math.rint(d) ? String.valueOf((long) d) : String.valueOf(d);
+    }
+}
@@ -0,0 +1,93 @@
+package tda.app.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Jedna měřená metrika scénáře: HDR histogram latencí (v mikrosekundách)
+ * a počty chyb podle důvodu (HTTP status, timeout, výjimka...).
+ *
+ * Zapisuje se z mnoha virtuálních vláken najednou (ConcurrentHistogram, LongAdder).
+ */
+final class Measurement {
+
+    // delší hodnoty se oříznou (nic v aplikaci nemá trvat 10 minut)
+    private static final long MAX_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final String name;
+    private final Histogram histogram = new ConcurrentHistogram(MAX_MICROS, 3);
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    Measurement(String name) {
+        this.name = name;
+    }
+
+    String name() {
+        return name;
+    }
+
+    /** Zaznamená dobu od startNanos (System.nanoTime()) do teď. */
+    void recordSince(long startNanos) {
+        recordNanos(System.nanoTime() - startNanos);
+    }
+
+    void recordNanos(long nanos) {
+        long micros = Math.max(0, Math.min(MAX_MICROS, TimeUnit.NANOSECONDS.toMicros(nanos)));
+        histogram.recordValue(micros);
+    }
+
+    void error(String reason) {
+        errors.computeIfAbsent(reason, k -> new LongAdder()).increment();
+    }
+
+    long ok() {
+        return histogram.getTotalCount();
+    }
+
+    long errorCount() {
+        long sum = 0;
+        for (LongAdder a : errors.values()) sum += a.sum();
+        return sum;
+    }
+
+    double errorRate() {
+        long total = ok() + errorCount();
+        return total == 0 ? 0.0 : (double) errorCount() / total;
+    }
+
+    Map<String, Long> errorsByReason() {
+        Map<String, Long> out = new TreeMap<>();
+        errors.forEach((k, v) -> out.put(k, v.sum()));
+        return out;
+    }
+
+    /** Percentil (0..100) v milisekundách. */
+    double percentileMillis(double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    double maxMillis() {
+        return histogram.getMaxValue() / 1000.0;
+    }
+
+    /** Standardní .hgrm výpis (hodnoty v ms) – lze vykreslit HdrHistogram plotterem. */
+    void writeHgrm(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        // jméno endpointu ("GET /api/courses/{courseId}") -> bezpečné jméno souboru
+        String file = name.replaceAll("[^A-Za-z0-9._-]+", "_") + ".hgrm";
+        try (PrintStream out = new PrintStream(Files.newOutputStream(dir.resolve(file)), false, StandardCharsets.UTF_8)) {
+            histogram.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package tda.app.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Konec testu: lektor připraví kvíz a všichni studenti ho odevzdají ve stejný okamžik.
+ *
+ * - quiz.submit = POST .../quizzes/{id}/submit (vyhodnocení + zápis výsledku)
+ */
+final class QuizScenario implements Scenario {
+
+    @Override
+    public String name() {
+        return "quiz";
+    }
+
+    @Override
+    public List<Measurement> run(Context ctx) throws Exception {
+        LoadConfig cfg = ctx.config();
+        String base = "/api/courses/" + ctx.courseId() + "/quizzes";
+        Measurement submit = new Measurement("quiz.submit");
+
+        String quizId = ctx.api().json("POST", base, Map.of("title", "Zátěžový kvíz")).path("id").asText();
+        try {
+            JsonNode quiz = null;
+            int questions = cfg.getInt("quiz.questions");
+            for (int q = 0; q < questions; q++) {
+                List<Map<String, String>> options = new ArrayList<>();
+                for (String id : List.of("a", "b", "c", "d")) options.add(Map.of("id", id, "text", "Možnost " + id));
+                quiz = ctx.api().json("POST", base + "/" + quizId + "/questions", Map.of(
+                        "type", "SINGLE",
+                        "text", "Otázka " + (q + 1),
+                        "options", options,
+                        "correctOptionIds", List.of("a")
+                ));
+            }
+
+            // těla odpovědí se připraví předem, aby se v bouři měřil jen server
+            byte[][] bodies = new byte[ctx.students()][];
+            Random random = new Random(42);
+            for (int s = 0; s < bodies.length; s++) {
+                Map<String, List<String>> answers = new LinkedHashMap<>();
+                if (quiz != null) {
+                    for (JsonNode question : quiz.path("questions")) {
+                        JsonNode opts = question.path("options");
+                        if (opts.isEmpty()) continue;
+                        answers.put(question.path("id").asText(),
+                                List.of(opts.get(random.nextInt(opts.size())).path("id").asText()));
+                    }
+                }
+                bodies[s] = Api.MAPPER.writeValueAsBytes(Map.of("answers", answers));
+            }
+
+            String submitPath = base + "/" + quizId + "/submit";
+            Storm.run(ctx.students(), student -> {
+                HttpRequest req = ctx.api().request(submitPath)
+                        .header("Content-Type", "application/json")
+                        .header("X-Student-Key", "load-student-" + student)
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(bodies[student]))
+                        .build();
+                long start = System.nanoTime();
+                try {
+                    HttpResponse<Void> res = ctx.api().client().send(req, HttpResponse.BodyHandlers.discarding());
+                    if (res.statusCode() == 200) submit.recordSince(start);
+                    else submit.error(String.valueOf(res.statusCode()));
+                } catch (Exception e) {
+                    submit.error(Storm.reason(e));
+                }
+            });
+        } finally {
+            if (cfg.getBoolean("cleanup")) ctx.api().json("DELETE", base + "/" + quizId, null);
+        }
+        return List.of(submit);
+    }
+}
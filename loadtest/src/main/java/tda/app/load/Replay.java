@@ -0,0 +1,269 @@
+package tda.app.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Přehrání provozu zaznamenaného aplikací (app.capture.enabled=true) proti lokální instanci.
+ *
+ *   java -cp target/loadtest.jar tda.app.load.Replay replay.trace=../uploads/capture/traffic-2026-10-18.jsonl replay.speed=10
+ *
+ * - replay.speed: 1 = reálné tempo, 10 = 10x rychleji, max = bez čekání (omezeno jen replay.max-in-flight)
+ * - pořadí requestů i generovaná těla jsou deterministická (řazení podle času záznamu, seed = pořadí),
+ *   takže dva běhy proti dvěma verzím aplikace dostanou přesně stejný provoz
+ * - u 1x/10x se latence měří od plánovaného času, ne od odeslání – zpoždění klienta se nezamlčí
+ * - status jiný než v záznamu se počítá jako chyba (např. 404 -> replay běží proti jiným datům)
+ * - přihlášení (POST /api/login) se nepřehrává: heslo se nezaznamenává, replay se přihlásí sám
+ *
+ * ID v cestách jsou z produkce: instance musí běžet nad kopií ./uploads ze dne záznamu.
+ */
+public final class Replay {
+
+    private record Trace(int seq, JsonNode json) {
+        long t() {
+            return json.path("t").asLong();
+        }
+
+        String endpoint() {
+            String tpl = json.path("template").asText(json.path("path").asText());
+            return json.path("method").asText() + " " + tpl;
+        }
+    }
+
+    private final LoadConfig cfg;
+    private final Api api;
+    private final Map<String, Measurement> replayed = new ConcurrentHashMap<>();
+    private final Map<String, Measurement> recorded = new ConcurrentHashMap<>();
+
+    private Replay(LoadConfig cfg, Api api) {
+        this.cfg = cfg;
+        this.api = api;
+    }
+
+    public static void main(String[] args) {
+        try {
+            LoadConfig cfg = LoadConfig.load(args);
+            try (Api api = new Api(cfg.get("base-url"), Duration.ofSeconds(cfg.getInt("request-timeout-seconds")))) {
+                new Replay(cfg, api).run();
+            }
+            System.exit(0);
+        } catch (Exception e) {
+            System.err.println("Replay nelze spustit: " + e.getMessage());
+            System.exit(2);
+        }
+    }
+
+    private void run() throws Exception {
+        List<Trace> traces = load(Path.of(cfg.get("replay.trace")), cfg.getList("replay.methods"));
+        if (traces.isEmpty()) throw new IllegalArgumentException("Záznam neobsahuje žádné requesty.");
+        if (traces.stream().anyMatch(tr -> tr.json().path("auth").asBoolean())) {
+            api.login(cfg.get("lecturer.username", "lecturer"), cfg.get("lecturer.password", "TdA26!"));
+        }
+
+        double speed = parseSpeed(cfg.get("replay.speed"));
+        long t0 = traces.get(0).t();
+        long span = traces.get(traces.size() - 1).t() - t0;
+        System.out.printf("Replay: %d requestů, záznam %.1f s, rychlost %s%n",
+                traces.size(), span / 1000.0, speed == 0 ? "max" : speed + "x");
+
+        Semaphore inFlight = new Semaphore(Math.max(1, cfg.getInt("replay.max-in-flight")));
+        long replayStart = System.nanoTime();
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Trace tr : traces) {
+                long due;
+                if (speed > 0) {
+                    due = replayStart + (long) ((tr.t() - t0) * 1_000_000L / speed);
+                    long wait = due - System.nanoTime();
+                    if (wait > 0) TimeUnit.NANOSECONDS.sleep(wait);
+                    inFlight.acquire();
+                } else {
+                    inFlight.acquire();
+                    due = System.nanoTime();
+                }
+                pool.submit(() -> {
+                    try {
+                        issue(tr, due);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        double took = (System.nanoTime() - replayStart) / 1e9;
+        System.out.printf("Hotovo za %.1f s%n", took);
+
+        report(Path.of(cfg.get("report-dir")).resolve("replay"));
+    }
+
+    private void issue(Trace tr, long due) {
+        JsonNode j = tr.json();
+        String endpoint = tr.endpoint();
+        Measurement m = replayed.computeIfAbsent(endpoint, Measurement::new);
+        boolean async = j.path("async").asBoolean();
+        if (!async) recorded.computeIfAbsent(endpoint, Measurement::new).recordNanos((long) (j.path("millis").asDouble() * 1e6));
+
+        try {
+            HttpRequest req = build(tr);
+            int expected = j.path("status").asInt();
+            if (async) {
+                // SSE: měří se připojení (první událost), stream se pak zavře
+                HttpResponse<InputStream> res = api.client().send(req, HttpResponse.BodyHandlers.ofInputStream());
+                try (InputStream in = res.body()) {
+                    if (res.statusCode() == expected && firstEvent(in)) m.recordSince(due);
+                    else m.error(res.statusCode() + " (záznam " + expected + ")");
+                }
+                return;
+            }
+            HttpResponse<Void> res = api.client().send(req, HttpResponse.BodyHandlers.discarding());
+            if (res.statusCode() == expected) m.recordSince(due);
+            else m.error(res.statusCode() + " (záznam " + expected + ")");
+        } catch (Exception e) {
+            m.error(Storm.reason(e));
+        }
+    }
+
+    private HttpRequest build(Trace tr) throws IOException {
+        JsonNode j = tr.json();
+        StringBuilder uri = new StringBuilder(j.path("path").asText());
+        JsonNode query = j.path("query");
+        char sep = '?';
+        for (Iterator<Map.Entry<String, JsonNode>> it = query.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> q = it.next();
+            uri.append(sep).append(URLEncoder.encode(q.getKey(), StandardCharsets.UTF_8))
+                    .append('=').append(URLEncoder.encode(q.getValue().asText(), StandardCharsets.UTF_8));
+            sep = '&';
+        }
+
+        HttpRequest.Builder b = j.path("auth").asBoolean() ? api.lecturer(uri.toString()) : api.request(uri.toString());
+        if (j.hasNonNull("student")) b.header("X-Student-Key", "replay-" + j.path("student").asText());
+        if (j.path("async").asBoolean()) b.header("Accept", "text/event-stream");
+
+        String method = j.path("method").asText();
+        String contentType = j.path("contentType").asText(null);
+        // seed = pořadí v záznamu -> stejné bajty v každém běhu
+        Random random = new Random(tr.seq());
+
+        if (j.has("parts")) {
+            List<Api.FormPart> parts = new ArrayList<>();
+            for (JsonNode p : j.path("parts")) {
+                int size = (int) Math.min(p.path("size").asLong(), Integer.MAX_VALUE - 64);
+                byte[] content;
+                if (p.hasNonNull("filename")) {
+                    content = new byte[size];
+                    random.nextBytes(content);
+                } else {
+                    content = "x".repeat(Math.max(1, size)).getBytes(StandardCharsets.UTF_8);
+                }
+                parts.add(new Api.FormPart(p.path("name").asText(), p.path("filename").asText(null),
+                        p.path("contentType").asText(null), content));
+            }
+            return Api.multipart(b, parts).build();
+        }
+        if (j.has("body")) {
+            return b.header("Content-Type", contentType == null ? "application/json" : contentType)
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(Api.MAPPER.writeValueAsBytes(j.path("body"))))
+                    .build();
+        }
+        long bodyBytes = j.path("bodyBytes").asLong();
+        if (bodyBytes > 0 && bodyBytes < Integer.MAX_VALUE) {
+            byte[] content = new byte[(int) bodyBytes];
+            random.nextBytes(content);
+            if (contentType != null) b.header("Content-Type", contentType);
+            return b.method(method, HttpRequest.BodyPublishers.ofByteArray(content)).build();
+        }
+        return b.method(method, HttpRequest.BodyPublishers.noBody()).build();
+    }
+
+    private static boolean firstEvent(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        for (String line; (line = reader.readLine()) != null; ) {
+            if (line.startsWith("data:")) return true;
+        }
+        return false;
+    }
+
+    private void report(Path dir) throws IOException {
+        List<Measurement> all = new ArrayList<>(replayed.values());
+        all.sort(Comparator.comparingLong((Measurement m) -> m.ok() + m.errorCount()).reversed());
+
+        System.out.println();
+        System.out.printf("%-60s %7s %7s | %9s %9s | %9s %9s %9s %9s%n",
+                "endpoint", "n", "chyby", "rec p50", "rec p99", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Measurement m : all) {
+            Measurement rec = recorded.get(m.name());
+            System.out.printf("%-60s %7d %7d | %9s %9s | %9.1f %9.1f %9.1f %9.1f%n",
+                    m.name(), m.ok() + m.errorCount(), m.errorCount(),
+                    rec == null ? "-" : String.format("%.1f", rec.percentileMillis(50)),
+                    rec == null ? "-" : String.format("%.1f", rec.percentileMillis(99)),
+                    m.percentileMillis(50), m.percentileMillis(99), m.percentileMillis(99.9), m.maxMillis());
+            if (m.errorCount() > 0) System.out.println("    chyby: " + m.errorsByReason());
+            m.writeHgrm(dir);
+        }
+        System.out.println("HDR histogramy: " + dir.toAbsolutePath());
+    }
+
+    /** Soubor nebo adresář se soubory traffic-*.jsonl; řádky seřazené podle času začátku. */
+    private static List<Trace> load(Path trace, List<String> methods) throws IOException {
+        List<Path> files;
+        if (Files.isDirectory(trace)) {
+            try (Stream<Path> s = Files.list(trace)) {
+                files = s.filter(p -> p.getFileName().toString().endsWith(".jsonl")).sorted().toList();
+            }
+        } else {
+            files = List.of(trace);
+        }
+
+        List<Trace> out = new ArrayList<>();
+        int bad = 0;
+        for (Path f : files) {
+            for (String line : Files.readAllLines(f, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) continue;
+                try {
+                    JsonNode j = Api.MAPPER.readTree(line);
+                    if (!methods.isEmpty() && !methods.contains(j.path("method").asText())) continue;
+                    // starší záznamy login obsahují; bez hesla by skončil 401 a vypadal jako regrese
+                    if ("/api/login".equals(j.path("path").asText())) continue;
+                    out.add(new Trace(out.size(), j));
+                } catch (IOException e) {
+                    bad++;
+                }
+            }
+        }
+        if (bad > 0) System.err.println("WARN: " + bad + " neplatných řádků záznamu přeskočeno.");
+        // stabilní řazení: souběžné requesty zapsané mimo pořadí (async až po konci) se srovnají podle t
+        out.sort(Comparator.comparingLong(Trace::t));
+        return out;
+    }
+
+    private static double parseSpeed(String s) {
+        String v = s.trim().toLowerCase();
+        if (v.equals("max")) return 0;
+        if (v.endsWith("x")) v = v.substring(0, v.length() - 1);
+        double d = Double.parseDouble(v);
+        if (d <= 0) throw new IllegalArgumentException("replay.speed musí být > 0 nebo max.");
+        return d;
+    }
+}
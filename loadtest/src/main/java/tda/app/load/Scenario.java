@@ -0,0 +1,16 @@
+package tda.app.load;
+
+import java.util.List;
+
+/**
+ * Jeden zátěžový scénář. Připraví si data přes API lektora, spustí zátěž a vrátí naměřené metriky
+ * (jména metrik = klíče v slo.*). Po sobě uklízí, pokud je cleanup=true.
+ */
+interface Scenario {
+
+    record Context(LoadConfig config, Api api, String courseId, int students) {}
+
+    String name();
+
+    List<Measurement> run(Context ctx) throws Exception;
+}
@@ -0,0 +1,47 @@
+package tda.app.load;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Jeden cíl z konfigurace: slo.&lt;metrika&gt;.&lt;druh&gt;=limit, např. slo.quiz.submit.p99-ms=1000.
+ * Splněno, když naměřená hodnota &lt;= limit. Metrika bez jediného úspěšného vzorku
+ * latenční SLO nesplní.
+ */
+record Slo(String metric, String kind, double limit) {
+
+    record Verdict(Slo slo, double actual, boolean passed) {}
+
+    static List<Slo> parse(LoadConfig config) {
+        List<Slo> out = new ArrayList<>();
+        for (String key : config.keys("slo.")) {
+            String rest = key.substring("slo.".length());
+            int dot = rest.lastIndexOf('.');
+            if (dot <= 0) throw new IllegalArgumentException("Neplatný klíč SLO: " + key);
+            String kind = rest.substring(dot + 1);
+            if (!kind.equals("error-rate") && !kind.endsWith("-ms")) {
+                throw new IllegalArgumentException("Neznámý druh SLO: " + key);
+            }
+            out.add(new Slo(rest.substring(0, dot), kind, Double.parseDouble(config.get(key))));
+        }
+        return out;
+    }
+
+    Verdict check(Measurement m) {
+        if (kind.equals("error-rate")) {
+            double rate = m.errorRate();
+            return new Verdict(this, rate, rate <= limit);
+        }
+        if (m.ok() == 0) return new Verdict(this, Double.NaN, false);
+
+        double actual = switch (kind) {
+            case "p50-ms" -> m.percentileMillis(50);
+            case "p90-ms" -> m.percentileMillis(90);
+            case "p99-ms" -> m.percentileMillis(99);
+            case "p999-ms" -> m.percentileMillis(99.9);
+            case "max-ms" -> m.maxMillis();
+            default -> throw new IllegalArgumentException("Neznámý druh SLO: " + kind);
+        };
+        return new Verdict(this, actual, actual <= limit);
+    }
+}
@@ -0,0 +1,48 @@
+package tda.app.load;
+
+import java.net.http.HttpTimeoutException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * „Všichni najednou“: n virtuálních vláken se nejdřív připraví a pak je pustí jedna závora –
+ * jako třída, která na pokyn lektora klikne ve stejnou vteřinu.
+ *
+ * Zátěž je uzavřená (každý student pošle request a čeká), takže latence nezkresluje
+ * coordinated omission: start se měří až po otevření závory, ne od plánovaného času.
+ */
+final class Storm {
+
+    interface Task {
+        void run(int student) throws Exception;
+    }
+
+    private Storm() {
+    }
+
+    /** Spustí task pro studenty 0..n-1 naráz a počká na všechny. Výjimky tasků zapisuje volající sám. */
+    static void run(int n, Task task) throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(n);
+        CountDownLatch gate = new CountDownLatch(1);
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < n; i++) {
+                int student = i;
+                pool.submit(() -> {
+                    ready.countDown();
+                    gate.await();
+                    task.run(student);
+                    return null;
+                });
+            }
+            ready.await();
+            gate.countDown();
+        }
+    }
+
+    /** Krátký důvod chyby do reportu. */
+    static String reason(Throwable e) {
+        if (e instanceof HttpTimeoutException) return "timeout";
+        return e.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,69 @@
+package tda.app.load;
+
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Lektor hromadně nahrává podklady (jako přetažení složky do UI) s omezenou souběžností.
+ *
+ * - upload.request = celý multipart POST včetně zápisu na disk a materials.json
+ */
+final class UploadScenario implements Scenario {
+
+    @Override
+    public String name() {
+        return "upload";
+    }
+
+    @Override
+    public List<Measurement> run(Context ctx) throws Exception {
+        LoadConfig cfg = ctx.config();
+        String base = "/api/courses/" + ctx.courseId() + "/materials";
+        Measurement upload = new Measurement("upload.request");
+
+        int files = cfg.getInt("upload.files");
+        byte[] content = new byte[cfg.getInt("upload.size-mb") * 1024 * 1024];
+        new Random(7).nextBytes(content);
+
+        Semaphore concurrency = new Semaphore(Math.max(1, cfg.getInt("upload.concurrency")));
+        List<String> created = Collections.synchronizedList(new ArrayList<>());
+        try {
+            try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < files; i++) {
+                    int n = i + 1;
+                    pool.submit(() -> {
+                        concurrency.acquire();
+                        try {
+                            long start = System.nanoTime();
+                            HttpResponse<byte[]> res = ctx.api().client().send(
+                                    ctx.api().upload(base, "Podklady " + n, "podklady-" + n + ".pdf", "application/pdf", content),
+                                    HttpResponse.BodyHandlers.ofByteArray());
+                            if (res.statusCode() == 200) {
+                                upload.recordSince(start);
+                                created.add(Api.MAPPER.readTree(res.body()).path("id").asText());
+                            } else {
+                                upload.error(String.valueOf(res.statusCode()));
+                            }
+                        } catch (Exception e) {
+                            upload.error(Storm.reason(e));
+                        } finally {
+                            concurrency.release();
+                        }
+                        return null;
+                    });
+                }
+            }
+        } finally {
+            if (cfg.getBoolean("cleanup")) {
+                for (String id : created) ctx.api().json("DELETE", base + "/" + id, null);
+            }
+        }
+        return List.of(upload);
+    }
+}
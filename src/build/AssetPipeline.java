@@ -0,0 +1,206 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Build krok pro statické soubory (spouští ho exec-maven-plugin ve fázi process-resources).
+ * Čte vždy ze zdrojů (src/main/resources) a zapisuje do výstupu (target/classes), takže
+ * opakovaný build bez clean dá stejný výsledek – resources plugin soubory, které se
+ * v src nezměnily, znovu nekopíruje a v target by zůstalo už přepsané HTML se starými hashi.
+ *
+ *   java src/build/AssetPipeline.java src/main/resources target/classes
+ *
+ * 0. hashované soubory a .gz/.br z minulého běhu se z výstupu smažou
+ * 1. assety (css, js, obrázky) dostanou kopii s hashem obsahu v názvu: style.css -> style.3f2a9c1b7d.css
+ *    (CSS se nejdřív přepíše, aby jeho hash zahrnoval i hashe obrázků, na které odkazuje)
+ * 2. odkazy src="/..." a href="/..." v HTML (static i Thymeleaf šablony) se přepíšou na hashované názvy
+ * 3. textové soubory dostanou předkomprimované varianty .gz (a .br, pokud je v PATH nástroj brotli)
+ * 4. mapování se zapíše do static/asset-manifest.json
+ *
+ * Původní názvy zůstávají (kvůli odkazům skládaným v JS a starým záložkám).
+ */
+public class AssetPipeline {
+
+    private static final Set<String> BINARY = Set.of("png", "jpg", "jpeg", "gif", "webp", "ico", "woff", "woff2");
+    private static final Set<String> TEXT = Set.of("css", "js", "svg", "html", "json", "txt");
+    private static final Pattern HASHED = Pattern.compile(".+\\.[0-9a-f]{10}\\.[a-z0-9]+$");
+    private static final Pattern HTML_REF = Pattern.compile("((?:src|href)\\s*=\\s*\")(/[^\"?#]+)([^\"]*\")");
+    private static final Pattern CSS_URL = Pattern.compile("(url\\(\\s*['\"]?)(/[^'\")?#]+)([^)]*\\))");
+    private static final int MIN_COMPRESS_BYTES = 512;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("usage: AssetPipeline <resources src dir> <output dir>");
+            System.exit(2);
+        }
+        Path src = Path.of(args[0]);
+        Path out = Path.of(args[1]);
+        Path statics = out.resolve("static");
+        if (!Files.isDirectory(statics)) {
+            System.out.println("[assets] " + statics + " neexistuje, přeskakuji");
+            return;
+        }
+
+        int stale = clean(statics);
+        boolean brotli = hasBrotli();
+        Map<String, String> manifest = new TreeMap<>();
+
+        // 1) binární assety, pak CSS (přepsané url()), pak JS
+        for (Path p : files(statics, BINARY)) fingerprint(statics, p, Files.readAllBytes(source(src, out, p)), manifest);
+        for (Path p : files(statics, Set.of("css"))) {
+            String css = rewrite(Files.readString(source(src, out, p)), CSS_URL, manifest);
+            fingerprint(statics, p, css.getBytes(StandardCharsets.UTF_8), manifest);
+        }
+        for (Path p : files(statics, Set.of("js"))) fingerprint(statics, p, Files.readAllBytes(source(src, out, p)), manifest);
+
+        // 2) HTML
+        int html = 0;
+        for (Path dir : List.of(statics, out.resolve("templates"))) {
+            if (!Files.isDirectory(dir)) continue;
+            for (Path p : files(dir, Set.of("html"))) {
+                String in = Files.readString(source(src, out, p));
+                String rewritten = rewrite(in, HTML_REF, manifest);
+                Files.writeString(p, rewritten);
+                if (!rewritten.equals(in)) html++;
+            }
+        }
+
+        // 3) manifest + komprese (šablony se renderují dynamicky, ty ne)
+        StringBuilder json = new StringBuilder("{\n");
+        manifest.forEach((k, v) -> json.append("  \"").append(k).append("\": \"").append(v).append("\",\n"));
+        if (!manifest.isEmpty()) json.setLength(json.length() - 2);
+        json.append("\n}\n");
+        Files.writeString(statics.resolve("asset-manifest.json"), json);
+
+        int gz = 0, br = 0;
+        for (Path p : files(statics, TEXT, true)) {
+            if (Files.size(p) < MIN_COMPRESS_BYTES) continue;
+            if (gzip(p)) gz++;
+            if (brotli && brotli(p)) br++;
+        }
+
+        System.out.printf("[assets] %d hashovaných souborů, %d přepsaných HTML, %d .gz, %d .br, %d starých smazáno%s%n",
+                manifest.size(), html, gz, br, stale, brotli ? "" : " (brotli není v PATH)");
+    }
+
+    /** Smaže výstupy minulého běhu: hashované kopie a předkomprimované varianty. */
+    private static int clean(Path statics) throws IOException {
+        List<Path> old = new ArrayList<>();
+        try (Stream<Path> s = Files.walk(statics)) {
+            s.filter(Files::isRegularFile)
+                    .filter(p -> {
+                        String n = p.getFileName().toString();
+                        return HASHED.matcher(n).matches() || n.endsWith(".gz") || n.endsWith(".br");
+                    })
+                    .forEach(old::add);
+        }
+        for (Path p : old) Files.delete(p);
+        return old.size();
+    }
+
+    /** Zdrojová podoba souboru z výstupu; soubor, který v src není, se čte z výstupu. */
+    private static Path source(Path src, Path out, Path file) {
+        Path original = src.resolve(out.relativize(file).toString());
+        return Files.isRegularFile(original) ? original : file;
+    }
+
+    private static void fingerprint(Path root, Path file, byte[] content, Map<String, String> manifest) throws Exception {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content)).substring(0, 10);
+        Path hashed = file.resolveSibling(name.substring(0, dot) + "." + hash + name.substring(dot));
+
+        Files.write(file, content); // CSS s přepsanými url() i pod původním názvem
+        Files.write(hashed, content);
+        manifest.put(urlOf(root, file), urlOf(root, hashed));
+    }
+
+    private static String rewrite(String text, Pattern refs, Map<String, String> manifest) {
+        Matcher m = refs.matcher(text);
+        StringBuilder sb = new StringBuilder();
+        while (m.find()) {
+            String target = manifest.get(m.group(2));
+            String url = (target == null) ? m.group(2) : target;
+            m.appendReplacement(sb, Matcher.quoteReplacement(m.group(1) + url + m.group(3)));
+        }
+        m.appendTail(sb);
+        return sb.toString();
+    }
+
+    private static boolean gzip(Path p) throws IOException {
+        byte[] raw = Files.readAllBytes(p);
+        Path out = p.resolveSibling(p.getFileName() + ".gz");
+        try (OutputStream os = new GZIPOutputStream(Files.newOutputStream(out)) {
+            { def.setLevel(Deflater.BEST_COMPRESSION); }
+        }) {
+            os.write(raw);
+        }
+        if (Files.size(out) >= raw.length) {
+            Files.delete(out);
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean brotli(Path p) throws Exception {
+        Process proc = new ProcessBuilder("brotli", "-q", "11", "-f", "-k", p.toString()).inheritIO().start();
+        if (!proc.waitFor(60, TimeUnit.SECONDS) || proc.exitValue() != 0) return false;
+        Path out = p.resolveSibling(p.getFileName() + ".br");
+        if (Files.exists(out) && Files.size(out) >= Files.size(p)) {
+            Files.delete(out);
+            return false;
+        }
+        return Files.exists(out);
+    }
+
+    private static boolean hasBrotli() {
+        try {
+            Process p = new ProcessBuilder("brotli", "--version").redirectErrorStream(true).start();
+            p.getInputStream().readAllBytes();
+            return p.waitFor(10, TimeUnit.SECONDS) && p.exitValue() == 0;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static List<Path> files(Path root, Set<String> extensions) throws IOException {
+        return files(root, extensions, false);
+    }
+
+    private static List<Path> files(Path root, Set<String> extensions, boolean withHashed) throws IOException {
+        List<Path> out = new ArrayList<>();
+        try (Stream<Path> s = Files.walk(root)) {
+            s.filter(Files::isRegularFile)
+                    .filter(p -> withHashed || !HASHED.matcher(p.getFileName().toString()).matches())
+                    .filter(p -> extensions.contains(ext(p)))
+                    .sorted()
+                    .forEach(out::add);
+        }
+        return out;
+    }
+
+    private static String ext(Path p) {
+        String n = p.getFileName().toString();
+        int dot = n.lastIndexOf('.');
+        return dot < 0 ? "" : n.substring(dot + 1).toLowerCase();
+    }
+
+    private static String urlOf(Path root, Path file) {
+        return "/" + root.relativize(file).toString().replace('\\', '/');
+    }
+}
@@ -0,0 +1,66 @@
+package tda.app.app;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Component;
+import tda.app.app.feed.FeedService;
+import tda.app.app.quiz.QuizStore;
+
+/**
+ * Gauges velikostí in-memory indexů a cache (čtou se až při scrapu, hot path nic nestojí).
+ *
+ * Timery a čítače na hot path (app.persistence, app.lock.wait, app.quiz.grading,
+ * app.feed.broadcast, app.materials.bytes) registrují přímo jednotlivé třídy;
+ * latence endpointů měří Spring (http.server.requests). Export -> GET /actuator/prometheus.
+ */
+@Component
+public class AppMetrics {
+
+    private final MeterRegistry registry;
+    private final CourseSearchIndex searchIndex;
+    private final MaterialController materials;
+    private final QuizStore quizzes;
+    private final FeedService feed;
+    private final CourseFragmentCache fragments;
+
+    public AppMetrics(
+            MeterRegistry registry,
+            CourseSearchIndex searchIndex,
+            MaterialController materials,
+            QuizStore quizzes,
+            FeedService feed,
+            CourseFragmentCache fragments
+    ) {
+        this.registry = registry;
+        this.searchIndex = searchIndex;
+        this.materials = materials;
+        this.quizzes = quizzes;
+        this.feed = feed;
+        this.fragments = fragments;
+    }
+
+    @PostConstruct
+    public void register() {
+        Gauge.builder("app.index.size", searchIndex, CourseSearchIndex::size)
+                .tag("index", "course-search").register(registry);
+        Gauge.builder("app.index.size", materials, MaterialController::count)
+                .tag("index", "materials").register(registry);
+        Gauge.builder("app.index.size", quizzes, QuizStore::quizCount)
+                .tag("index", "quizzes").register(registry);
+        Gauge.builder("app.index.size", quizzes, QuizStore::resultCount)
+                .tag("index", "quiz-results").register(registry);
+
+        Gauge.builder("app.sse.subscribers", feed, FeedService::subscriberCount)
+                .description("Všechna otevřená SSE spojení (per kurz: app.sse.subscribers.course)")
+                .register(registry);
+
+        Gauge.builder("app.feed.cache.courses", feed, f -> f.cacheStats().courses()).register(registry);
+        Gauge.builder("app.feed.cache.bytes", feed, f -> f.cacheStats().bytes()).baseUnit("bytes").register(registry);
+        FunctionCounter.builder("app.feed.cache.hits", feed, f -> f.cacheStats().hits()).register(registry);
+        FunctionCounter.builder("app.feed.cache.misses", feed, f -> f.cacheStats().misses()).register(registry);
+
+        Gauge.builder("app.fragment-cache.courses", fragments, f -> f.stats().courses()).register(registry);
+    }
+}
@@ -0,0 +1,60 @@
+package tda.app.app;
+
+import tda.app.app.feed.FeedEvent;
+import tda.app.app.quiz.Quiz;
+import tda.app.app.quiz.QuizStatus;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Změna obsahu kurzu (materiál, kvíz, pokus, feed) – Spring application event.
+ *
+ * Publikují ho MaterialController, QuizStore a FeedService po úspěšném zápisu;
+ * MaterialController a QuizStore ještě pod zámkem úložiště, takže seq v change logu i pořadí
+ * live frame odpovídají pořadí zápisů. Posluchači (@EventListener) se tak nemusí zapojovat
+ * do každé cesty zápisu zvlášť.
+ *
+ * item: Material | Quiz | QuizResult | FeedEvent (podle kind); u DELETED odebraná položka.
+ * remote: změna vznikla v jiné instanci a sem ji doručil FeedEventBus (jen FEED) –
+ * lokální cache ji promítnout musí, trvalé záznamy (change log) už zapsala původní instance.
+ */
+public record CourseChangeEvent(
+        String courseId,
+        Kind kind,
+        Action action,
+        String itemId,
+        Object item,
+        boolean remote
+) {
+    public enum Kind { MATERIAL, QUIZ, ATTEMPT, FEED }
+
+    public enum Action { CREATED, UPDATED, DELETED }
+
+    public CourseChangeEvent(String courseId, Kind kind, Action action, String itemId, Object item) {
+        this(courseId, kind, action, itemId, item, false);
+    }
+
+    /**
+     * Podoba změny, kterou smí vidět student (live WebSocket, change log).
+     * Feed = stejný payload jako SSE, materiál celý, kvíz jen shrnutí.
+     */
+    public Object publicPayload() {
+        if (item instanceof FeedEvent fe) return fe.toPayload();
+
+        Map<String, Object> d = new LinkedHashMap<>();
+        d.put("action", action.name().toLowerCase());
+        d.put("id", itemId);
+        if (action == Action.DELETED) return d;
+
+        if (item instanceof Material m) {
+            d.put("item", m);
+        } else if (item instanceof Quiz q) {
+            // studentům nikdy neposíláme správné odpovědi – jen shrnutí
+            d.put("title", q.title());
+            d.put("status", q.status() == null ? QuizStatus.OPEN : q.status());
+            d.put("createdAt", q.createdAt());
+        }
+        return d;
+    }
+}
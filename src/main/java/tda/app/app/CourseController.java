@@ -1,52 +1,143 @@
 package tda.app.app;
 
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import tda.app.app.id.Ids;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
-import java.util.UUID;
 import java.util.stream.Collectors;
 
 /**
  * REST API pro kurzy.
  *
- * - GET /api/courses
+ * - GET /api/courses[?search=..] – zastaralé: bez stránkování, nejvýš UNPAGED_LIMIT kurzů
+ * - GET /api/courses?size=20[&page=0|&cursor=..][&sort=title|-title|lecturer][&lecturer=..][&search=..]
  * - GET /api/courses/{uuid}
  * - POST /api/courses (Bearer lecturer)
  * - PUT /api/courses/{uuid} (Bearer lecturer)
  * - DELETE /api/courses/{uuid} (Bearer lecturer)
+ *
+ * Detail kurzu podporuje If-None-Match (CourseETagInterceptor); zápisy proto zvedají CourseVersions.
  */
 @RestController
 @RequestMapping("/api/courses")
 public class CourseController {
 
     private final CourseRepository repo;
+    private final CourseSearchIndex index;
+    private final CourseVersions versions;
 
-    public CourseController(CourseRepository repo) {
+    public CourseController(CourseRepository repo, CourseSearchIndex index, CourseVersions versions) {
         this.repo = repo;
+        this.index = index;
+        this.versions = versions;
     }
 
     public record CourseDto(String id, String title, String description, String lecturer) {}
 
     public record CourseCreateUpdateRequest(String title, String description, String lecturer) {}
 
+    /**
+     * Jedna stránka katalogu. nextCursor předej jako ?cursor= pro další stránku
+     * (keyset – cena nezávisí na tom, jak hluboko v katalogu jsme).
+     */
+    public record CoursePage(List<CourseDto> items, Integer page, int size, boolean hasNext, String nextCursor) {}
+
+    static final int MAX_PAGE_SIZE = 100;
+    // nestránkovaný seznam (dashboardy, výběr kurzu lektora) – strop, ať katalog neroste do odpovědi celý
+    static final int UNPAGED_LIMIT = 1000;
+
+    /** Zastaralé – nové klienty stránkují přes ?size= (hlavička Deprecation + Link na nástupce). */
     @GetMapping
-    public List<CourseDto> list(@RequestParam(name = "search", required = false) String search) {
-        List<CourseEntity> all = repo.findAll();
+    public List<CourseDto> list(
+            @RequestParam(name = "search", required = false) String search,
+            HttpServletResponse response
+    ) {
+        response.setHeader("Deprecation", "true");
+        response.setHeader(HttpHeaders.LINK, "</api/courses?size=" + MAX_PAGE_SIZE + ">; rel=\"successor-version\"");
+
         if (search == null || search.isBlank()) {
-            return all.stream().map(CourseController::toDto).collect(Collectors.toList());
+            return repo.findAllBy(PageRequest.of(0, UNPAGED_LIMIT, sortOf("title"))).stream()
+                    .map(CourseController::toDto)
+                    .collect(Collectors.toList());
         }
 
-        String s = search.toLowerCase().trim();
-        return all.stream()
-                .filter(c -> (c.getTitle() != null && c.getTitle().toLowerCase().contains(s))
-                        || (c.getDescription() != null && c.getDescription().toLowerCase().contains(s))
-                        || (c.getLecturer() != null && c.getLecturer().toLowerCase().contains(s)))
-                .map(CourseController::toDto)
+        // vyhledávání jde přes invertovaný index (bez diakritiky, seřazeno podle relevance)
+        return index.search(search, null, null, UNPAGED_LIMIT).stream()
+                .map(h -> toDto(h.course()))
                 .collect(Collectors.toList());
     }
 
+    @GetMapping(params = "size")
+    public CoursePage page(
+            @RequestParam(name = "size") int size,
+            @RequestParam(name = "page", required = false) Integer page,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "sort", defaultValue = "title") String sort,
+            @RequestParam(name = "lecturer", required = false) String lecturer,
+            @RequestParam(name = "search", required = false) String search
+    ) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "size must be 1.." + MAX_PAGE_SIZE);
+        }
+        if (page != null && page < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "page must be >= 0");
+        }
+        if (page != null && cursor != null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Use either page or cursor");
+        }
+        if (!sort.equals("title") && !sort.equals("-title") && !sort.equals("lecturer")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "sort must be title, -title or lecturer");
+        }
+        if (isBlank(lecturer)) lecturer = null;
+        // při filtru na lektora je řazení podle lektora bezpředmětné
+        if (lecturer != null && sort.equals("lecturer")) sort = "title";
+
+        if (!isBlank(search)) {
+            return searchPage(search, lecturer, page, cursor, size);
+        }
+
+        // o jeden záznam víc -> víme, jestli existuje další stránka, bez COUNT
+        List<CourseEntity> rows;
+        if (cursor != null) {
+            String[] c = decodeCursor(cursor, sort);
+            PageRequest limit = PageRequest.of(0, size + 1);
+            rows = switch (sort) {
+                case "-title" -> lecturer == null
+                        ? repo.findTitleBefore(c[1], c[2], limit)
+                        : repo.findByLecturerTitleBefore(lecturer, c[1], c[2], limit);
+                case "lecturer" -> repo.findLecturerAfter(c[0], c[1], c[2], limit);
+                default -> lecturer == null
+                        ? repo.findTitleAfter(c[1], c[2], limit)
+                        : repo.findByLecturerTitleAfter(lecturer, c[1], c[2], limit);
+            };
+        } else {
+            PageRequest pr = PageRequest.of(page == null ? 0 : page, size + 1, sortOf(sort));
+            Slice<CourseEntity> slice = (lecturer == null) ? repo.findAllBy(pr) : repo.findByLecturer(lecturer, pr);
+            rows = slice.getContent();
+        }
+
+        boolean hasNext = rows.size() > size;
+        if (hasNext) rows = rows.subList(0, size);
+        String next = hasNext ? encodeCursor(sort, rows.get(rows.size() - 1)) : null;
+
+        return new CoursePage(
+                rows.stream().map(CourseController::toDto).collect(Collectors.toList()),
+                cursor == null ? (page == null ? 0 : page) : null,
+                size,
+                hasNext,
+                next
+        );
+    }
+
     @GetMapping("/{id}")
     public CourseDto get(@PathVariable String id) {
         CourseEntity e = repo.findById(id)
@@ -64,8 +155,10 @@ public class CourseController {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Missing fields");
         }
 
-        CourseEntity e = new CourseEntity(UUID.randomUUID().toString(), req.title(), req.description(), req.lecturer());
+        CourseEntity e = new CourseEntity(Ids.newId(), req.title(), req.description(), req.lecturer());
         repo.save(e);
+        index.put(e);
+        versions.bump(e.getId(), CourseVersions.Resource.COURSE);
         return toDto(e);
     }
 
@@ -87,6 +180,8 @@ public class CourseController {
         e.setDescription(req.description());
         e.setLecturer(req.lecturer());
         repo.save(e);
+        index.put(e);
+        versions.bump(e.getId(), CourseVersions.Resource.COURSE);
         return toDto(e);
     }
 
@@ -101,12 +196,92 @@ public class CourseController {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found");
         }
         repo.deleteById(id);
+        index.remove(id);
+        versions.bump(id, CourseVersions.Resource.COURSE);
+    }
+
+    // hledání řadí podle relevance; kurzor = (skóre, název, id) posledního výsledku, page = offset.
+    // Lektor i limit filtruje přímo index – nenačítají se všechny výsledky.
+    private CoursePage searchPage(String search, String lecturer, Integer page, String cursor, int size) {
+        List<CourseSearchIndex.Hit> hits;
+        if (cursor != null) {
+            String[] c = decodeCursor(cursor, SEARCH_CURSOR);
+            hits = index.search(search, lecturer, new CourseSearchIndex.SearchKey(scoreOf(c[0]), c[1], c[2]), size + 1);
+        } else {
+            long from = (long) (page == null ? 0 : page) * size;
+            if (from + size + 1 > Integer.MAX_VALUE) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "page is too large, use cursor");
+            }
+            hits = index.search(search, lecturer, null, (int) from + size + 1);
+            hits = hits.subList((int) Math.min(from, hits.size()), hits.size());
+        }
+
+        boolean hasNext = hits.size() > size;
+        if (hasNext) hits = hits.subList(0, size);
+        String next = hasNext ? encodeSearchCursor(hits.get(hits.size() - 1).key()) : null;
+
+        return new CoursePage(
+                hits.stream().map(h -> toDto(h.course())).collect(Collectors.toList()),
+                cursor == null ? (page == null ? 0 : page) : null,
+                size,
+                hasNext,
+                next
+        );
+    }
+
+    private static final String SEARCH_CURSOR = "search";
+
+    // stejný tvar jako kurzor katalogu: base64url("search" \0 skóre \0 řadicí klíč \0 id)
+    private static String encodeSearchCursor(CourseSearchIndex.SearchKey key) {
+        String raw = String.join("\0", SEARCH_CURSOR, Long.toHexString(Double.doubleToLongBits(key.score())),
+                key.sortKey(), key.id());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static double scoreOf(String hex) {
+        try {
+            return Double.longBitsToDouble(Long.parseUnsignedLong(hex, 16));
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    private static Sort sortOf(String sort) {
+        return switch (sort) {
+            case "-title" -> Sort.by(Sort.Order.desc("title"), Sort.Order.desc("id"));
+            case "lecturer" -> Sort.by(Sort.Order.asc("lecturer"), Sort.Order.asc("title"), Sort.Order.asc("id"));
+            default -> Sort.by(Sort.Order.asc("title"), Sort.Order.asc("id"));
+        };
+    }
+
+    // kurzor = base64url(sort \0 lecturer \0 title \0 id) posledního záznamu stránky
+    private static String encodeCursor(String sort, CourseEntity last) {
+        String raw = String.join("\0", sort, last.getLecturer(), last.getTitle(), last.getId());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** @return [lecturer, title, id] */
+    private static String[] decodeCursor(String cursor, String sort) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\0", -1);
+        } catch (IllegalArgumentException e) {
+            parts = new String[0];
+        }
+        if (parts.length != 4 || !parts[0].equals(sort)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+        return new String[]{parts[1], parts[2], parts[3]};
     }
 
     private static CourseDto toDto(CourseEntity e) {
         return new CourseDto(e.getId(), e.getTitle(), e.getDescription(), e.getLecturer());
     }
 
+    private static CourseDto toDto(Course c) {
+        return new CourseDto(c.id(), c.title(), c.description(), c.lecturer());
+    }
+
     private static void requireLecturer(String authHeader) {
         if (!Auth.isBearerValid(authHeader)) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
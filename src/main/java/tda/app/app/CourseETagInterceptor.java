@@ -0,0 +1,82 @@
+package tda.app.app;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Podmíněné GETy pro data kurzu, která studentské stránky opakovaně stahují:
+ *
+ * - GET /api/courses/{id}
+ * - GET /api/courses/{courseId}/materials
+ * - GET /api/courses/{courseId}/quizzes, /quizzes/{quizId}
+ * - GET /api/courses/{courseId}/feed
+ *
+ * ETag se skládá z CourseVersions ještě před voláním controlleru. Když sedí If-None-Match,
+ * odpoví se rovnou 304 – bez čtení store, DB i Jacksonu. Cache-Control: no-cache říká
+ * prohlížeči, ať odpověď drží, ale před použitím ji vždy revaliduje.
+ *
+ * Neexistující kurz ETag ani 304 nedostane – 404 (či prázdný seznam) z controlleru nesmí
+ * nést validátor. Existence se ověří přes findById (L2 cache kurzů, bez dotazu do DB).
+ */
+@Component
+public class CourseETagInterceptor implements HandlerInterceptor, WebMvcConfigurer {
+
+    // vzory z @GetMapping (BEST_MATCHING_PATTERN_ATTRIBUTE) -> druh obsahu a jméno proměnné s ID kurzu
+    private record Target(CourseVersions.Resource resource, String courseVar) {}
+
+    private static final Map<String, Target> TARGETS = Map.of(
+            "/api/courses/{id}", new Target(CourseVersions.Resource.COURSE, "id"),
+            "/api/courses/{courseId}/materials", new Target(CourseVersions.Resource.MATERIALS, "courseId"),
+            "/api/courses/{courseId}/quizzes", new Target(CourseVersions.Resource.QUIZZES, "courseId"),
+            "/api/courses/{courseId}/quizzes/{quizId}", new Target(CourseVersions.Resource.QUIZZES, "courseId"),
+            "/api/courses/{courseId}/feed", new Target(CourseVersions.Resource.FEED, "courseId")
+    );
+
+    private final CourseVersions versions;
+    private final Predicate<String> courseExists;
+
+    @Autowired
+    public CourseETagInterceptor(CourseVersions versions, CourseRepository courses) {
+        this(versions, id -> courses.findById(id).isPresent());
+    }
+
+    /** Bez repozitáře (testy) – o existenci kurzu rozhodne courseExists. */
+    public CourseETagInterceptor(CourseVersions versions, Predicate<String> courseExists) {
+        this.versions = versions;
+        this.courseExists = courseExists;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this).addPathPatterns("/api/courses/**");
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) return true;
+
+        Target target = TARGETS.get((String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+        if (target == null) return true;
+
+        @SuppressWarnings("unchecked")
+        Map<String, String> vars = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String courseId = vars == null ? null : vars.get(target.courseVar());
+        if (courseId == null || !courseExists.test(courseId)) return true;
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        // nastaví ETag; při shodě s If-None-Match i status 304
+        return !new ServletWebRequest(request, response).checkNotModified(versions.etag(courseId, target.resource()));
+    }
+}
@@ -1,19 +1,34 @@
 package tda.app.app;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * JPA entita pro kurzy (Fáze 1).
  *
  * Primární klíč je String UUID, aby se snadno používal v URL (/courses/{uuid}).
+ * Indexy odpovídají řazení/filtrování katalogu (viz CourseRepository – keyset stránkování).
+ * Kurzy se mění zřídka -> L2 cache (region "courses", limity v application.conf);
+ * READ_WRITE ji při update/delete přes JPA sám zneplatní.
  */
 @Entity
-@Table(name = "courses")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CourseEntity.CACHE_REGION)
+@Table(name = "courses", indexes = {
+        @Index(name = "idx_courses_title_id", columnList = "title, id"),
+        @Index(name = "idx_courses_lecturer_title_id", columnList = "lecturer, title, id")
+})
 public class CourseEntity {
 
+    public static final String CACHE_REGION = "courses";
+    public static final String LIST_CACHE_REGION = "course-list";
+
     @Id
     @Column(length = 36)
     private String id;
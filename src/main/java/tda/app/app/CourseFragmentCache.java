@@ -0,0 +1,98 @@
+package tda.app.app;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache vyrenderovaných HTML fragmentů stránky kurzu (materiály, kvízy, feed).
+ *
+ * Fragment se renderuje při prvním požadavku a drží se, dokud nepřijde CourseChangeEvent
+ * stejného druhu pro daný kurz. Kurzy se vyhazují podle LRU (app.pages.fragment-cache.max-courses).
+ * Render probíhá mimo zámek; výsledek se uloží jen tehdy, když mezitím nepřišla invalidace.
+ */
+@Component
+public class CourseFragmentCache {
+
+    public enum Fragment { MATERIALS, QUIZZES, FEED }
+
+    public record Stats(long hits, long misses, long invalidations, int courses) {}
+
+    private static final class Entry {
+        final Map<Fragment, String> html = new EnumMap<>(Fragment.class);
+        final Map<Fragment, Long> stamp = new EnumMap<>(Fragment.class);
+    }
+
+    // globální pořadí invalidací – nový i znovu vytvořený záznam má vždy nové razítko
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final Map<String, Entry> byCourse;
+
+    public CourseFragmentCache(@Value("${app.pages.fragment-cache.max-courses:500}") int maxCourses) {
+        this.byCourse = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxCourses;
+            }
+        };
+    }
+
+    public String get(String courseId, Fragment fragment, Supplier<String> render) {
+        long stamp;
+        synchronized (byCourse) {
+            Entry e = byCourse.computeIfAbsent(courseId, k -> new Entry());
+            String cached = e.html.get(fragment);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+            stamp = e.stamp.computeIfAbsent(fragment, f -> clock.incrementAndGet());
+        }
+        misses.incrementAndGet();
+
+        String html = render.get();
+
+        synchronized (byCourse) {
+            Entry e = byCourse.get(courseId);
+            if (e != null && e.stamp.get(fragment) == stamp) e.html.put(fragment, html);
+        }
+        return html;
+    }
+
+    public void invalidate(String courseId, Fragment fragment) {
+        synchronized (byCourse) {
+            Entry e = byCourse.get(courseId);
+            if (e == null) return;
+            e.html.remove(fragment);
+            e.stamp.put(fragment, clock.incrementAndGet());
+        }
+        invalidations.incrementAndGet();
+    }
+
+    @EventListener
+    public void onCourseChange(CourseChangeEvent e) {
+        switch (e.kind()) {
+            case MATERIAL -> invalidate(e.courseId(), Fragment.MATERIALS);
+            case QUIZ -> invalidate(e.courseId(), Fragment.QUIZZES);
+            case FEED -> invalidate(e.courseId(), Fragment.FEED);
+            default -> { } // pokus na seznamu kvízů nic nemění
+        }
+    }
+
+    public Stats stats() {
+        int courses;
+        synchronized (byCourse) {
+            courses = byCourse.size();
+        }
+        return new Stats(hits.get(), misses.get(), invalidations.get(), courses);
+    }
+}
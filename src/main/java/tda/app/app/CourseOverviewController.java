@@ -0,0 +1,132 @@
+package tda.app.app;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import tda.app.app.feed.FeedService;
+import tda.app.app.quiz.QuizStore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Souhrn kurzu pro detail stránky jedním requestem.
+ *
+ * - GET /api/courses/{id}/overview[?feedLimit=20]
+ *
+ * Kurz, materiály, kvízy a první stránka feedu se načítají souběžně na virtuálních
+ * vláknech. Každá větev má vlastní časový limit; pomalá nebo chybná větev (kromě kurzu
+ * samotného) se vrátí jako null a její název je v "degraded" – klient ji dotáhne zvlášť.
+ */
+@RestController
+@RequestMapping("/api/courses")
+public class CourseOverviewController {
+
+    public record CourseOverview(
+            CourseController.CourseDto course,
+            List<Material> materials,
+            List<QuizStore.QuizSummaryDto> quizzes,
+            List<FeedService.FeedItemDto> feed,
+            List<String> degraded
+    ) {}
+
+    static final int MAX_FEED_LIMIT = 100;
+
+    private final CourseController courses;
+    private final MaterialController materials;
+    private final QuizStore quizzes;
+    private final FeedService feed;
+    private final long courseTimeoutMillis;
+    private final long branchTimeoutMillis;
+
+    public CourseOverviewController(
+            CourseController courses,
+            MaterialController materials,
+            QuizStore quizzes,
+            FeedService feed,
+            @Value("${app.overview.course-timeout-millis:2000}") long courseTimeoutMillis,
+            @Value("${app.overview.branch-timeout-millis:500}") long branchTimeoutMillis
+    ) {
+        this.courses = courses;
+        this.materials = materials;
+        this.quizzes = quizzes;
+        this.feed = feed;
+        this.courseTimeoutMillis = courseTimeoutMillis;
+        this.branchTimeoutMillis = branchTimeoutMillis;
+    }
+
+    @GetMapping("/{id}/overview")
+    public CourseOverview overview(
+            @PathVariable String id,
+            @RequestParam(name = "feedLimit", defaultValue = "20") int feedLimit
+    ) {
+        int limit = Math.max(1, Math.min(feedLimit, MAX_FEED_LIMIT));
+
+        // Executor žije jen po dobu requestu: žádná větev ho nepřežije (na konci se zbytek přeruší).
+        // Pozn.: StructuredTaskScope je v Javě 21 jen preview, proto ručně stejná struktura.
+        ExecutorService scope = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            long start = System.nanoTime();
+            Future<CourseController.CourseDto> course = scope.submit(() -> courses.get(id));
+            Future<List<Material>> mats = scope.submit(() -> materials.list(id));
+            Future<List<QuizStore.QuizSummaryDto>> qs = scope.submit(() -> quizzes.listSummaries(id));
+            Future<List<FeedService.FeedItemDto>> fs = scope.submit(() -> feed.listRecent(id, limit));
+
+            CourseController.CourseDto c = awaitCourse(course, start);
+
+            List<String> degraded = new ArrayList<>();
+            return new CourseOverview(
+                    c,
+                    await("materials", mats, start, degraded),
+                    await("quizzes", qs, start, degraded),
+                    await("feed", fs, start, degraded),
+                    degraded
+            );
+        } finally {
+            scope.shutdownNow();
+        }
+    }
+
+    // bez kurzu nemá souhrn smysl -> chyby (např. 404) se propagují
+    private CourseController.CourseDto awaitCourse(Future<CourseController.CourseDto> f, long start) {
+        try {
+            return f.get(remaining(start, courseTimeoutMillis), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Course lookup failed");
+        } catch (TimeoutException e) {
+            f.cancel(true);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Course lookup timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted");
+        }
+    }
+
+    private <T> T await(String branch, Future<T> f, long start, List<String> degraded) {
+        try {
+            // limity běží od startu všech větví, ne postupně
+            return f.get(remaining(start, branchTimeoutMillis), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            f.cancel(true);
+            System.err.println("WARN: Overview větev '" + branch + "' nestihla limit " + branchTimeoutMillis + " ms");
+        } catch (ExecutionException e) {
+            System.err.println("WARN: Overview větev '" + branch + "' selhala: " + e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        degraded.add(branch);
+        return null;
+    }
+
+    private static long remaining(long start, long timeoutMillis) {
+        return Math.max(0, TimeUnit.MILLISECONDS.toNanos(timeoutMillis) - (System.nanoTime() - start));
+    }
+}
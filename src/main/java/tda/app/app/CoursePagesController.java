@@ -0,0 +1,134 @@
+package tda.app.app;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.server.ResponseStatusException;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+import tda.app.app.feed.FeedService;
+import tda.app.app.quiz.QuizStatus;
+import tda.app.app.quiz.QuizStore;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Serverem renderované stránky kurzů (Thymeleaf, templates/).
+ *
+ * - /courses            – první stránka katalogu je v HTML hned, další se donačítají z API
+ * - /courses/{id}       – detail kurzu; materiály, kvízy a feed jsou cachované fragmenty
+ * - /courses/{id}/fragments/{materials|quizzes|feed} – jeden fragment (pro živé aktualizace)
+ *
+ * Statické courses.html a courseDetail.html zůstávají funkční.
+ */
+@Controller
+public class CoursePagesController {
+
+    static final int CATALOG_PAGE_SIZE = 24;
+    static final int FEED_ITEMS = 60;
+
+    private static final Locale CS = Locale.forLanguageTag("cs-CZ");
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("d. M. yyyy H:mm:ss", CS)
+            .withZone(ZoneId.of("Europe/Prague"));
+
+    public record MaterialRow(String date, String title, String href, String faviconUrl) {}
+
+    public record QuizRow(String date, String title, String href) {}
+
+    public record FeedRow(String date, String message, boolean edited) {}
+
+    private final CourseController courses;
+    private final MaterialController materials;
+    private final QuizStore quizzes;
+    private final FeedService feed;
+    private final ITemplateEngine templates;
+    private final CourseFragmentCache fragments;
+
+    public CoursePagesController(
+            CourseController courses,
+            MaterialController materials,
+            QuizStore quizzes,
+            FeedService feed,
+            ITemplateEngine templates,
+            CourseFragmentCache fragments
+    ) {
+        this.courses = courses;
+        this.materials = materials;
+        this.quizzes = quizzes;
+        this.feed = feed;
+        this.templates = templates;
+        this.fragments = fragments;
+    }
+
+    @RequestMapping(value = {"/courses", "/courses/"})
+    public String courses(Model model) {
+        model.addAttribute("page", courses.page(CATALOG_PAGE_SIZE, 0, null, "title", null, null));
+        return "courses";
+    }
+
+    @RequestMapping(value = {"/courses/{id}", "/courses/{id}/"})
+    public String courseDetail(@PathVariable String id, Model model) {
+        model.addAttribute("course", courses.get(id));
+        model.addAttribute("materialsHtml", fragment(id, CourseFragmentCache.Fragment.MATERIALS));
+        model.addAttribute("quizzesHtml", fragment(id, CourseFragmentCache.Fragment.QUIZZES));
+        model.addAttribute("feedHtml", fragment(id, CourseFragmentCache.Fragment.FEED));
+        return "courseDetail";
+    }
+
+    @GetMapping(value = "/courses/{id}/fragments/{name}", produces = MediaType.TEXT_HTML_VALUE)
+    @ResponseBody
+    public String fragment(@PathVariable String id, @PathVariable String name) {
+        CourseFragmentCache.Fragment f;
+        try {
+            f = CourseFragmentCache.Fragment.valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown fragment");
+        }
+        return fragment(id, f);
+    }
+
+    // --------------- helpers ---------------
+
+    private String fragment(String courseId, CourseFragmentCache.Fragment f) {
+        return fragments.get(courseId, f, () -> render(courseId, f));
+    }
+
+    private String render(String courseId, CourseFragmentCache.Fragment f) {
+        Context ctx = new Context(CS);
+        String enc = URLEncoder.encode(courseId, StandardCharsets.UTF_8);
+        switch (f) {
+            case MATERIALS -> ctx.setVariable("rows", materials.list(courseId).stream()
+                    .map(m -> m.type() == MaterialType.LINK
+                            ? new MaterialRow(fmt(m.createdAt()), m.title(), m.url(), m.faviconUrl())
+                            : new MaterialRow(fmt(m.createdAt()), m.title(),
+                            "/api/courses/" + enc + "/materials/" + URLEncoder.encode(m.id(), StandardCharsets.UTF_8) + "/download",
+                            null))
+                    .toList());
+            case QUIZZES -> ctx.setVariable("rows", quizzes.listSummaries(courseId).stream()
+                    .map(q -> new QuizRow(
+                            fmt(q.createdAt()),
+                            q.status() == QuizStatus.CLOSED ? q.title() + " (uzavřeno)" : q.title(),
+                            "/quiz.html?courseId=" + enc + "&quizId=" + URLEncoder.encode(q.id(), StandardCharsets.UTF_8)))
+                    .toList());
+            case FEED -> ctx.setVariable("rows", feed.listRecent(courseId, FEED_ITEMS).stream()
+                    .map(it -> new FeedRow(fmt(it.createdAt()), it.message(), it.edited()))
+                    .toList());
+        }
+        return templates.process("fragments/course", Set.of(f.name().toLowerCase(Locale.ROOT)), ctx);
+    }
+
+    private static String fmt(Instant t) {
+        return t == null ? "" : DATE.format(t);
+    }
+}
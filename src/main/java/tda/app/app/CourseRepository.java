@@ -1,6 +1,68 @@
 package tda.app.app;
 
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 
 public interface CourseRepository extends JpaRepository<CourseEntity, String> {
+
+    // celý seznam kurzů jde přes query cache (zneplatní ji jakýkoli zápis do tabulky courses)
+    @Override
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = CourseEntity.LIST_CACHE_REGION)
+    })
+    List<CourseEntity> findAll();
+
+    // --- stránkování page/size (Slice = bez COUNT dotazu) ---
+
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = CourseEntity.LIST_CACHE_REGION)
+    })
+    Slice<CourseEntity> findAllBy(Pageable pageable);
+
+    Slice<CourseEntity> findByLecturer(String lecturer, Pageable pageable);
+
+    // --- keyset stránkování: další stránka za kurzorem (pageable nese jen limit) ---
+
+    @Query("""
+            select c from CourseEntity c
+            where c.title > :title or (c.title = :title and c.id > :id)
+            order by c.title asc, c.id asc""")
+    List<CourseEntity> findTitleAfter(@Param("title") String title, @Param("id") String id, Pageable limit);
+
+    @Query("""
+            select c from CourseEntity c
+            where c.title < :title or (c.title = :title and c.id < :id)
+            order by c.title desc, c.id desc""")
+    List<CourseEntity> findTitleBefore(@Param("title") String title, @Param("id") String id, Pageable limit);
+
+    @Query("""
+            select c from CourseEntity c
+            where c.lecturer > :lecturer
+               or (c.lecturer = :lecturer and (c.title > :title or (c.title = :title and c.id > :id)))
+            order by c.lecturer asc, c.title asc, c.id asc""")
+    List<CourseEntity> findLecturerAfter(@Param("lecturer") String lecturer, @Param("title") String title,
+                                         @Param("id") String id, Pageable limit);
+
+    @Query("""
+            select c from CourseEntity c
+            where c.lecturer = :lecturer and (c.title > :title or (c.title = :title and c.id > :id))
+            order by c.title asc, c.id asc""")
+    List<CourseEntity> findByLecturerTitleAfter(@Param("lecturer") String lecturer, @Param("title") String title,
+                                                @Param("id") String id, Pageable limit);
+
+    @Query("""
+            select c from CourseEntity c
+            where c.lecturer = :lecturer and (c.title < :title or (c.title = :title and c.id < :id))
+            order by c.title desc, c.id desc""")
+    List<CourseEntity> findByLecturerTitleBefore(@Param("lecturer") String lecturer, @Param("title") String title,
+                                                 @Param("id") String id, Pageable limit);
 }
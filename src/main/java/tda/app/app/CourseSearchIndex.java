@@ -0,0 +1,316 @@
+package tda.app.app;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory invertovaný index kurzů pro vyhledávání.
+ *
+ * - text se "skládá" (NFD + odstranění diakritiky + lowercase), takže "zaklady" najde "Základy"
+ * - každé slovo dotazu musí sedět na nějaké slovo kurzu: přesně, prefixem, nebo jako podřetězec
+ *   (podřetězce přes trigramy slovníku, ne přes průchod všemi kurzy; slovo kratší než trigram
+ *   se hledá průchodem slovníku)
+ * - skóre = váha pole (název > lektor > popis) × druh shody (přesná > prefix > podřetězec)
+ *
+ * Index drží CourseController aktuální při create/update/delete; plně se staví
+ * po startu (po seedu) nebo líně při prvním dotazu. Stavba čte kurzy pod zápisovým zámkem,
+ * takže souběžný put/remove se nemůže ztratit přepsáním starším snímkem z DB.
+ */
+@Component
+public class CourseSearchIndex {
+
+    static final int TITLE = 3;
+    static final int LECTURER = 2;
+    static final int DESCRIPTION = 1;
+
+    private static final double EXACT = 1.0;
+    private static final double PREFIX = 0.7;
+    private static final double INFIX = 0.4;
+
+    private record Doc(Course course, String sortKey, Set<String> terms) {}
+
+    private final CourseRepository repo;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Doc> docs = new HashMap<>();
+    // slovo -> (courseId -> nejvyšší váha pole, ve kterém se slovo vyskytuje)
+    private final TreeMap<String, Map<String, Integer>> postings = new TreeMap<>();
+    // trigram -> slova slovníku, která ho obsahují
+    private final Map<String, Set<String>> grams = new HashMap<>();
+
+    private volatile boolean built;
+
+    public CourseSearchIndex(CourseRepository repo) {
+        this.repo = repo;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            loadLocked(repo.findAll());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void load(Collection<CourseEntity> all) {
+        lock.writeLock().lock();
+        try {
+            loadLocked(all);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // souběžné první dotazy postaví index jen jednou
+    private void ensureBuilt() {
+        if (built) return;
+        lock.writeLock().lock();
+        try {
+            if (!built) loadLocked(repo.findAll());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(CourseEntity e) {
+        Course c = toCourse(e);
+        lock.writeLock().lock();
+        try {
+            removeLocked(c.id());
+            addLocked(c);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String courseId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(courseId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Kurzy odpovídající dotazu, seřazené podle skóre (pak podle názvu). */
+    public List<Course> search(String query) {
+        return search(query, null, null, Integer.MAX_VALUE).stream().map(Hit::course).toList();
+    }
+
+    /** Pozice kurzu ve výsledcích hledání – keyset kurzor pro další stránku. */
+    public record SearchKey(double score, String sortKey, String id) {}
+
+    public record Hit(Course course, SearchKey key) {}
+
+    // pořadí výsledků: skóre sestupně, pak název, pak id
+    private static final Comparator<SearchKey> ORDER = Comparator.comparingDouble(SearchKey::score).reversed()
+            .thenComparing(SearchKey::sortKey)
+            .thenComparing(SearchKey::id);
+
+    /**
+     * Nejvýš limit kurzů za pozicí after (null = od začátku), s lecturer != null jen kurzy
+     * daného lektora. Filtr i výběr top-k běží nad skóre v indexu – celý výsledek se neřadí
+     * ani nematerializuje.
+     */
+    public List<Hit> search(String query, String lecturer, SearchKey after, int limit) {
+        ensureBuilt();
+
+        List<String> qTerms = tokenize(query);
+        if (qTerms.isEmpty() || limit <= 0) return List.of();
+
+        // halda "nejhorší nahoře" – drží nejlepších limit výsledků
+        PriorityQueue<Hit> top = new PriorityQueue<>(Comparator.comparing(Hit::key, ORDER).reversed());
+        lock.readLock().lock();
+        try {
+            Map<String, Double> scores = null;
+            for (String q : qTerms) {
+                Map<String, Double> termScores = match(q);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    // AND: kurz musí obsahovat všechna slova dotazu
+                    Map<String, Double> next = new HashMap<>();
+                    for (Map.Entry<String, Double> en : termScores.entrySet()) {
+                        Double prev = scores.get(en.getKey());
+                        if (prev != null) next.put(en.getKey(), prev + en.getValue());
+                    }
+                    scores = next;
+                }
+                if (scores.isEmpty()) return List.of();
+            }
+            for (Map.Entry<String, Double> en : scores.entrySet()) {
+                Doc doc = docs.get(en.getKey());
+                if (lecturer != null && !lecturer.equals(doc.course().lecturer())) continue;
+                SearchKey key = new SearchKey(en.getValue(), doc.sortKey(), en.getKey());
+                if (after != null && ORDER.compare(key, after) <= 0) continue;
+                top.add(new Hit(doc.course(), key));
+                if (top.size() > limit) top.poll();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Hit> hits = new ArrayList<>(top);
+        hits.sort(Comparator.comparing(Hit::key, ORDER));
+        return hits;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static String fold(String s) {
+        if (s == null) return "";
+        String d = Normalizer.isNormalized(s, Normalizer.Form.NFD) ? s : Normalizer.normalize(s, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(d.length());
+        for (int i = 0; i < d.length(); i++) {
+            char ch = d.charAt(i);
+            if (Character.getType(ch) != Character.NON_SPACING_MARK) sb.append(ch);
+        }
+        return sb.toString().toLowerCase(Locale.ROOT);
+    }
+
+    static List<String> tokenize(String s) {
+        String f = fold(s);
+        List<String> out = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= f.length(); i++) {
+            boolean word = i < f.length() && Character.isLetterOrDigit(f.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                out.add(f.substring(start, i));
+                start = -1;
+            }
+        }
+        return out;
+    }
+
+    // --------------- helpers (volat pod zámkem) ---------------
+
+    private void loadLocked(Collection<CourseEntity> all) {
+        docs.clear();
+        postings.clear();
+        grams.clear();
+        for (CourseEntity e : all) addLocked(toCourse(e));
+        built = true;
+    }
+
+    /** courseId -> skóre nejlepší shody jednoho slova dotazu. */
+    private Map<String, Double> match(String q) {
+        Map<String, Double> out = new HashMap<>();
+
+        // přesná shoda + prefix: souvislý rozsah v setříděném slovníku
+        for (Map.Entry<String, Map<String, Integer>> en : postings.subMap(q, true, q + Character.MAX_VALUE, false).entrySet()) {
+            accumulate(out, en.getValue(), en.getKey().equals(q) ? EXACT : PREFIX);
+        }
+
+        // podřetězec uvnitř slova: kandidáti z průniku trigramů, ověření contains;
+        // kratší slovo trigram nemá -> průchod slovníkem (slov je řádově méně než textu kurzů)
+        Collection<String> candidates = q.length() >= 3 ? infixCandidates(q) : postings.keySet();
+        for (String term : candidates) {
+            if (term.startsWith(q) || !term.contains(q)) continue;
+            accumulate(out, postings.get(term), INFIX);
+        }
+        return out;
+    }
+
+    private Collection<String> infixCandidates(String q) {
+        Set<String> smallest = null;
+        List<Set<String>> sets = new ArrayList<>();
+        for (String g : trigrams(q)) {
+            Set<String> s = grams.get(g);
+            if (s == null) return List.of();
+            sets.add(s);
+            if (smallest == null || s.size() < smallest.size()) smallest = s;
+        }
+        if (smallest == null) return List.of();
+
+        List<String> out = new ArrayList<>();
+        outer:
+        for (String term : smallest) {
+            for (Set<String> s : sets) {
+                if (s != smallest && !s.contains(term)) continue outer;
+            }
+            out.add(term);
+        }
+        return out;
+    }
+
+    private static void accumulate(Map<String, Double> out, Map<String, Integer> posting, double kind) {
+        for (Map.Entry<String, Integer> p : posting.entrySet()) {
+            out.merge(p.getKey(), p.getValue() * kind, Math::max);
+        }
+    }
+
+    private void addLocked(Course c) {
+        Map<String, Integer> weights = new HashMap<>();
+        for (String t : tokenize(c.title())) weights.merge(t, TITLE, Math::max);
+        for (String t : tokenize(c.lecturer())) weights.merge(t, LECTURER, Math::max);
+        for (String t : tokenize(c.description())) weights.merge(t, DESCRIPTION, Math::max);
+
+        for (Map.Entry<String, Integer> en : weights.entrySet()) {
+            String term = en.getKey();
+            Map<String, Integer> posting = postings.get(term);
+            if (posting == null) {
+                posting = new HashMap<>();
+                postings.put(term, posting);
+                for (String g : trigrams(term)) grams.computeIfAbsent(g, k -> new HashSet<>()).add(term);
+            }
+            posting.put(c.id(), en.getValue());
+        }
+        docs.put(c.id(), new Doc(c, fold(c.title()), weights.keySet()));
+    }
+
+    private void removeLocked(String courseId) {
+        Doc old = docs.remove(courseId);
+        if (old == null) return;
+        for (String term : old.terms()) {
+            Map<String, Integer> posting = postings.get(term);
+            if (posting == null) continue;
+            posting.remove(courseId);
+            if (!posting.isEmpty()) continue;
+
+            postings.remove(term);
+            for (String g : trigrams(term)) {
+                Set<String> s = grams.get(g);
+                if (s == null) continue;
+                s.remove(term);
+                if (s.isEmpty()) grams.remove(g);
+            }
+        }
+    }
+
+    private static Set<String> trigrams(String term) {
+        Set<String> out = new HashSet<>();
+        for (int i = 0; i + 3 <= term.length(); i++) out.add(term.substring(i, i + 3));
+        return out;
+    }
+
+    private static Course toCourse(CourseEntity e) {
+        return new Course(e.getId(), e.getTitle(), e.getDescription(), e.getLecturer());
+    }
+}
@@ -0,0 +1,67 @@
+package tda.app.app;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Čítače verzí obsahu kurzu – z nich se skládají silné ETagy pro podmíněné GETy
+ * (viz CourseETagInterceptor).
+ *
+ * Každý zápis zvedne verzi svého druhu obsahu až PO zápisu (CourseChangeEvent z MaterialController,
+ * QuizStore a FeedService; detail kurzu přímo z CourseController). Čtení bere verzi PŘED daty,
+ * takže souběžný zápis může způsobit nanejvýš zbytečné stažení, nikdy zastaralou 304.
+ *
+ * Čítače jsou jen v paměti; epocha (náhodná při startu) v ETagu zajistí, že se po restartu
+ * nepotkají staré a nové verze se stejným číslem.
+ */
+@Component
+public class CourseVersions {
+
+    public enum Resource {
+        COURSE("c"), MATERIALS("m"), QUIZZES("q"), FEED("f");
+
+        final String tag;
+
+        Resource(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private static final int RESOURCES = Resource.values().length;
+
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, 36);
+
+    // kurzy bez zápisu od startu tu nejsou (verze 0) – čtení záznamy nezakládá
+    private final Map<String, AtomicLongArray> byCourse = new ConcurrentHashMap<>();
+
+    public long version(String courseId, Resource resource) {
+        AtomicLongArray v = byCourse.get(courseId);
+        return v == null ? 0 : v.get(resource.ordinal());
+    }
+
+    public void bump(String courseId, Resource resource) {
+        if (courseId == null) return;
+        byCourse.computeIfAbsent(courseId, k -> new AtomicLongArray(RESOURCES))
+                .incrementAndGet(resource.ordinal());
+    }
+
+    /** Silný ETag (s uvozovkami), např. "k3x9a-m-12". */
+    public String etag(String courseId, Resource resource) {
+        return "\"" + epoch + "-" + resource.tag + "-" + version(courseId, resource) + "\"";
+    }
+
+    @EventListener
+    public void onCourseChange(CourseChangeEvent e) {
+        switch (e.kind()) {
+            case MATERIAL -> bump(e.courseId(), Resource.MATERIALS);
+            // pokus mění filledCount v seznamu kvízů
+            case QUIZ, ATTEMPT -> bump(e.courseId(), Resource.QUIZZES);
+            case FEED -> bump(e.courseId(), Resource.FEED);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package tda.app.app;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dashboard lektora – všechny kurzy s počty jedním requestem.
+ *
+ * - GET /api/dashboard (Bearer lecturer)
+ */
+@RestController
+@RequestMapping("/api/dashboard")
+public class DashboardController {
+
+    public record CourseRow(String id, String title, String lecturer, DashboardCounters.Counts counts) {}
+
+    public record Dashboard(List<CourseRow> courses, DashboardCounters.Counts totals) {}
+
+    private final CourseRepository repo;
+    private final DashboardCounters counters;
+
+    public DashboardController(CourseRepository repo, DashboardCounters counters) {
+        this.repo = repo;
+        this.counters = counters;
+    }
+
+    @GetMapping
+    public Dashboard dashboard(@RequestHeader(name = "Authorization", required = false) String authHeader) {
+        requireLecturer(authHeader);
+
+        List<CourseEntity> all = repo.findAll();
+        Map<String, DashboardCounters.Counts> counts = counters.countsFor(all.stream().map(CourseEntity::getId).toList());
+
+        List<CourseRow> rows = new ArrayList<>(all.size());
+        int materials = 0, quizzes = 0, open = 0, attempts = 0;
+        long bytes = 0, feedItems = 0;
+        for (CourseEntity e : all) {
+            DashboardCounters.Counts c = counts.get(e.getId());
+            rows.add(new CourseRow(e.getId(), e.getTitle(), e.getLecturer(), c));
+            materials += c.materials();
+            bytes += c.materialBytes();
+            quizzes += c.quizzes();
+            open += c.openQuizzes();
+            attempts += c.attempts24h();
+            feedItems += c.feedItems();
+        }
+        return new Dashboard(rows, new DashboardCounters.Counts(materials, bytes, quizzes, open, attempts, feedItems));
+    }
+
+    private static void requireLecturer(String authHeader) {
+        if (!Auth.isBearerValid(authHeader)) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
+        }
+    }
+}
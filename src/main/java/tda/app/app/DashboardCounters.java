@@ -0,0 +1,180 @@
+package tda.app.app;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import tda.app.app.feed.FeedEvent;
+import tda.app.app.feed.FeedService;
+import tda.app.app.quiz.Quiz;
+import tda.app.app.quiz.QuizResult;
+import tda.app.app.quiz.QuizStatus;
+import tda.app.app.quiz.QuizStore;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Souhrnné čítače pro dashboard lektora, per kurz.
+ *
+ * Po startu se jednou přepočítají ze zdrojů (materiály, kvízy, feed); pak je drží
+ * aktuální CourseChangeEvent z cest zápisu. Čtení dashboardu je tak O(počet kurzů)
+ * bez procházení materiálů, kvízů a feedu.
+ */
+@Component
+public class DashboardCounters {
+
+    static final Duration ATTEMPT_WINDOW = Duration.ofHours(24);
+
+    public record Counts(
+            int materials,
+            long materialBytes,
+            int quizzes,
+            int openQuizzes,
+            int attempts24h,
+            long feedItems
+    ) {
+        static final Counts EMPTY = new Counts(0, 0, 0, 0, 0, 0);
+    }
+
+    private record Attempt(String quizId, Instant at) {}
+
+    private static final class Course {
+        int materials;
+        long materialBytes;
+        final Set<String> quizzes = new HashSet<>();
+        final Set<String> openQuizzes = new HashSet<>();
+        // pokusy z posledních 24 h, nejstarší vpředu
+        final Deque<Attempt> attempts = new ArrayDeque<>();
+        long feedItems;
+    }
+
+    private final MaterialController materials;
+    private final QuizStore quizzes;
+    private final FeedService feed;
+
+    // courseId -> čítače (chráněno zámkem na mapě)
+    private final Map<String, Course> byCourse = new HashMap<>();
+
+    public DashboardCounters(MaterialController materials, QuizStore quizzes, FeedService feed) {
+        this.materials = materials;
+        this.quizzes = quizzes;
+        this.feed = feed;
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        Instant since = Instant.now().minus(ATTEMPT_WINDOW);
+        Map<String, Course> fresh = new HashMap<>();
+
+        materials.snapshot().forEach((courseId, list) -> {
+            Course c = fresh.computeIfAbsent(courseId, k -> new Course());
+            for (Material m : list) {
+                c.materials++;
+                c.materialBytes += m.sizeBytes();
+            }
+        });
+
+        QuizStore.Snapshot qs = quizzes.snapshot();
+        qs.quizzesByCourse().forEach((courseId, list) -> {
+            Course c = fresh.computeIfAbsent(courseId, k -> new Course());
+            for (Quiz q : list) trackQuiz(c, q);
+        });
+        qs.results().stream()
+                .filter(r -> r.submittedAt() != null && r.submittedAt().isAfter(since))
+                .sorted((a, b) -> a.submittedAt().compareTo(b.submittedAt()))
+                .forEach(r -> fresh.computeIfAbsent(r.courseId(), k -> new Course())
+                        .attempts.addLast(new Attempt(r.quizId(), r.submittedAt())));
+
+        try {
+            feed.countsByCourse().forEach((courseId, n) ->
+                    fresh.computeIfAbsent(courseId, k -> new Course()).feedItems = n);
+        } catch (Exception e) {
+            System.err.println("WARN: Nelze spočítat položky feedu pro dashboard: " + e.getMessage());
+        }
+
+        synchronized (byCourse) {
+            byCourse.clear();
+            byCourse.putAll(fresh);
+        }
+    }
+
+    @EventListener
+    public void onCourseChange(CourseChangeEvent e) {
+        synchronized (byCourse) {
+            Course c = byCourse.computeIfAbsent(e.courseId(), k -> new Course());
+            switch (e.kind()) {
+                case MATERIAL -> {
+                    if (!(e.item() instanceof Material m)) return;
+                    if (e.action() == CourseChangeEvent.Action.CREATED) {
+                        c.materials++;
+                        c.materialBytes += m.sizeBytes();
+                    } else if (e.action() == CourseChangeEvent.Action.DELETED) {
+                        c.materials = Math.max(0, c.materials - 1);
+                        c.materialBytes = Math.max(0, c.materialBytes - m.sizeBytes());
+                    }
+                }
+                case QUIZ -> {
+                    if (e.action() == CourseChangeEvent.Action.DELETED) {
+                        c.quizzes.remove(e.itemId());
+                        c.openQuizzes.remove(e.itemId());
+                        // pokusy se mažou spolu s kvízem
+                        c.attempts.removeIf(a -> a.quizId().equals(e.itemId()));
+                    } else if (e.item() instanceof Quiz q) {
+                        trackQuiz(c, q);
+                    }
+                }
+                case ATTEMPT -> {
+                    if (e.item() instanceof QuizResult r && r.submittedAt() != null) {
+                        c.attempts.addLast(new Attempt(r.quizId(), r.submittedAt()));
+                    }
+                }
+                case FEED -> {
+                    if (!(e.item() instanceof FeedEvent fe)) return;
+                    switch (fe.type()) {
+                        case "new" -> c.feedItems++;
+                        case "batch" -> c.feedItems += (fe.items() == null ? 0 : fe.items().size());
+                        case "delete" -> c.feedItems = Math.max(0, c.feedItems - 1);
+                        default -> { }
+                    }
+                }
+            }
+        }
+    }
+
+    /** Čítače pro dané kurzy (v jejich pořadí); kurz bez obsahu má nuly. */
+    public Map<String, Counts> countsFor(List<String> courseIds) {
+        Instant since = Instant.now().minus(ATTEMPT_WINDOW);
+        Map<String, Counts> out = new HashMap<>();
+        synchronized (byCourse) {
+            for (String id : courseIds) {
+                Course c = byCourse.get(id);
+                if (c == null) {
+                    out.put(id, Counts.EMPTY);
+                    continue;
+                }
+                while (!c.attempts.isEmpty() && !c.attempts.peekFirst().at().isAfter(since)) {
+                    c.attempts.pollFirst();
+                }
+                out.put(id, new Counts(c.materials, c.materialBytes, c.quizzes.size(), c.openQuizzes.size(),
+                        c.attempts.size(), c.feedItems));
+            }
+        }
+        return out;
+    }
+
+    private static void trackQuiz(Course c, Quiz q) {
+        c.quizzes.add(q.id());
+        if (q.status() == null || q.status() == QuizStatus.OPEN) {
+            c.openQuizzes.add(q.id());
+        } else {
+            c.openQuizzes.remove(q.id());
+        }
+    }
+}
@@ -11,6 +11,14 @@ public class FileRules {
             "mp3"
     );
 
+    // už komprimované formáty – v ZIP archivu materiálů jdou jako STORED (další komprese by jen pálila CPU)
+    public static final Set<String> COMPRESSED_EXT = Set.of(
+            "docx",
+            "png","jpg","jpeg","gif",
+            "mp4",
+            "mp3"
+    );
+
     public static String extOf(String filename) {
         if (filename == null) return "";
         int dot = filename.lastIndexOf('.');
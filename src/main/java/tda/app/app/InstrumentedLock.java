@@ -0,0 +1,38 @@
+package tda.app.app;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ReentrantLock, který měří čekání na zámek (timer app.lock.wait, tag lock=...).
+ *
+ * Nezatížená cesta je jen tryLock() – bez čtení hodin a bez zápisu do timeru; měří se
+ * pouze skutečně sporná získání (počet v timeru = počet kolizí).
+ */
+public class InstrumentedLock {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Timer waits;
+
+    public InstrumentedLock(MeterRegistry registry, String name) {
+        this.waits = Timer.builder("app.lock.wait")
+                .description("Čekání na sporný zámek úložiště")
+                .tag("lock", name)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    public void lock() {
+        if (lock.tryLock()) return;
+        long start = System.nanoTime();
+        lock.lock();
+        waits.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    public void unlock() {
+        lock.unlock();
+    }
+}
@@ -0,0 +1,337 @@
+package tda.app.app;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * ZIP všech materiálů kurzu generovaný za letu přímo do odpovědi (bez dočasných souborů).
+ *
+ * - FILE materiály jako soubory (původní název, duplicity "název (2).ext")
+ * - LINK materiály jako links.html (seznam odkazů s popisy)
+ * - již komprimované typy (FileRules.COMPRESSED_EXT) jako STORED – CRC se spočítá jedním
+ *   průchodem souboru, data se pak jen kopírují; ostatní (pdf, txt) DEFLATED
+ *
+ * Výstup je deterministický (pořadí materiálů, časy v UTC, pevná úroveň komprese),
+ * takže ETag z manifestu identifikuje přesně tytéž bajty a navázání stahování (Range)
+ * může archiv vygenerovat znovu a přeskočit už stažený začátek.
+ */
+final class MaterialArchive {
+
+    static final String LINKS_FILE = "links.html";
+    // změna formátu archivu (názvy, links.html) musí změnit i ETag
+    private static final String FORMAT = "zip1";
+    private static final int BUFFER = 64 * 1024;
+    // pevné části formátu ZIP (bez ZIP64 a extra polí) – viz length()
+    private static final int LOC_HEADER = 30;
+    private static final int DATA_DESCRIPTOR = 16;
+    private static final int CEN_HEADER = 46;
+    private static final int END_HEADER = 22;
+    private static final long ZIP64_LIMIT = 0xFFFFFFFFL;
+
+    private record Entry(String name, Path file, byte[] content, long size, LocalDateTime time, boolean stored) {}
+
+    private final List<Entry> entries;
+    private final String etag;
+
+    private MaterialArchive(List<Entry> entries, String etag) {
+        this.entries = entries;
+        this.etag = etag;
+    }
+
+    /** Soubory, které na disku chybí, se vynechají (ETag počítá jen s tím, co se opravdu zabalí). */
+    static MaterialArchive of(List<Material> materials, Path courseDir) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        List<Material> links = new ArrayList<>();
+
+        for (Material m : materials) {
+            if (m.type() == MaterialType.LINK) {
+                links.add(m);
+                continue;
+            }
+            if (m.storedFilename() == null || m.storedFilename().isBlank()) continue;
+
+            String stored = m.storedFilename()
+                    .replace("..", "")
+                    .replace("/", "_")
+                    .replace("\\", "_");
+            Path file = courseDir.resolve(stored).normalize();
+            if (!Files.isRegularFile(file)) continue;
+
+            String name = uniqueName(names, entryName(m.originalFilename()));
+            boolean compressed = FileRules.COMPRESSED_EXT.contains(FileRules.extOf(name));
+            entries.add(new Entry(name, file, null, Files.size(file), timeOf(m.createdAt()), compressed));
+        }
+
+        if (!links.isEmpty()) {
+            byte[] html = linksHtml(links);
+            Instant newest = links.stream().map(Material::createdAt).filter(t -> t != null).max(Instant::compareTo).orElse(null);
+            entries.add(new Entry(uniqueName(names, LINKS_FILE), null, html, html.length, timeOf(newest), false));
+        }
+
+        return new MaterialArchive(entries, etagOf(entries));
+    }
+
+    boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /** Silný ETag (s uvozovkami) – hash názvů, cest, velikostí a časů položek. */
+    String etag() {
+        return etag;
+    }
+
+    /** Celý archiv do out; vrací počet zapsaných bajtů. */
+    long write(OutputStream out) throws IOException {
+        Counting counting = new Counting(out);
+        ZipOutputStream zip = new ZipOutputStream(counting, UTF_8);
+        zip.setLevel(Deflater.DEFAULT_COMPRESSION);
+        byte[] buffer = new byte[BUFFER];
+
+        for (Entry e : entries) {
+            ZipEntry z = new ZipEntry(e.name());
+            z.setTimeLocal(e.time());
+            if (e.stored()) {
+                z.setMethod(ZipEntry.STORED);
+                z.setSize(e.size());
+                z.setCompressedSize(e.size());
+                z.setCrc(crcOf(e.file(), buffer));
+            } else {
+                z.setMethod(ZipEntry.DEFLATED);
+            }
+            zip.putNextEntry(z);
+            if (e.file() != null) {
+                copy(e.file(), zip, buffer);
+            } else {
+                zip.write(e.content());
+            }
+            zip.closeEntry();
+        }
+        zip.finish();
+        zip.flush();
+        return counting.count;
+    }
+
+    /**
+     * Jen bajty start..end (včetně) – pro navázání stahování. Archiv se generuje znovu,
+     * začátek se zahodí a po posledním požadovaném bajtu se generování ukončí.
+     */
+    void writeRange(OutputStream out, long start, long end) throws IOException {
+        try {
+            write(new RangeSink(out, start, end));
+        } catch (RangeDone done) {
+            out.flush();
+        }
+    }
+
+    /**
+     * Délka celého archivu bez generování: hlavičky ZIPu se spočítají z názvů a velikostí,
+     * STORED soubory (video, obrázky) se vůbec nečtou a deflate proběhne jen u DEFLATED
+     * položek (pdf, txt, links.html). Mimo běžný formát (ZIP64, čas před 1980) archiv
+     * "naprázdno" vygeneruje celý.
+     */
+    long length() throws IOException {
+        if (entries.size() >= 0xFFFF) return write(null);
+        byte[] buffer = new byte[BUFFER];
+        long data = 0;
+        long cen = 0;
+        for (Entry e : entries) {
+            int year = e.time().getYear();
+            if (year < 1980 || year > 1980 + 0x7f) return write(null); // + extended timestamp
+            long size = e.stored() ? e.size() : deflatedSize(e, buffer);
+            if (e.size() >= ZIP64_LIMIT || size >= ZIP64_LIMIT) return write(null);
+            int name = e.name().getBytes(UTF_8).length;
+            data += LOC_HEADER + name + size + (e.stored() ? 0 : DATA_DESCRIPTOR);
+            cen += CEN_HEADER + name;
+        }
+        if (data + cen >= ZIP64_LIMIT) return write(null);
+        return data + cen + END_HEADER;
+    }
+
+    // --------------- helpers ---------------
+
+    /** Velikost položky po deflate se stejným nastavením jako ZipOutputStream (raw, výchozí úroveň). */
+    private static long deflatedSize(Entry e, byte[] buffer) throws IOException {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            Counting counting = new Counting(null);
+            try (DeflaterOutputStream out = new DeflaterOutputStream(counting, deflater)) {
+                if (e.file() != null) {
+                    copy(e.file(), out, buffer);
+                } else {
+                    out.write(e.content());
+                }
+            }
+            return counting.count;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static long crcOf(Path file, byte[] buffer) throws IOException {
+        CRC32 crc = new CRC32();
+        try (InputStream in = Files.newInputStream(file)) {
+            int n;
+            while ((n = in.read(buffer)) > 0) crc.update(buffer, 0, n);
+        }
+        return crc.getValue();
+    }
+
+    private static void copy(Path file, OutputStream out, byte[] buffer) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            int n;
+            while ((n = in.read(buffer)) > 0) out.write(buffer, 0, n);
+        }
+    }
+
+    private static String entryName(String original) {
+        String name = original == null ? "" : original.replaceAll("[\\\\/:*?\"<>|\\p{Cntrl}]", "_").trim();
+        while (name.startsWith(".")) name = name.substring(1);
+        return name.isEmpty() ? "material" : name;
+    }
+
+    private static String uniqueName(Set<String> taken, String name) {
+        if (taken.add(name.toLowerCase())) return name;
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        String ext = dot > 0 ? name.substring(dot) : "";
+        for (int i = 2; ; i++) {
+            String candidate = base + " (" + i + ")" + ext;
+            if (taken.add(candidate.toLowerCase())) return candidate;
+        }
+    }
+
+    private static LocalDateTime timeOf(Instant at) {
+        // DOS čas v ZIPu nezná zónu – UTC, aby archiv nezávisel na zóně serveru
+        return LocalDateTime.ofInstant(at == null ? Instant.EPOCH : at, ZoneOffset.UTC);
+    }
+
+    private static byte[] linksHtml(List<Material> links) {
+        StringBuilder sb = new StringBuilder("<!DOCTYPE html>\n<html lang=\"cs\">\n<head><meta charset=\"utf-8\"><title>Odkazy</title></head>\n<body>\n<h1>Odkazy</h1>\n<ul>\n");
+        for (Material m : links) {
+            String url = m.url() == null ? "" : m.url().trim();
+            String title = m.title() == null || m.title().isBlank() ? url : m.title();
+            sb.append("<li>");
+            // odkaz jen pro http(s) – javascript: a podobné zůstanou textem
+            if (url.regionMatches(true, 0, "http://", 0, 7) || url.regionMatches(true, 0, "https://", 0, 8)) {
+                sb.append("<a href=\"").append(escape(url)).append("\">").append(escape(title)).append("</a>");
+            } else {
+                sb.append(escape(title)).append(" (").append(escape(url)).append(')');
+            }
+            if (m.description() != null && !m.description().isBlank()) {
+                sb.append(" – ").append(escape(m.description()));
+            }
+            sb.append("</li>\n");
+        }
+        return sb.append("</ul>\n</body>\n</html>\n").toString().getBytes(UTF_8);
+    }
+
+    private static String escape(String s) {
+        return s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    private static String etagOf(List<Entry> entries) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            sha.update(FORMAT.getBytes(UTF_8));
+            for (Entry e : entries) {
+                String line = "\n" + e.name() + "\0" + (e.file() == null ? "" : e.file().getFileName()) + "\0"
+                        + e.size() + "\0" + e.time() + "\0" + e.stored();
+                sha.update(line.getBytes(UTF_8));
+                if (e.content() != null) sha.update(e.content());
+            }
+            return "\"" + HexFormat.of().formatHex(sha.digest(), 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /** Počítá bajty; out == null = jen počítání (length). */
+    private static final class Counting extends OutputStream {
+        private final OutputStream out;
+        long count;
+
+        Counting(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (out != null) out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (out != null) out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (out != null) out.flush();
+        }
+    }
+
+    private static final class RangeSink extends OutputStream {
+        private final OutputStream out;
+        private final long start;
+        private final long end;
+        private long pos;
+
+        RangeSink(OutputStream out, long start, long end) {
+            this.out = out;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            long from = Math.max(pos, start);
+            long to = Math.min(pos + len - 1, end);
+            if (from <= to) out.write(b, off + (int) (from - pos), (int) (to - from + 1));
+            pos += len;
+            if (pos > end) throw RangeDone.INSTANCE;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+    }
+
+    /** Konec požadovaného rozsahu – ukončí generování, není to chyba. */
+    private static final class RangeDone extends IOException {
+        static final RangeDone INSTANCE = new RangeDone();
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+}
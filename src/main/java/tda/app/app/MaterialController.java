@@ -3,29 +3,43 @@ package tda.app.app;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
 import java.nio.file.*;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 import tda.app.app.feed.FeedService;
+import tda.app.app.jfr.MaterialDownloadEvent;
+import tda.app.app.jfr.PersistenceEvent;
+import tda.app.app.id.Ids;
+import tda.app.app.timeline.TimelineOrder;
 
 @RestController
 @RequestMapping("/api/courses")
 public class MaterialController {
 
-    private static final Path UPLOAD_ROOT = Paths.get("uploads");
-    private static final Path INDEX_FILE = UPLOAD_ROOT.resolve("materials.json");
     private static final long MAX_FILE_BYTES = 30L * 1024L * 1024L; // 30 MB (Fáze 2)
     // IMPORTANT: must support java.time.Instant for persistence (findAndRegisterModules)
     private static final ObjectMapper MAPPER = new ObjectMapper()
@@ -33,11 +47,48 @@ public class MaterialController {
             .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
 
     private final Map<String, List<Material>> MATERIALS_BY_COURSE = new HashMap<>();
+    // chrání MATERIALS_BY_COURSE i zápis materials.json; ReentrantLock místo synchronized,
+    // aby virtuální vlákno čekající na disk nepinovalo nosné vlákno (Java 21)
+    private final InstrumentedLock lock;
+
+    private final Path uploadRoot;
+    private final Path indexFile;
 
     private final FeedService feed;
+    private final ApplicationEventPublisher events;
+
+    // metriky (meter se hledá jednou tady, ne při každém requestu)
+    private final Timer saveTimer;
+    private final Counter uploadedBytes;
+    private final Counter downloadedBytes;
+
+    // délky ZIP archivů podle ETagu – pro Content-Length a navázání stahování (Range)
+    private static final int ARCHIVE_LENGTHS = 64;
+    private final Map<String, Long> archiveLengths = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > ARCHIVE_LENGTHS;
+        }
+    });
+
+    @Autowired
+    public MaterialController(FeedService feed, ApplicationEventPublisher events, MeterRegistry registry) {
+        this(feed, events, registry, Paths.get("uploads"));
+    }
 
-    public MaterialController(FeedService feed) {
+    /** Úložiště v jiném adresáři (testy – data aplikace v ./uploads zůstanou netknutá). */
+    MaterialController(FeedService feed, ApplicationEventPublisher events, MeterRegistry registry, Path uploadRoot) {
+        this.uploadRoot = uploadRoot;
+        this.indexFile = uploadRoot.resolve("materials.json");
         this.feed = feed;
+        this.events = events;
+        this.lock = new InstrumentedLock(registry, "materials");
+        this.saveTimer = Timer.builder("app.persistence")
+                .tag("op", "materials.save")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.uploadedBytes = Counter.builder("app.materials.bytes").tag("direction", "upload").baseUnit("bytes").register(registry);
+        this.downloadedBytes = Counter.builder("app.materials.bytes").tag("direction", "download").baseUnit("bytes").register(registry);
     }
 
     public record LinkRequest(String title, String description, String url) {}
@@ -46,7 +97,7 @@ public class MaterialController {
     @PostConstruct
     public void init() {
         try {
-            Files.createDirectories(UPLOAD_ROOT);
+            Files.createDirectories(uploadRoot);
             loadIndexFromDisk();
         } catch (Exception e) {
             System.err.println("WARN: Nelze načíst materials.json: " + e.getMessage());
@@ -73,7 +124,8 @@ public class MaterialController {
     // =========================
     @GetMapping("/{courseId}/materials")
     public List<Material> list(@PathVariable String courseId) {
-        synchronized (MATERIALS_BY_COURSE) {
+        lock.lock();
+        try {
             List<Material> list = new ArrayList<>(MATERIALS_BY_COURSE.getOrDefault(courseId, List.of()));
             list.sort((a, b) -> {
                 try {
@@ -83,6 +135,51 @@ public class MaterialController {
                 }
             });
             return list;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Nejnovější materiály kurzu starší než (at, id) – pro časovou osu (TimelineService).
+     * Seznam kurzu je v pořadí přidání, takže stačí projít ho od konce jen do limitu.
+     */
+    public List<Material> newestBefore(String courseId, Instant at, String id, int limit) {
+        lock.lock();
+        try {
+            List<Material> list = MATERIALS_BY_COURSE.getOrDefault(courseId, List.of());
+            List<Material> out = new ArrayList<>(Math.min(limit, list.size()));
+            for (int i = list.size() - 1; i >= 0 && out.size() < limit; i--) {
+                Material m = list.get(i);
+                if (TimelineOrder.isAfter(m.createdAt(), m.id(), at, id)) out.add(m);
+            }
+            return out;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Kopie všech materiálů po kurzech – pro přepočet souhrnných čítačů (dashboard). */
+    Map<String, List<Material>> snapshot() {
+        lock.lock();
+        try {
+            Map<String, List<Material>> out = new HashMap<>();
+            MATERIALS_BY_COURSE.forEach((courseId, list) -> out.put(courseId, List.copyOf(list)));
+            return out;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Počet všech materiálů (gauge v AppMetrics). */
+    int count() {
+        lock.lock();
+        try {
+            int n = 0;
+            for (List<Material> list : MATERIALS_BY_COURSE.values()) n += list.size();
+            return n;
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -114,7 +211,7 @@ public class MaterialController {
         String favicon = faviconFromUrl(url);
 
         Material m = new Material(
-                UUID.randomUUID().toString(),
+                Ids.newId(),
                 courseId,
                 MaterialType.LINK,
                 title,
@@ -128,9 +225,13 @@ public class MaterialController {
                 0L
         );
 
-        synchronized (MATERIALS_BY_COURSE) {
+        lock.lock();
+        try {
             MATERIALS_BY_COURSE.computeIfAbsent(courseId, k -> new ArrayList<>()).add(m);
-            saveIndexToDisk();
+            saveIndexToDisk(courseId);
+            events.publishEvent(new CourseChangeEvent(courseId, CourseChangeEvent.Kind.MATERIAL, CourseChangeEvent.Action.CREATED, m.id(), m));
+        } finally {
+            lock.unlock();
         }
 
         // Fáze 4 – automaticky generovaná událost do feedu
@@ -153,7 +254,9 @@ public class MaterialController {
         requireLecturer(auth);
         if (req == null) throw new IllegalArgumentException("Chybí data.");
 
-        synchronized (MATERIALS_BY_COURSE) {
+        Material updated;
+        lock.lock();
+        try {
             List<Material> list = MATERIALS_BY_COURSE.getOrDefault(courseId, new ArrayList<>());
 
             int idx = -1;
@@ -175,7 +278,6 @@ public class MaterialController {
                 throw new IllegalArgumentException("Title nesmí být prázdný.");
             }
 
-            Material updated;
             if (old.type() == MaterialType.LINK) {
                 String newUrl = (req.url() == null) ? old.url() : req.url().trim();
                 if (newUrl == null || newUrl.isBlank()) {
@@ -220,9 +322,13 @@ public class MaterialController {
 
             list.set(idx, updated);
             MATERIALS_BY_COURSE.put(courseId, list);
-            saveIndexToDisk();
-            return updated;
+            saveIndexToDisk(courseId);
+            events.publishEvent(new CourseChangeEvent(courseId, CourseChangeEvent.Kind.MATERIAL, CourseChangeEvent.Action.UPDATED, materialId, updated));
+        } finally {
+            lock.unlock();
         }
+
+        return updated;
     }
 
     // =========================
@@ -237,9 +343,10 @@ public class MaterialController {
 
         requireLecturer(auth);
 
-        synchronized (MATERIALS_BY_COURSE) {
+        Material found = null;
+        lock.lock();
+        try {
             List<Material> list = new ArrayList<>(MATERIALS_BY_COURSE.getOrDefault(courseId, List.of()));
-            Material found = null;
             for (Material m : list) {
                 if (Objects.equals(m.id(), materialId)) { found = m; break; }
             }
@@ -252,19 +359,23 @@ public class MaterialController {
 
             // if it is a file, also delete it from disk
             if (found.type() == MaterialType.FILE && found.storedFilename() != null && !found.storedFilename().isBlank()) {
-                Path filePath = UPLOAD_ROOT.resolve(courseId).resolve(found.storedFilename()).normalize();
+                Path filePath = uploadRoot.resolve(courseId).resolve(found.storedFilename()).normalize();
                 try {
                     Files.deleteIfExists(filePath);
                 } catch (Exception ignored) {}
             }
 
-            saveIndexToDisk();
-            return Map.of(
-                    "message", "Deleted",
-                    "materialId", materialId,
-                    "courseId", courseId
-            );
+            saveIndexToDisk(courseId);
+            events.publishEvent(new CourseChangeEvent(courseId, CourseChangeEvent.Kind.MATERIAL, CourseChangeEvent.Action.DELETED, materialId, found));
+        } finally {
+            lock.unlock();
         }
+
+        return Map.of(
+                "message", "Deleted",
+                "materialId", materialId,
+                "courseId", courseId
+        );
     }
 
     // =========================
@@ -299,17 +410,18 @@ public class MaterialController {
             throw new IllegalArgumentException("Nepovolený typ souboru: " + ext);
         }
 
-        Path courseDir = UPLOAD_ROOT.resolve(courseId);
+        Path courseDir = uploadRoot.resolve(courseId);
         Files.createDirectories(courseDir);
 
         String safeOriginal = original.replaceAll("[^a-zA-Z0-9._-]", "_");
-        String stored = UUID.randomUUID() + "_" + safeOriginal;
+        String stored = Ids.newId() + "_" + safeOriginal;
         Path target = courseDir.resolve(stored);
 
-        Files.copy(file.getInputStream(), target, StandardCopyOption.REPLACE_EXISTING);
+        long written = Files.copy(file.getInputStream(), target, StandardCopyOption.REPLACE_EXISTING);
+        uploadedBytes.increment(written);
 
         Material m = new Material(
-                UUID.randomUUID().toString(),
+                Ids.newId(),
                 courseId,
                 MaterialType.FILE,
                 title.trim(),
@@ -323,9 +435,13 @@ public class MaterialController {
                 file.getSize()
         );
 
-        synchronized (MATERIALS_BY_COURSE) {
+        lock.lock();
+        try {
             MATERIALS_BY_COURSE.computeIfAbsent(courseId, k -> new ArrayList<>()).add(m);
-            saveIndexToDisk();
+            saveIndexToDisk(courseId);
+            events.publishEvent(new CourseChangeEvent(courseId, CourseChangeEvent.Kind.MATERIAL, CourseChangeEvent.Action.CREATED, m.id(), m));
+        } finally {
+            lock.unlock();
         }
 
         // Fáze 4 – automaticky generovaná událost do feedu
@@ -344,13 +460,16 @@ public class MaterialController {
     ) {
         try {
             Material m;
-            synchronized (MATERIALS_BY_COURSE) {
+            lock.lock();
+            try {
                 m = MATERIALS_BY_COURSE
                         .getOrDefault(courseId, List.of())
                         .stream()
                         .filter(x -> Objects.equals(x.id(), materialId))
                         .findFirst()
                         .orElse(null);
+            } finally {
+                lock.unlock();
             }
 
             if (m == null || m.storedFilename() == null || m.storedFilename().isBlank()) {
@@ -362,13 +481,19 @@ public class MaterialController {
                     .replace("/", "_")
                     .replace("\\", "_");
 
-            Path filePath = UPLOAD_ROOT.resolve(courseId).resolve(stored).normalize();
+            Path filePath = uploadRoot.resolve(courseId).resolve(stored).normalize();
 
             if (!Files.exists(filePath) || !Files.isRegularFile(filePath)) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
             }
 
-            Resource resource = new FileSystemResource(filePath.toFile());
+            // JFR: stream souboru obalíme, aby událost stažení zahrnula i zápis klientovi
+            Resource resource = new FileSystemResource(filePath.toFile()) {
+                @Override
+                public InputStream getInputStream() throws IOException {
+                    return MaterialDownloadEvent.track(counted(super.getInputStream()), courseId, materialId);
+                }
+            };
 
             String filename = (m.originalFilename() != null && !m.originalFilename().isBlank())
                     ? m.originalFilename()
@@ -396,6 +521,131 @@ public class MaterialController {
         }
     }
 
+    // =========================
+    // ARCHIVE (všechny materiály jako ZIP)
+    // =========================
+    /**
+     * ZIP generovaný za letu (MaterialArchive) – konstantní paměť, nic se neukládá na disk.
+     * Podporuje navázání stahování: Range (jeden rozsah) + If-Range s ETagem archivu.
+     * Délka pro Content-Range: z dokončeného stažení, jinak MaterialArchive.length() (STORED
+     * soubory se nečtou, deflate jen pdf/txt). Rozsah pak archiv vygeneruje znovu od začátku
+     * a stažený začátek zahodí – CRC STORED souborů a deflate ostatních se přepočítají.
+     */
+    @GetMapping("/{courseId}/materials/archive")
+    public void archive(
+            @PathVariable String courseId,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+            HttpServletResponse response
+    ) throws IOException {
+        List<Material> list;
+        lock.lock();
+        try {
+            list = List.copyOf(MATERIALS_BY_COURSE.getOrDefault(courseId, List.of()));
+        } finally {
+            lock.unlock();
+        }
+
+        MaterialArchive archive = MaterialArchive.of(list, uploadRoot.resolve(courseId));
+        if (archive.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No materials");
+        }
+        String etag = archive.etag();
+
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("materialy-" + courseId + ".zip", UTF_8)
+                .build()
+                .toString());
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        // If-Range s jiným ETagem = archiv se mezitím změnil -> celý znovu
+        boolean ranged = range != null && range.startsWith("bytes=") && range.indexOf(',') < 0
+                && (ifRange == null || ifRange.equals(etag));
+        Long known = archiveLengths.get(etag);
+
+        if (ranged) {
+            long total = known != null ? known : archive.length();
+            archiveLengths.put(etag, total);
+            long[] r = byteRange(range.substring("bytes=".length()), total);
+            if (r == null) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + total);
+                return;
+            }
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + r[0] + "-" + r[1] + "/" + total);
+            response.setContentLengthLong(r[1] - r[0] + 1);
+            archive.writeRange(counted(response.getOutputStream()), r[0], r[1]);
+            return;
+        }
+
+        if (known != null) response.setContentLengthLong(known);
+        long written = archive.write(counted(response.getOutputStream()));
+        archiveLengths.put(etag, written);
+    }
+
+    // app.materials.bytes{direction=download} počítá jen skutečně přenesené bajty,
+    // přerušené a částečné (Range) stahování se tak nezapočte celou délkou souboru
+    private InputStream counted(InputStream in) {
+        return new FilterInputStream(in) {
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b >= 0) downloadedBytes.increment();
+                return b;
+            }
+
+            @Override
+            public int read(byte[] buf, int off, int len) throws IOException {
+                int n = super.read(buf, off, len);
+                if (n > 0) downloadedBytes.increment(n);
+                return n;
+            }
+        };
+    }
+
+    private OutputStream counted(OutputStream out) {
+        return new FilterOutputStream(out) {
+            @Override
+            public void write(int b) throws IOException {
+                out.write(b);
+                downloadedBytes.increment();
+            }
+
+            @Override
+            public void write(byte[] buf, int off, int len) throws IOException {
+                out.write(buf, off, len);
+                downloadedBytes.increment(len);
+            }
+        };
+    }
+
+    /** "a-b" | "a-" | "-n" -> [start, end] (včetně); null = nesplnitelný rozsah. */
+    static long[] byteRange(String spec, long total) {
+        int dash = spec.indexOf('-');
+        if (dash < 0) return null;
+        try {
+            String a = spec.substring(0, dash).trim();
+            String b = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (a.isEmpty()) {
+                long suffix = Long.parseLong(b);
+                if (suffix <= 0) return null;
+                start = Math.max(0, total - suffix);
+                end = total - 1;
+            } else {
+                start = Long.parseLong(a);
+                end = b.isEmpty() ? total - 1 : Math.min(Long.parseLong(b), total - 1);
+            }
+            return (start < 0 || start > end) ? null : new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
     private static String faviconFromUrl(String url) {
         if (url == null) return null;
         String u = url.trim();
@@ -420,27 +670,44 @@ public class MaterialController {
     // PERSISTENCE
     // =========================
     private void loadIndexFromDisk() throws IOException {
-        if (!Files.exists(INDEX_FILE)) return;
+        if (!Files.exists(indexFile)) return;
 
-        String json = Files.readString(INDEX_FILE);
+        String json = Files.readString(indexFile);
         Map<String, List<Material>> loaded =
                 MAPPER.readValue(json, new TypeReference<Map<String, List<Material>>>() {});
 
-        synchronized (MATERIALS_BY_COURSE) {
+        lock.lock();
+        try {
             MATERIALS_BY_COURSE.clear();
             if (loaded != null) MATERIALS_BY_COURSE.putAll(loaded);
+        } finally {
+            lock.unlock();
         }
     }
 
-    private void saveIndexToDisk() throws IOException {
-        Path tmp = UPLOAD_ROOT.resolve("materials.json.tmp");
-        String json = MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(MATERIALS_BY_COURSE);
-
-        Files.writeString(tmp, json, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+    void saveIndexToDisk(String courseId) throws IOException {
+        PersistenceEvent event = new PersistenceEvent();
+        event.begin();
+        long start = System.nanoTime();
         try {
-            Files.move(tmp, INDEX_FILE, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
-        } catch (AtomicMoveNotSupportedException e) {
-            Files.move(tmp, INDEX_FILE, StandardCopyOption.REPLACE_EXISTING);
+            Path tmp = uploadRoot.resolve("materials.json.tmp");
+            byte[] json = MAPPER.writerWithDefaultPrettyPrinter().writeValueAsBytes(MATERIALS_BY_COURSE);
+            event.bytes = json.length;
+
+            Files.write(tmp, json, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            try {
+                Files.move(tmp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, indexFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            saveTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            event.end();
+            if (event.shouldCommit()) {
+                event.store = "materials";
+                event.courseId = courseId;
+                event.commit();
+            }
         }
     }
 
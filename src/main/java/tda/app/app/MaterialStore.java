@@ -1,5 +1,7 @@
 package tda.app.app;
 
+import tda.app.app.id.Ids;
+
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -55,7 +57,7 @@ public class MaterialStore {
         String normalizedUrl = normalizeUrl(url);
         String favicon = deriveFaviconUrl(normalizedUrl);
         Material m = new Material(
-                UUID.randomUUID().toString(), // id
+                Ids.newId(), // id
                 courseId,
                 MaterialType.LINK,
                 title,
@@ -111,7 +113,7 @@ public class MaterialStore {
             long sizeBytes
     ) {
         Material m = new Material(
-                UUID.randomUUID().toString(), // id
+                Ids.newId(), // id
                 courseId,
                 MaterialType.FILE,
                 title,
@@ -1,9 +1,7 @@
 package tda.app.app;
 
 import org.springframework.stereotype.Controller;
-import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.PostMapping;
 
 @Controller
 public class PageRoutesController {
@@ -14,23 +12,7 @@ public class PageRoutesController {
         return "forward:/index.html";
     }
 
-    // Seznam kurzů – bere GET, OPTIONS atd.
-    @RequestMapping(value = {"/courses", "/courses/"})
-    public String courses() {
-        return "forward:/courses.html";
-    }
-
-    // ⚠️ Pojistka: kdyby na /courses přišel POST (form, JS, test)
-    @PostMapping(value = {"/courses", "/courses/"})
-    public String coursesPost() {
-        return "forward:/courses.html";
-    }
-
-    // Detail kurzu
-    @RequestMapping(value = {"/courses/{id}", "/courses/{id}/"})
-    public String courseDetail(@PathVariable String id) {
-        return "redirect:/courseDetail.html?id=" + id;
-    }
+    // Seznam kurzů (/courses) a detail kurzu (/courses/{id}) renderuje server – viz CoursePagesController
 
     // Přihlášení lektora
     @RequestMapping(value = {"/login", "/login/"})
@@ -3,6 +3,7 @@ package tda.app.app;
 import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.web.SecurityFilterChain;
 
@@ -35,6 +36,10 @@ public class SecurityConfig {
                     "/webjars/**"
                 ).permitAll()
 
+                // Metriky jen se stejným Bearer tokenem jako lektor (Prometheus: authorization.credentials)
+                .requestMatchers("/actuator/prometheus").access((authentication, context) ->
+                        new AuthorizationDecision(Auth.isBearerValid(context.getRequest().getHeader("Authorization"))))
+
                 // API
                 .requestMatchers("/api/**").permitAll()
 
@@ -0,0 +1,39 @@
+package tda.app.app;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.PathResourceResolver;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashované assety (style.3f2a9c1b7d.css – viz src/build/AssetPipeline.java) se nikdy nemění,
+ * takže je prohlížeč může držet rok bez revalidace (Cache-Control: immutable).
+ * Předkomprimované .br/.gz varianty se posílají podle Accept-Encoding.
+ *
+ * Ostatní statické soubory (HTML, původní názvy) jdou přes výchozí handler s no-cache
+ * a Last-Modified -> opakované načtení stránky je 304 bez těla.
+ */
+@Configuration
+public class StaticAssetsConfig implements WebMvcConfigurer {
+
+    private static final String HASHED = "{file:[\\w.-]+\\.[0-9a-f]{10}\\.[a-z0-9]+}";
+
+    // cesta za vzorem se řeší vůči lokaci -> každý adresář má vlastní registraci
+    private static final String[] DIRS = {"", "js/", "images/"};
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        for (String dir : DIRS) {
+            registry.addResourceHandler("/" + dir + HASHED)
+                    .addResourceLocations("classpath:/static/" + dir)
+                    .setCacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                    .resourceChain(true)
+                    .addResolver(new EncodedResourceResolver())
+                    .addResolver(new PathResourceResolver());
+        }
+    }
+}
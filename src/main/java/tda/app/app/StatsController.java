@@ -0,0 +1,142 @@
+package tda.app.app;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import tda.app.app.bulkhead.Bulkhead;
+import tda.app.app.bulkhead.BulkheadFilter;
+import tda.app.app.capture.TrafficLog;
+import tda.app.app.feed.FeedCache;
+import tda.app.app.feed.FeedService;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Provozní statistiky (jen pro lektora).
+ *
+ * - GET /api/stats/feed-cache
+ * - GET /api/stats/sse
+ * - GET /api/stats/course-cache
+ * - GET /api/stats/fragments
+ * - GET /api/stats/vthreads
+ * - GET /api/stats/bulkheads
+ * - GET /api/stats/capture
+ */
+@RestController
+@RequestMapping("/api/stats")
+public class StatsController {
+
+    private final FeedService feed;
+    private final Statistics hibernate;
+    private final CourseFragmentCache fragments;
+    private final ObjectProvider<VirtualThreadPinningMonitor> pinning;
+    private final boolean virtualThreads;
+    private final BulkheadFilter bulkheads;
+    private final ObjectProvider<TrafficLog> capture;
+
+    public StatsController(
+            FeedService feed,
+            EntityManagerFactory emf,
+            CourseFragmentCache fragments,
+            ObjectProvider<VirtualThreadPinningMonitor> pinning,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            BulkheadFilter bulkheads,
+            ObjectProvider<TrafficLog> capture
+    ) {
+        this.feed = feed;
+        this.hibernate = emf.unwrap(SessionFactory.class).getStatistics();
+        this.fragments = fragments;
+        this.pinning = pinning;
+        this.virtualThreads = virtualThreads;
+        this.bulkheads = bulkheads;
+        this.capture = capture;
+    }
+
+    @GetMapping("/feed-cache")
+    public FeedCache.Stats feedCache(@RequestHeader(name = "Authorization", required = false) String authHeader) {
+        requireLecturer(authHeader);
+        return feed.cacheStats();
+    }
+
+    @GetMapping("/sse")
+    public Map<String, Object> sse(@RequestHeader(name = "Authorization", required = false) String authHeader) {
+        requireLecturer(authHeader);
+        return Map.of(
+                "subscribers", feed.subscriberCount(),
+                "byCourse", feed.subscriberCountsByCourse()
+        );
+    }
+
+    /** Hibernate L2 cache kurzů (entity + seznam) a počet SQL příkazů od startu. */
+    @GetMapping("/course-cache")
+    public Map<String, Object> courseCache(@RequestHeader(name = "Authorization", required = false) String authHeader) {
+        requireLecturer(authHeader);
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("entities", region(hibernate.getDomainDataRegionStatistics(CourseEntity.CACHE_REGION)));
+        out.put("list", region(hibernate.getQueryRegionStatistics(CourseEntity.LIST_CACHE_REGION)));
+        out.put("statements", hibernate.getPrepareStatementCount());
+        return out;
+    }
+
+    @GetMapping("/fragments")
+    public CourseFragmentCache.Stats fragments(@RequestHeader(name = "Authorization", required = false) String authHeader) {
+        requireLecturer(authHeader);
+        return fragments.stats();
+    }
+
+    /** Režim vláken a pinning virtuálních vláken (jen se zapnutým monitorem). */
+    @GetMapping("/vthreads")
+    public Map<String, Object> vthreads(@RequestHeader(name = "Authorization", required = false) String authHeader) {
+        requireLecturer(authHeader);
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("virtualThreads", virtualThreads);
+        VirtualThreadPinningMonitor monitor = pinning.getIfAvailable();
+        out.put("pinning", monitor == null ? null : monitor.stats());
+        return out;
+    }
+
+    /** Přepážky tříd zátěže (api, files, sse): obsazenost, fronta, odmítnutí. */
+    @GetMapping("/bulkheads")
+    public List<Bulkhead.Stats> bulkheads(@RequestHeader(name = "Authorization", required = false) String authHeader) {
+        requireLecturer(authHeader);
+        return bulkheads.stats();
+    }
+
+    /** Záznam provozu pro replay (jen se zapnutým app.capture.enabled). */
+    @GetMapping("/capture")
+    public Map<String, Object> capture(@RequestHeader(name = "Authorization", required = false) String authHeader) {
+        requireLecturer(authHeader);
+        TrafficLog log = capture.getIfAvailable();
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("enabled", log != null);
+        out.put("log", log == null ? null : log.stats());
+        return out;
+    }
+
+    private static Map<String, Object> region(CacheRegionStatistics r) {
+        if (r == null) return Map.of();
+        long hits = r.getHitCount();
+        long misses = r.getMissCount();
+        return Map.of(
+                "hits", hits,
+                "misses", misses,
+                "puts", r.getPutCount(),
+                "hitRatio", (hits + misses) == 0 ? 0.0 : (double) hits / (hits + misses),
+                "size", r.getElementCountInMemory()
+        );
+    }
+
+    private static void requireLecturer(String authHeader) {
+        if (!Auth.isBearerValid(authHeader)) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package tda.app.app;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hlídání pinningu virtuálních vláken (JFR událost jdk.VirtualThreadPinned).
+ *
+ * Virtuální vlákno, které se zablokuje uvnitř synchronized (nebo nativní metody), drží
+ * nosné vlákno – při větším počtu takových míst se ze stovek tisíc virtuálních vláken
+ * stane pár nosných. Monitor počítá pinning nad prahem podle prvního rámce aplikace
+ * (tda.app.*) a první výskyt každého místa vypíše s kusem stacku.
+ *
+ * Zapíná se app.vthreads.pinning-monitor.enabled=true (profil vthreads);
+ * statistiky -> GET /api/stats/vthreads.
+ */
+@Component
+@ConditionalOnProperty(name = "app.vthreads.pinning-monitor.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    public record Stats(long pinnedEvents, long pinnedMillisTotal, Map<String, Long> bySite) {}
+
+    private static final String EVENT = "jdk.VirtualThreadPinned";
+    private static final int STACK_LINES = 8;
+
+    private final long thresholdMillis;
+    private final AtomicLong events = new AtomicLong();
+    private final AtomicLong pinnedNanos = new AtomicLong();
+    // místo v aplikaci -> počet (chráněno zámkem na mapě)
+    private final Map<String, Long> bySite = new HashMap<>();
+
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(@Value("${app.vthreads.pinning-monitor.threshold-millis:20}") long thresholdMillis) {
+        this.thresholdMillis = Math.max(0, thresholdMillis);
+    }
+
+    @PostConstruct
+    public void start() {
+        try {
+            stream = new RecordingStream();
+            stream.enable(EVENT).withThreshold(Duration.ofMillis(thresholdMillis)).withStackTrace();
+            stream.onEvent(EVENT, this::onPinned);
+            stream.startAsync();
+        } catch (Exception e) {
+            // např. JFR vypnuté ve JVM – aplikace poběží dál bez diagnostiky
+            System.err.println("WARN: Nelze spustit JFR monitor pinningu: " + e.getMessage());
+            stream = null;
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) stream.close();
+    }
+
+    public Stats stats() {
+        Map<String, Long> copy;
+        synchronized (bySite) {
+            copy = new LinkedHashMap<>();
+            bySite.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                    .forEach(en -> copy.put(en.getKey(), en.getValue()));
+        }
+        return new Stats(events.get(), pinnedNanos.get() / 1_000_000, copy);
+    }
+
+    private void onPinned(RecordedEvent e) {
+        events.incrementAndGet();
+        pinnedNanos.addAndGet(e.getDuration().toNanos());
+
+        String site = appFrame(e.getStackTrace());
+        boolean first;
+        synchronized (bySite) {
+            first = bySite.merge(site, 1L, Long::sum) == 1L;
+        }
+        if (first) {
+            System.err.println("WARN: Virtuální vlákno pinned " + e.getDuration().toMillis() + " ms v " + site
+                    + System.lineSeparator() + stackHead(e.getStackTrace()));
+        }
+    }
+
+    private static String appFrame(RecordedStackTrace st) {
+        if (st == null) return "?";
+        for (RecordedFrame f : st.getFrames()) {
+            if (!f.isJavaFrame()) continue;
+            String type = f.getMethod().getType().getName();
+            if (type.startsWith("tda.app.")) return type + "." + f.getMethod().getName() + ":" + f.getLineNumber();
+        }
+        return st.getFrames().isEmpty() ? "?" : format(st.getFrames().get(0));
+    }
+
+    private static String stackHead(RecordedStackTrace st) {
+        if (st == null) return "    (bez stacku)";
+        StringBuilder sb = new StringBuilder();
+        int n = Math.min(STACK_LINES, st.getFrames().size());
+        for (int i = 0; i < n; i++) {
+            if (i > 0) sb.append(System.lineSeparator());
+            sb.append("    at ").append(format(st.getFrames().get(i)));
+        }
+        return sb.toString();
+    }
+
+    private static String format(RecordedFrame f) {
+        return f.getMethod().getType().getName() + "." + f.getMethod().getName() + ":" + f.getLineNumber();
+    }
+}
@@ -0,0 +1,114 @@
+package tda.app.app.bulkhead;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Jedna přepážka (bulkhead): nejvýš maxConcurrent souběžných requestů, dalších nejvýš
+ * queueSize čeká ve frontě (FIFO) maximálně queueTimeoutMillis. Kdo se do fronty nevejde
+ * nebo se nedočká, je odmítnut – volající vrátí 503 a ostatní třídy zátěže to nepocítí.
+ */
+public class Bulkhead {
+
+    public enum Admission { ADMITTED, QUEUE_FULL, TIMED_OUT }
+
+    public record Stats(
+            String name,
+            int maxConcurrent,
+            int queueSize,
+            long queueTimeoutMillis,
+            int active,
+            int waiting,
+            int peakActive,
+            long admitted,
+            long queued,
+            long rejectedQueueFull,
+            long rejectedTimeout,
+            double avgQueueWaitMillis
+    ) {}
+
+    private final String name;
+    private final int maxConcurrent;
+    private final int queueSize;
+    private final long queueTimeoutMillis;
+
+    // fair = pořadí čekajících odpovídá příchodu
+    private final Semaphore permits;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicInteger peakActive = new AtomicInteger();
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong rejectedQueueFull = new AtomicLong();
+    private final AtomicLong rejectedTimeout = new AtomicLong();
+    private final AtomicLong queueWaitNanos = new AtomicLong();
+
+    public Bulkhead(String name, int maxConcurrent, int queueSize, long queueTimeoutMillis) {
+        this.name = name;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.queueSize = Math.max(0, queueSize);
+        this.queueTimeoutMillis = Math.max(0, queueTimeoutMillis);
+        this.permits = new Semaphore(this.maxConcurrent, true);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /** Po ADMITTED musí volající vždy zavolat {@link #release()}. */
+    public Admission acquire() throws InterruptedException {
+        if (permits.tryAcquire()) {
+            onAdmitted();
+            return Admission.ADMITTED;
+        }
+
+        if (waiting.incrementAndGet() > queueSize) {
+            waiting.decrementAndGet();
+            rejectedQueueFull.incrementAndGet();
+            return Admission.QUEUE_FULL;
+        }
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(queueTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                rejectedTimeout.incrementAndGet();
+                return Admission.TIMED_OUT;
+            }
+        } finally {
+            waiting.decrementAndGet();
+            queueWaitNanos.addAndGet(System.nanoTime() - start);
+        }
+        queued.incrementAndGet();
+        onAdmitted();
+        return Admission.ADMITTED;
+    }
+
+    public void release() {
+        active.decrementAndGet();
+        permits.release();
+    }
+
+    public Stats stats() {
+        long q = queued.get() + rejectedTimeout.get();
+        return new Stats(
+                name,
+                maxConcurrent,
+                queueSize,
+                queueTimeoutMillis,
+                active.get(),
+                waiting.get(),
+                peakActive.get(),
+                admitted.get(),
+                queued.get(),
+                rejectedQueueFull.get(),
+                rejectedTimeout.get(),
+                q == 0 ? 0.0 : queueWaitNanos.get() / 1e6 / q
+        );
+    }
+
+    private void onAdmitted() {
+        admitted.incrementAndGet();
+        peakActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+    }
+}
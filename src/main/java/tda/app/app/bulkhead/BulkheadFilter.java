@@ -0,0 +1,151 @@
+package tda.app.app.bulkhead;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Oddělení tříd zátěže, které sdílí jeden konektor a pool vláken:
+ *
+ * - SSE     – dlouhá spojení feedu; permit se drží, dokud stream neskončí
+ * - FILES   – upload a download materiálů (až 30 MB); permit se drží po celý přenos
+ * - API     – ostatní /api/** (malé JSON requesty, např. odeslání kvízu)
+ *
+ * Každá třída má vlastní limit souběžnosti a frontu (app.bulkhead.*), takže třída stahující
+ * video vyčerpá jen svou přepážku a zbytek poolu zůstane malým API requestům.
+ * Odmítnutý request dostane 503 + Retry-After; statistiky -> GET /api/stats/bulkheads.
+ *
+ * Pozn.: s platformními vlákny čeká request ve frontě na vlákně Tomcatu – API i FILES
+ * (limit + fronta) se proto musí vejít pod server.tomcat.threads.max, jinak by nával API
+ * zabral všechna vlákna a FILES/SSE by se ke své přepážce ani nedostaly. Když se nevejdou,
+ * fronty se vypnou (plný limit -> rovnou 503). S virtuálními vlákny čekání pool nevyčerpá.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private final Map<WorkloadClass, Bulkhead> bulkheads = new EnumMap<>(WorkloadClass.class);
+
+    public BulkheadFilter(
+            @Value("${app.bulkhead.api.max-concurrent:64}") int apiMax,
+            @Value("${app.bulkhead.api.queue-size:64}") int apiQueue,
+            @Value("${app.bulkhead.api.queue-timeout-millis:1000}") long apiTimeout,
+            @Value("${app.bulkhead.files.max-concurrent:8}") int filesMax,
+            @Value("${app.bulkhead.files.queue-size:32}") int filesQueue,
+            @Value("${app.bulkhead.files.queue-timeout-millis:30000}") long filesTimeout,
+            @Value("${app.bulkhead.sse.max-concurrent:50000}") int sseMax,
+            @Value("${app.bulkhead.sse.queue-size:0}") int sseQueue,
+            @Value("${app.bulkhead.sse.queue-timeout-millis:0}") long sseTimeout,
+            @Value("${server.tomcat.threads.max:200}") int threadsMax,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+    ) {
+        if (!virtualThreads && apiMax + apiQueue + filesMax + filesQueue >= threadsMax) {
+            System.err.println("WARN: Přepážky api (" + apiMax + "+" + apiQueue + ") a files (" + filesMax + "+" + filesQueue
+                    + ") se nevejdou pod server.tomcat.threads.max=" + threadsMax + " – fronty vypnuty, plný limit = 503.");
+            apiQueue = 0;
+            filesQueue = 0;
+        }
+        bulkheads.put(WorkloadClass.API, new Bulkhead("api", apiMax, apiQueue, apiTimeout));
+        bulkheads.put(WorkloadClass.FILES, new Bulkhead("files", filesMax, filesQueue, filesTimeout));
+        bulkheads.put(WorkloadClass.SSE, new Bulkhead("sse", sseMax, sseQueue, sseTimeout));
+    }
+
+    public List<Bulkhead.Stats> stats() {
+        return bulkheads.values().stream().map(Bulkhead::stats).toList();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        WorkloadClass wc = WorkloadClass.of(request);
+        if (wc == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Bulkhead bulkhead = bulkheads.get(wc);
+        Bulkhead.Admission admission;
+        try {
+            admission = bulkhead.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reject(response, bulkhead, "Request přerušen.");
+            return;
+        }
+        if (admission != Bulkhead.Admission.ADMITTED) {
+            reject(response, bulkhead, admission == Bulkhead.Admission.QUEUE_FULL
+                    ? "Server je přetížený, zkuste to za chvíli."
+                    : "Request nestihl čekání ve frontě, zkuste to za chvíli.");
+            return;
+        }
+
+        Permit permit = new Permit(bulkhead);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // SSE: request běží dál asynchronně -> permit uvolníme až s koncem streamu
+                request.getAsyncContext().addListener(permit);
+            } else {
+                permit.release();
+            }
+        }
+    }
+
+    private static void reject(HttpServletResponse response, Bulkhead bulkhead, String message) throws IOException {
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader("Retry-After", "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("{\"error\":\"" + message + "\",\"bulkhead\":\"" + bulkhead.name() + "\"}");
+    }
+
+    /** Uvolnění přesně jednou – ať request skončí synchronně, nebo async completion/timeout/chybou. */
+    private static final class Permit implements AsyncListener {
+        private final Bulkhead bulkhead;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Permit(Bulkhead bulkhead) {
+            this.bulkhead = bulkhead;
+        }
+
+        void release() {
+            if (released.compareAndSet(false, true)) bulkhead.release();
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package tda.app.app.bulkhead;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.MediaType;
+
+/** Třída zátěže requestu podle cesty, metody a hlaviček. */
+public enum WorkloadClass {
+    SSE,
+    FILES,
+    API;
+
+    /** @return null pro requesty mimo /api (stránky, statické soubory, WebSocket) */
+    public static WorkloadClass of(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.startsWith("/api/")) return null;
+
+        String accept = request.getHeader("Accept");
+        if (path.endsWith("/stream") || (accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE))) {
+            return SSE;
+        }
+
+        if (path.endsWith("/download") || path.endsWith("/materials/archive")) return FILES;
+        String contentType = request.getContentType();
+        if (contentType != null && contentType.startsWith(MediaType.MULTIPART_FORM_DATA_VALUE)) return FILES;
+
+        return API;
+    }
+}
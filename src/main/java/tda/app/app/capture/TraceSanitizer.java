@@ -0,0 +1,90 @@
+package tda.app.app.capture;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Anonymizace zaznamenaného provozu.
+ *
+ * - JSON tělo -> tvar: klíče, vnoření, počty prvků, čísla a booleany zůstanou;
+ *   každý řetězec se nahradí stejně dlouhým "xxx" (velikost payloadu i práce parseru sedí)
+ * - query -> čísla zůstanou (limit, size, page), ostatní hodnoty jako "xxx"
+ * - studentský klíč -> solený SHA-256; sůl platí do restartu, takže stejný student = stejný pseudonym
+ */
+final class TraceSanitizer {
+
+    // delší řetězce se zkrátí (tvar, ne obsah)
+    static final int MAX_STRING = 4096;
+
+    private final byte[] salt = new byte[16];
+
+    TraceSanitizer() {
+        new SecureRandom().nextBytes(salt);
+    }
+
+    static JsonNode shape(JsonNode node) {
+        if (node == null) return null;
+        if (node.isTextual()) return TextNode.valueOf(mask(node.asText()));
+        if (node.isObject()) {
+            ObjectNode out = JsonNodeFactory.instance.objectNode();
+            for (Map.Entry<String, JsonNode> e : node.properties()) out.set(e.getKey(), shape(e.getValue()));
+            return out;
+        }
+        if (node.isArray()) {
+            ArrayNode out = JsonNodeFactory.instance.arrayNode();
+            for (JsonNode item : node) out.add(shape(item));
+            return out;
+        }
+        return node; // číslo, boolean, null
+    }
+
+    /** Query string -> parametry (první hodnota); nečte tělo requestu, na rozdíl od getParameterMap(). */
+    static Map<String, String> query(String queryString) {
+        if (queryString == null || queryString.isEmpty()) return null;
+        Map<String, String> out = new LinkedHashMap<>();
+        for (String pair : queryString.split("&")) {
+            if (pair.isEmpty()) continue;
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String v = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            out.putIfAbsent(name, v.matches("-?\\d{1,18}") ? v : mask(v));
+        }
+        return out.isEmpty() ? null : out;
+    }
+
+    String pseudonym(String studentKey) {
+        if (studentKey == null || studentKey.isBlank()) return null;
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            sha.update(salt);
+            byte[] digest = sha.digest(studentKey.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Přípona souboru (mp4, pdf...) – jméno se nezapisuje. */
+    static String extension(String filename) {
+        if (filename == null) return null;
+        int dot = filename.lastIndexOf('.');
+        String ext = dot < 0 ? "" : filename.substring(dot + 1).toLowerCase();
+        return ext.matches("[a-z0-9]{1,8}") ? "file." + ext : "file";
+    }
+
+    private static String mask(String s) {
+        return "x".repeat(Math.min(s.length(), MAX_STRING));
+    }
+}
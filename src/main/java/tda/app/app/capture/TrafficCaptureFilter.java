@@ -0,0 +1,209 @@
+package tda.app.app.capture;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.Part;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingRequestWrapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Záznam reálného provozu /api/** pro pozdější replay (loadtest: tda.app.load.Replay).
+ *
+ * Zapisuje metodu, šablonu i konkrétní cestu, tvar těla (TraceSanitizer), velikosti částí
+ * uploadu, status a dobu zpracování. Běží před přepážkami, takže zachytí i odmítnutí 503.
+ * JSON tělo se čte z kopie, kterou si udělá ContentCachingRequestWrapper, když ho čte
+ * controller, a části multipartu jen tehdy, když je už rozparsoval Spring – request se
+ * kvůli záznamu nikdy nečte dvakrát. Přihlášení (/api/login) se nezaznamenává vůbec:
+ * i tvar těla a jeho délka by prozradily délku hesla.
+ *
+ * Vypnuto, dokud není app.capture.enabled=true; statistiky -> GET /api/stats/capture.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+@ConditionalOnProperty(name = "app.capture.enabled", havingValue = "true")
+public class TrafficCaptureFilter extends OncePerRequestFilter {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    // JSON těla v API jsou malá; u delších se zaznamená jen velikost
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+
+    private final TrafficLog log;
+    private final TraceSanitizer sanitizer = new TraceSanitizer();
+    private final double sampleRate;
+
+    public TrafficCaptureFilter(TrafficLog log, @Value("${app.capture.sample-rate:1.0}") double sampleRate) {
+        this.log = log;
+        this.sampleRate = Math.max(0.0, Math.min(1.0, sampleRate));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        // vlastní provozní endpointy do provozu studentů nepatří, přihlášení nese heslo
+        return !path.startsWith("/api/") || path.startsWith("/api/stats/") || path.startsWith("/api/jfr/")
+                || path.equals("/api/login");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long startMillis = System.currentTimeMillis();
+        long start = System.nanoTime();
+        HttpServletRequest req = isJson(request) ? new ContentCachingRequestWrapper(request, MAX_BODY_BYTES)
+                : isMultipart(request) ? new PartsTrackingRequest(request)
+                : request;
+        try {
+            chain.doFilter(req, response);
+        } finally {
+            if (req.isAsyncStarted()) {
+                // SSE: zapíše se až s koncem streamu (délka spojení)
+                req.getAsyncContext().addListener(new OnComplete(() -> write(req, response, startMillis, start, true)));
+            } else {
+                write(req, response, startMillis, start, false);
+            }
+        }
+    }
+
+    private void write(HttpServletRequest req, HttpServletResponse response, long startMillis, long start, boolean async) {
+        try {
+            Object pattern = req.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            long length = req.getContentLengthLong();
+            log.append(new TrafficRecord(
+                    startMillis,
+                    req.getMethod(),
+                    pattern == null ? null : pattern.toString(),
+                    req.getRequestURI().substring(req.getContextPath().length()),
+                    TraceSanitizer.query(req.getQueryString()),
+                    req.getHeader("Authorization") != null ? Boolean.TRUE : null,
+                    sanitizer.pseudonym(req.getHeader("X-Student-Key")),
+                    req.getContentType() == null ? null : req.getContentType().split(";")[0].trim(),
+                    length > 0 ? length : null,
+                    body(req),
+                    parts(req),
+                    response.getStatus(),
+                    (System.nanoTime() - start) / 1_000_000.0,
+                    async ? Boolean.TRUE : null
+            ));
+        } catch (RuntimeException e) {
+            // záznam nesmí shodit request
+            System.err.println("WARN: Záznam provozu selhal: " + e.getMessage());
+        }
+    }
+
+    private static JsonNode body(HttpServletRequest req) {
+        if (!(req instanceof ContentCachingRequestWrapper cached)) return null;
+        byte[] content = cached.getContentAsByteArray();
+        if (content.length == 0 || content.length >= MAX_BODY_BYTES) return null;
+        try {
+            return TraceSanitizer.shape(MAPPER.readTree(content));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static List<TrafficRecord.Part> parts(HttpServletRequest req) {
+        // multipart, který nikdo nečetl (503 z přepážky, 401, 404…), kvůli záznamu parsovat nebudeme
+        if (!(req instanceof PartsTrackingRequest tracked) || !tracked.parsed) return null;
+        try {
+            List<TrafficRecord.Part> out = new ArrayList<>();
+            for (Part p : req.getParts()) {
+                out.add(new TrafficRecord.Part(p.getName(), TraceSanitizer.extension(p.getSubmittedFileName()),
+                        p.getSubmittedFileName() == null ? null : p.getContentType(), p.getSize()));
+            }
+            return out;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static boolean isJson(HttpServletRequest req) {
+        String ct = req.getContentType();
+        return ct != null && ct.toLowerCase().startsWith("application/json");
+    }
+
+    private static boolean isMultipart(HttpServletRequest req) {
+        String ct = req.getContentType();
+        return ct != null && ct.toLowerCase().startsWith("multipart/");
+    }
+
+    /** Pozná, že části multipartu už přečetl někdo za filtrem (MultipartResolver). */
+    private static final class PartsTrackingRequest extends HttpServletRequestWrapper {
+        private volatile boolean parsed;
+
+        PartsTrackingRequest(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public Collection<Part> getParts() throws IOException, ServletException {
+            Collection<Part> parts = super.getParts();
+            parsed = true;
+            return parts;
+        }
+
+        @Override
+        public Part getPart(String name) throws IOException, ServletException {
+            Part part = super.getPart(name);
+            parsed = true;
+            return part;
+        }
+    }
+
+    /** Zápis přesně jednou – completion, timeout i chyba async requestu. */
+    private static final class OnComplete implements AsyncListener {
+        private final Runnable action;
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        OnComplete(Runnable action) {
+            this.action = action;
+        }
+
+        private void fire() {
+            if (done.compareAndSet(false, true)) action.run();
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            fire();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            fire();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            fire();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
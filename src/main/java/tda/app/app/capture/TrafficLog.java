@@ -0,0 +1,129 @@
+package tda.app.app.capture;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Zápis zaznamenaného provozu do denních souborů traffic-YYYY-MM-DD.jsonl (JSON Lines).
+ *
+ * Request zápis nikdy nečeká: záznam jde do omezené fronty a na disk ho zapisuje jedno
+ * vlákno v krátkých dávkách. Při plné frontě se záznam zahodí (počítadlo dropped).
+ */
+@Component
+@ConditionalOnProperty(name = "app.capture.enabled", havingValue = "true")
+public class TrafficLog {
+
+    public record Stats(long written, long dropped, int queued, String file) {}
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final long FLUSH_MILLIS = 200;
+
+    private final Path dir;
+    private final BlockingQueue<TrafficRecord> queue;
+    private final ScheduledExecutorService writer;
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    // jen vlákno writeru
+    private BufferedWriter out;
+    private LocalDate outDate;
+    private volatile Path outFile;
+
+    public TrafficLog(
+            @Value("${app.capture.dir:./uploads/capture}") String dir,
+            @Value("${app.capture.queue-size:10000}") int queueSize
+    ) {
+        this.dir = Paths.get(dir);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueSize));
+        this.writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "traffic-capture");
+            t.setDaemon(true);
+            return t;
+        });
+        writer.scheduleWithFixedDelay(this::drain, FLUSH_MILLIS, FLUSH_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    void append(TrafficRecord record) {
+        if (!queue.offer(record)) dropped.incrementAndGet();
+    }
+
+    public Stats stats() {
+        Path f = outFile;
+        return new Stats(written.get(), dropped.get(), queue.size(), f == null ? null : f.toString());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drain();
+        closeFile();
+    }
+
+    private synchronized void drain() {
+        List<TrafficRecord> batch = new ArrayList<>();
+        queue.drainTo(batch);
+        if (batch.isEmpty()) return;
+
+        try {
+            for (TrafficRecord r : batch) {
+                BufferedWriter w = writerFor(LocalDate.ofInstant(Instant.ofEpochMilli(r.t()), ZoneId.systemDefault()));
+                w.write(MAPPER.writeValueAsString(r));
+                w.newLine();
+            }
+            out.flush();
+            written.addAndGet(batch.size());
+        } catch (IOException e) {
+            dropped.addAndGet(batch.size());
+            System.err.println("WARN: Nelze zapsat záznam provozu: " + e.getMessage());
+            closeFile();
+        }
+    }
+
+    private BufferedWriter writerFor(LocalDate date) throws IOException {
+        if (out != null && date.equals(outDate)) return out;
+        closeFile();
+        Files.createDirectories(dir);
+        Path file = dir.resolve("traffic-" + date + ".jsonl");
+        out = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        outDate = date;
+        outFile = file;
+        return out;
+    }
+
+    private void closeFile() {
+        if (out == null) return;
+        try {
+            out.close();
+        } catch (IOException ignored) {
+        }
+        out = null;
+        outDate = null;
+    }
+}
@@ -0,0 +1,43 @@
+package tda.app.app.capture;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Jeden zaznamenaný request (jeden řádek JSON Lines v logu provozu).
+ *
+ * Neobsahuje nic, co by šlo zpět přiřadit k osobě: tělo je jen „tvar“ (struktura a délky
+ * řetězců, viz TraceSanitizer), studentský klíč je solený hash, z hlavičky Authorization
+ * zůstane jen příznak auth. ID kurzů/kvízů/materiálů v path zůstávají – replay je potřebuje.
+ *
+ * @param t           začátek requestu (epoch ms)
+ * @param template    šablona cesty ze Springu, např. /api/courses/{courseId}/materials
+ * @param status      HTTP status odpovědi
+ * @param millis      doba zpracování (u SSE délka spojení)
+ * @param async       request doběhl asynchronně (SSE stream)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TrafficRecord(
+        long t,
+        String method,
+        String template,
+        String path,
+        Map<String, String> query,
+        Boolean auth,
+        String student,
+        String contentType,
+        Long bodyBytes,
+        JsonNode body,
+        List<Part> parts,
+        int status,
+        double millis,
+        Boolean async
+) {
+
+    /** Část multipart requestu – jen jméno, velikost a přípona souboru. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Part(String name, String filename, String contentType, long size) {}
+}
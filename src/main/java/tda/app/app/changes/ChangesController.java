@@ -0,0 +1,39 @@
+package tda.app.app.changes;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Delta synchronizace kurzu.
+ *
+ * - GET /api/courses/{courseId}/changes?since=N[&limit=500]
+ *
+ * Klient si pamatuje seq z poslední odpovědi a příště se ptá jen na novější změny
+ * (hasMore = ptej se hned znovu). Při snapshot=true načte celé seznamy (/materials,
+ * /quizzes, /feed) a pokračuje od vráceného seq; změny aplikuje podle id (idempotentně).
+ */
+@RestController
+@RequestMapping("/api/courses/{courseId}/changes")
+public class ChangesController {
+
+    static final int MAX_LIMIT = 1000;
+
+    private final CourseChangeLog log;
+
+    public ChangesController(CourseChangeLog log) {
+        this.log = log;
+    }
+
+    @GetMapping
+    public CourseChangeLog.Changes since(
+            @PathVariable String courseId,
+            @RequestParam(name = "since", defaultValue = "0") long since,
+            @RequestParam(name = "limit", defaultValue = "500") int limit
+    ) {
+        if (since < 0 || limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "since >= 0, limit >= 1");
+        }
+        return log.since(courseId, since, Math.min(limit, MAX_LIMIT));
+    }
+}
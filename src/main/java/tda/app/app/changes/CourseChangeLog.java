@@ -0,0 +1,169 @@
+package tda.app.app.changes;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import tda.app.app.CourseChangeEvent;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Trvalý, uspořádaný log změn kurzu (materiály, kvízy, feed) pro delta synchronizaci klientů.
+ *
+ * Každý CourseChangeEvent dostane v rámci kurzu rostoucí seq a zapíše se do tabulky
+ * course_changes (stejná H2 jako feed) – s podobou pro studenta (CourseChangeEvent.publicPayload),
+ * takže čtení payload jen vloží do odpovědi bez další serializace. Pokusy o kvíz se nelogují.
+ *
+ * Drží se posledních app.changes.max-per-course změn kurzu. Kdo se ptá na starší seq
+ * (nebo na seq, který tahle DB nikdy nevydala), dostane snapshot značku: načíst celé seznamy
+ * a pokračovat od vráceného seq.
+ *
+ * seq se přiděluje z DB (MAX + 1, při kolizi primárního klíče znovu), takže do sdílené DB
+ * mohou zapisovat všechny instance. Změny feedu z jiných instancí (remote) se nezapisují –
+ * zapsala je instance, kde vznikly.
+ *
+ * Když zápis změny selže, seq se spálí: kdo je pozadu (since pod spáleným seq), dostane
+ * snapshot místo tiché díry v logu. Spálené seq drží jen paměť instance.
+ */
+@Component
+public class CourseChangeLog {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    // jak často (v seq) se z kurzu mažou změny za hranicí retence
+    private static final int TRIM_EVERY = 100;
+
+    // kolikrát zkusit nový seq, když ho mezitím vydala jiná instance
+    private static final int APPEND_ATTEMPTS = 3;
+
+    /** Jedna změna; data = JSON stejný jako v live aktualizacích (/ws/live). */
+    public record Change(long seq, String kind, String action, String id, Instant at, @JsonRawValue String data) {}
+
+    /**
+     * Odpověď /changes. seq = od čeho se ptát příště.
+     * snapshot = since je mimo log -> klient načte celé seznamy; changes je prázdné.
+     */
+    public record Changes(long seq, boolean snapshot, boolean hasMore, List<Change> changes) {}
+
+    private final JdbcTemplate jdbc;
+    private final int maxPerCourse;
+
+    // spálený seq kurzu: since pod ním = snapshot, další změna dostane seq nad ním
+    private final Map<String, Long> floors = new ConcurrentHashMap<>();
+    // kurzy se selhaným zápisem, jejichž seq se spálí při příštím úspěšném dotazu do DB
+    private final Set<String> broken = ConcurrentHashMap.newKeySet();
+
+    public CourseChangeLog(DataSource dataSource, @Value("${app.changes.max-per-course:1000}") int maxPerCourse) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.maxPerCourse = Math.max(1, maxPerCourse);
+    }
+
+    @PostConstruct
+    public void init() {
+        jdbc.execute("""
+                CREATE TABLE IF NOT EXISTS course_changes (
+                    course_id VARCHAR(255) NOT NULL,
+                    seq BIGINT NOT NULL,
+                    kind VARCHAR(16) NOT NULL,
+                    action VARCHAR(16) NOT NULL,
+                    item_id VARCHAR(255),
+                    payload CLOB NOT NULL,
+                    created_at TIMESTAMP NOT NULL,
+                    PRIMARY KEY (course_id, seq)
+                )""");
+    }
+
+    @EventListener
+    public void onCourseChange(CourseChangeEvent e) {
+        if (e.kind() == CourseChangeEvent.Kind.ATTEMPT || e.courseId() == null || e.remote()) return;
+
+        try {
+            String json = MAPPER.writeValueAsString(e.publicPayload());
+            append(e.courseId(), e.kind().name().toLowerCase(), e.action().name().toLowerCase(), e.itemId(), json);
+        } catch (Exception ex) {
+            // zápis do kurzu se už povedl; klienti, kterým změna chybí, dostanou snapshot
+            broken.add(e.courseId());
+            System.err.println("WARN: Zápis do course_changes selhal: " + ex.getMessage());
+        }
+    }
+
+    // přidělení seq a insert musí jít v pořadí – zápisy jsou řídké (lektor, dávky feedu)
+    synchronized long append(String courseId, String kind, String action, String itemId, String payload) {
+        for (int attempt = 1; ; attempt++) {
+            long seq = head(courseId) + 1;
+            try {
+                jdbc.update(
+                        "INSERT INTO course_changes (course_id, seq, kind, action, item_id, payload, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                        courseId, seq, kind, action, itemId, payload, Timestamp.from(Instant.now())
+                );
+            } catch (DuplicateKeyException ex) {
+                // seq mezitím vydala jiná instance nad stejnou DB
+                if (attempt >= APPEND_ATTEMPTS) throw ex;
+                continue;
+            }
+
+            if (seq % TRIM_EVERY == 0 && seq > maxPerCourse) {
+                jdbc.update("DELETE FROM course_changes WHERE course_id = ? AND seq <= ?", courseId, seq - maxPerCourse);
+            }
+            return seq;
+        }
+    }
+
+    /** Změny kurzu se seq > since, nejvýš limit; při since mimo log snapshot značka. */
+    public Changes since(String courseId, long since, int limit) {
+        long head = head(courseId);
+
+        if (since == head) return new Changes(head, false, false, List.of());
+        if (since > head || since < floors.getOrDefault(courseId, 0L)) return new Changes(head, true, false, List.of());
+
+        Long min = jdbc.queryForObject("SELECT MIN(seq) FROM course_changes WHERE course_id = ?", Long.class, courseId);
+        if (min == null || since < min - 1) return new Changes(head, true, false, List.of());
+
+        List<Change> rows = jdbc.query(
+                "SELECT seq, kind, action, item_id, payload, created_at FROM course_changes"
+                        + " WHERE course_id = ? AND seq > ? ORDER BY seq LIMIT ?",
+                (rs, i) -> new Change(
+                        rs.getLong("seq"),
+                        rs.getString("kind"),
+                        rs.getString("action"),
+                        rs.getString("item_id"),
+                        rs.getTimestamp("created_at").toInstant(),
+                        rs.getString("payload")
+                ),
+                courseId, since, limit + 1
+        );
+
+        boolean hasMore = rows.size() > limit;
+        if (hasMore) rows = rows.subList(0, limit);
+        long next = rows.isEmpty() ? since : rows.get(rows.size() - 1).seq();
+        return new Changes(next, false, hasMore, rows);
+    }
+
+    /** Poslední vydaný seq kurzu (zapsaný nebo spálený); po selhaném zápisu spálí další. */
+    private synchronized long head(String courseId) {
+        long head = Math.max(maxSeq(courseId), floors.getOrDefault(courseId, 0L));
+        if (broken.remove(courseId)) {
+            floors.put(courseId, ++head);
+        }
+        return head;
+    }
+
+    private long maxSeq(String courseId) {
+        Long max = jdbc.queryForObject("SELECT COALESCE(MAX(seq), 0) FROM course_changes WHERE course_id = ?", Long.class, courseId);
+        return max == null ? 0 : max;
+    }
+}
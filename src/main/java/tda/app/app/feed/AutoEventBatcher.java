@@ -0,0 +1,173 @@
+package tda.app.app.feed;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import tda.app.app.id.Ids;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Slučování automatických událostí feedu (nahrání materiálu, nový odkaz, nový kvíz).
+ *
+ * Události se per kurz sbírají v krátkém okně; po jeho uplynutí se všechny zapíšou
+ * jedním JDBC batch insertem a předají dál jako jedna dávka (jeden SSE rámec).
+ * Request, který událost vyvolal, na feed nikdy nečeká.
+ */
+@Component
+public class AutoEventBatcher {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO course_feed (id, course_id, item_type, message, created_at, updated_at, edited)
+            VALUES (?, ?, ?, ?, ?, ?, ?)""";
+
+    private final JdbcTemplate jdbc;
+    private final long windowMillis;
+    private final int maxBatch;
+
+    // čekající události jednoho kurzu; časovač patří právě této dávce, takže dávku
+    // vyprázdněnou kvůli velikosti nemůže starý časovač zkrátit té další
+    private static final class Batch {
+        final List<FeedService.FeedItemDto> items = new ArrayList<>();
+        ScheduledFuture<?> timer;
+    }
+
+    // courseId -> otevřená dávka (chráněno zámkem na mapě)
+    private final Map<String, Batch> pending = new HashMap<>();
+
+    // s virtuálními vlákny běží i zápis dávky na virtuálním vlákně (JDBC čekání nedrží nosné vlákno)
+    private final ScheduledExecutorService flusher;
+
+    // kam posíláme zapsané dávky (FeedService: cache + bus)
+    private volatile BiConsumer<String, List<FeedService.FeedItemDto>> sink = (courseId, items) -> {};
+
+    public AutoEventBatcher(
+            JdbcTemplate jdbc,
+            @Value("${app.feed.auto.window-millis:1500}") long windowMillis,
+            @Value("${app.feed.auto.max-batch:200}") int maxBatch,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+    ) {
+        this.jdbc = jdbc;
+        this.windowMillis = Math.max(0, windowMillis);
+        this.maxBatch = Math.max(1, maxBatch);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(virtualThreads
+                ? Thread.ofVirtual().name("feed-auto-batcher").factory()
+                : r -> {
+                    Thread t = new Thread(r, "feed-auto-batcher");
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    void onFlushed(BiConsumer<String, List<FeedService.FeedItemDto>> sink) {
+        this.sink = sink;
+    }
+
+    void enqueue(String courseId, String message) {
+        Instant now = Instant.now();
+        FeedService.FeedItemDto item = new FeedService.FeedItemDto(
+                Ids.newId(),
+                courseId,
+                FeedItemType.AUTO,
+                message,
+                now,
+                now,
+                false
+        );
+
+        Batch ready = null;
+        synchronized (pending) {
+            Batch batch = pending.computeIfAbsent(courseId, k -> new Batch());
+            batch.items.add(item);
+            if (batch.items.size() >= maxBatch) {
+                pending.remove(courseId);
+                if (batch.timer != null) batch.timer.cancel(false);
+                ready = batch;
+            } else if (batch.timer == null) {
+                try {
+                    batch.timer = flusher.schedule(() -> flushExpired(courseId, batch), windowMillis, TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException e) {
+                    // shutdown už proběhl – zapíšeme hned
+                    pending.remove(courseId);
+                    ready = batch;
+                }
+            }
+        }
+        if (ready == null) return;
+
+        List<FeedService.FeedItemDto> items = ready.items;
+        try {
+            flusher.execute(() -> flush(courseId, items));
+        } catch (RejectedExecutionException e) {
+            flush(courseId, items);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+        Map<String, Batch> left;
+        synchronized (pending) {
+            left = new HashMap<>(pending);
+            pending.clear();
+        }
+        left.forEach((courseId, batch) -> flush(courseId, batch.items));
+    }
+
+    /** Okno dávky uplynulo; dávka už mohla odejít kvůli velikosti. */
+    private void flushExpired(String courseId, Batch batch) {
+        synchronized (pending) {
+            if (!pending.remove(courseId, batch)) return;
+        }
+        flush(courseId, batch.items);
+    }
+
+    private void flush(String courseId, List<FeedService.FeedItemDto> batch) {
+        if (batch.isEmpty()) return;
+
+        try {
+            jdbc.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    FeedService.FeedItemDto it = batch.get(i);
+                    ps.setString(1, it.id());
+                    ps.setString(2, it.courseId());
+                    ps.setString(3, it.type().name());
+                    ps.setString(4, it.message());
+                    ps.setTimestamp(5, Timestamp.from(it.createdAt()));
+                    ps.setTimestamp(6, Timestamp.from(it.updatedAt()));
+                    ps.setBoolean(7, it.edited());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return batch.size();
+                }
+            });
+        } catch (Exception e) {
+            System.err.println("WARN: Zápis automatických událostí feedu selhal (" + batch.size() + "): " + e.getMessage());
+            return;
+        }
+
+        try {
+            sink.accept(courseId, List.copyOf(batch));
+        } catch (Exception e) {
+            System.err.println("WARN: Rozeslání automatických událostí selhalo: " + e.getMessage());
+        }
+    }
+}
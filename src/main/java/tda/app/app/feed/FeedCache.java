@@ -0,0 +1,212 @@
+package tda.app.app.feed;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Paměťová cache nejnovějších položek feedu (per kurz).
+ *
+ * Pro každý kurz drží "okno" nejnovějších N položek (seřazeno od nejnovější).
+ * Okno je vždy prefixem dat v DB – zápisy (create/update/delete) ho udržují aktuální,
+ * takže čtení nemusí chodit do H2. Kurzy se vyhazují podle LRU, jakmile odhad
+ * obsazené paměti překročí rozpočet.
+ *
+ * Celý feed ({@link #getAll}) cache obslouží jen u kurzů, které se do okna vejdou –
+ * delší feed jde vždy do DB (a počítá se jako miss). Pro takové kurzy je cachovaná
+ * cesta jen {@link #getRecent} (GET /feed?limit=, stránka kurzu).
+ */
+public class FeedCache {
+
+    public record Stats(
+            long hits,
+            long misses,
+            long evictions,
+            double hitRatio,
+            int courses,
+            long bytes,
+            long maxBytes,
+            int window
+    ) {}
+
+    private static final class Window {
+        final List<FeedService.FeedItemDto> items; // newest first
+        boolean complete; // true = okno obsahuje všechny položky kurzu
+        long bytes;
+
+        Window(List<FeedService.FeedItemDto> items, boolean complete) {
+            this.items = items;
+            this.complete = complete;
+        }
+    }
+
+    private final int windowSize;
+    private final long maxBytes;
+
+    // access-order = LRU
+    private final LinkedHashMap<String, Window> byCourse = new LinkedHashMap<>(16, 0.75f, true);
+    // courseId -> číslo zápisu; chrání před uložením okna načteného před souběžným zápisem
+    private final Map<String, Long> generations = new HashMap<>();
+    private long totalBytes;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public FeedCache(int windowSize, long maxBytes) {
+        this.windowSize = Math.max(1, windowSize);
+        this.maxBytes = Math.max(0, maxBytes);
+    }
+
+    public int windowSize() {
+        return windowSize;
+    }
+
+    /** Celý feed kurzu, pokud se vejde do okna; jinak null (miss) – i když je okno načtené. */
+    public synchronized List<FeedService.FeedItemDto> getAll(String courseId) {
+        Window w = byCourse.get(courseId);
+        if (w == null || !w.complete) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return List.copyOf(w.items);
+    }
+
+    /** Nejnovějších {@code limit} položek, pokud je okno pokrývá; jinak null (miss). */
+    public synchronized List<FeedService.FeedItemDto> getRecent(String courseId, int limit) {
+        Window w = byCourse.get(courseId);
+        if (w == null || (!w.complete && w.items.size() < limit)) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return List.copyOf(w.items.subList(0, Math.min(limit, w.items.size())));
+    }
+
+    /** Aktuální číslo zápisu kurzu – volat před čtením z DB a předat do {@link #put}. */
+    public synchronized long generation(String courseId) {
+        return generations.getOrDefault(courseId, 0L);
+    }
+
+    /**
+     * Uloží okno načtené z DB. {@code loaded} je seřazené od nejnovější a může mít
+     * o jednu položku víc než okno (tím se pozná, že kurz má víc položek).
+     */
+    public synchronized void put(String courseId, List<FeedService.FeedItemDto> loaded, long generation) {
+        if (generation != generations.getOrDefault(courseId, 0L)) return; // mezitím proběhl zápis
+
+        boolean complete = loaded.size() <= windowSize;
+        List<FeedService.FeedItemDto> items = new ArrayList<>(loaded.subList(0, Math.min(windowSize, loaded.size())));
+
+        remove(courseId);
+        Window w = new Window(items, complete);
+        for (FeedService.FeedItemDto dto : items) w.bytes += estimateBytes(dto);
+        byCourse.put(courseId, w);
+        totalBytes += w.bytes;
+        evictOverBudget(courseId);
+    }
+
+    public synchronized void onCreated(String courseId, FeedService.FeedItemDto dto) {
+        bump(courseId);
+        Window w = byCourse.get(courseId);
+        if (w == null) return;
+
+        // okno načtené z DB souběžně se zápisem už položku může mít (put před onCreated)
+        for (FeedService.FeedItemDto it : w.items) {
+            if (Objects.equals(it.id(), dto.id())) return;
+        }
+
+        // nové položky mají nejnovější createdAt -> typicky index 0
+        int idx = 0;
+        while (idx < w.items.size() && w.items.get(idx).createdAt().isAfter(dto.createdAt())) idx++;
+        w.items.add(idx, dto);
+        long delta = estimateBytes(dto);
+
+        if (w.items.size() > windowSize) {
+            delta -= estimateBytes(w.items.remove(w.items.size() - 1));
+            w.complete = false;
+        }
+        w.bytes += delta;
+        totalBytes += delta;
+        evictOverBudget(courseId);
+    }
+
+    public synchronized void onUpdated(String courseId, FeedService.FeedItemDto dto) {
+        bump(courseId);
+        Window w = byCourse.get(courseId);
+        if (w == null) return;
+
+        for (int i = 0; i < w.items.size(); i++) {
+            if (Objects.equals(w.items.get(i).id(), dto.id())) {
+                long delta = estimateBytes(dto) - estimateBytes(w.items.get(i));
+                w.items.set(i, dto);
+                w.bytes += delta;
+                totalBytes += delta;
+                break;
+            }
+        }
+    }
+
+    public synchronized void onDeleted(String courseId, String id) {
+        bump(courseId);
+        Window w = byCourse.get(courseId);
+        if (w == null) return;
+
+        // odebráním z prefixu zůstává okno prefixem (jen kratším)
+        Iterator<FeedService.FeedItemDto> it = w.items.iterator();
+        while (it.hasNext()) {
+            FeedService.FeedItemDto dto = it.next();
+            if (Objects.equals(dto.id(), id)) {
+                long size = estimateBytes(dto);
+                it.remove();
+                w.bytes -= size;
+                totalBytes -= size;
+                break;
+            }
+        }
+    }
+
+    public synchronized void invalidate(String courseId) {
+        bump(courseId);
+        remove(courseId);
+    }
+
+    public synchronized Stats stats() {
+        long total = hits + misses;
+        double ratio = total == 0 ? 0.0 : (double) hits / total;
+        return new Stats(hits, misses, evictions, ratio, byCourse.size(), totalBytes, maxBytes, windowSize);
+    }
+
+    // --------------- helpers ---------------
+
+    private void bump(String courseId) {
+        generations.merge(courseId, 1L, Long::sum);
+    }
+
+    private void remove(String courseId) {
+        Window old = byCourse.remove(courseId);
+        if (old != null) totalBytes -= old.bytes;
+    }
+
+    private void evictOverBudget(String keep) {
+        Iterator<Map.Entry<String, Window>> it = byCourse.entrySet().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, Window> eldest = it.next();
+            if (eldest.getKey().equals(keep)) continue; // právě použitý kurz nevyhazujeme
+            totalBytes -= eldest.getValue().bytes;
+            it.remove();
+            evictions++;
+        }
+    }
+
+    // hrubý odhad: hlavička objektů + UUID stringy + zpráva (UTF-16)
+    private static long estimateBytes(FeedService.FeedItemDto dto) {
+        int msg = dto.message() == null ? 0 : dto.message().length();
+        return 256L + 2L * msg;
+    }
+}
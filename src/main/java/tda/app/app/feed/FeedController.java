@@ -22,7 +22,11 @@ public class FeedController {
     }
 
     @GetMapping
-    public List<FeedService.FeedItemDto> list(@PathVariable String courseId) {
+    public List<FeedService.FeedItemDto> list(
+            @PathVariable String courseId,
+            @RequestParam(name = "limit", required = false) Integer limit
+    ) {
+        if (limit != null) return feed.listRecent(courseId, limit);
         return feed.list(courseId);
     }
 
@@ -0,0 +1,44 @@
+package tda.app.app.feed;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Událost feedu, která se rozesílá přes {@link FeedEventBus} všem instancím aplikace.
+ *
+ * type: "new" | "update" (item je vyplněný), "delete" (id je vyplněné)
+ * nebo "batch" (items = sloučené automatické události, od nejstarší).
+ */
+public record FeedEvent(
+        String courseId,
+        String type,
+        FeedService.FeedItemDto item,
+        String id,
+        List<FeedService.FeedItemDto> items
+) {
+
+    public static FeedEvent created(FeedService.FeedItemDto item) {
+        return new FeedEvent(item.courseId(), "new", item, item.id(), null);
+    }
+
+    public static FeedEvent updated(FeedService.FeedItemDto item) {
+        return new FeedEvent(item.courseId(), "update", item, item.id(), null);
+    }
+
+    public static FeedEvent deleted(String courseId, String id) {
+        return new FeedEvent(courseId, "delete", null, id, null);
+    }
+
+    public static FeedEvent batch(String courseId, List<FeedService.FeedItemDto> items) {
+        return new FeedEvent(courseId, "batch", null, null, items);
+    }
+
+    /** Tvar, který dostávají SSE klienti (new/update/delete beze změny oproti dřívějšímu formátu). */
+    public Map<String, Object> toPayload() {
+        return switch (type) {
+            case "delete" -> Map.of("type", type, "id", id);
+            case "batch" -> Map.of("type", type, "items", items);
+            default -> Map.of("type", type, "item", item);
+        };
+    }
+}
@@ -0,0 +1,26 @@
+package tda.app.app.feed;
+
+/**
+ * Rozesílání událostí feedu mezi instancemi aplikace.
+ *
+ * FeedService sem publikuje každou změnu a zároveň je jediným posluchačem –
+ * teprve při doručení posílá událost svým SSE klientům. Implementace musí
+ * zachovat pořadí událostí v rámci jednoho kurzu.
+ *
+ * Volba implementace: app.feed.bus=local (výchozí) | jdbc
+ */
+public interface FeedEventBus {
+
+    void publish(FeedEvent event);
+
+    void subscribe(Listener listener);
+
+    @FunctionalInterface
+    interface Listener {
+        /**
+         * @param local true, pokud událost vznikla v této instanci
+         *              (lokální cache už je aktuální z cesty zápisu)
+         */
+        void onEvent(FeedEvent event, boolean local);
+    }
+}
@@ -5,7 +5,7 @@ import jakarta.persistence.*;
 import java.time.Instant;
 
 @Entity
-@Table(name = "course_feed")
+@Table(name = "course_feed", indexes = @Index(name = "idx_course_feed_course_created", columnList = "courseId, createdAt"))
 public class FeedItemEntity {
 
     @Id
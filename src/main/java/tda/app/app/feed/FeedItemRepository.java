@@ -1,9 +1,34 @@
 package tda.app.app.feed;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.List;
 
 public interface FeedItemRepository extends JpaRepository<FeedItemEntity, String> {
     List<FeedItemEntity> findByCourseIdOrderByCreatedAtDesc(String courseId);
+
+    List<FeedItemEntity> findByCourseIdOrderByCreatedAtDesc(String courseId, Pageable pageable);
+
+    // časová osa kurzu – keyset podle (createdAt, id), nejnovější první
+    List<FeedItemEntity> findByCourseIdOrderByCreatedAtDescIdDesc(String courseId, Pageable limit);
+
+    @Query("""
+            select f from FeedItemEntity f
+            where f.courseId = :courseId
+              and (f.createdAt < :createdAt or (f.createdAt = :createdAt and f.id < :id))
+            order by f.createdAt desc, f.id desc""")
+    List<FeedItemEntity> findPageBefore(
+            @Param("courseId") String courseId,
+            @Param("createdAt") Instant createdAt,
+            @Param("id") String id,
+            Pageable limit
+    );
+
+    // [courseId, count]
+    @Query("select f.courseId, count(f) from FeedItemEntity f group by f.courseId")
+    List<Object[]> countByCourse();
 }
@@ -1,19 +1,33 @@
 package tda.app.app.feed;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tda.app.app.CourseChangeEvent;
+import tda.app.app.CourseRepository;
+import tda.app.app.jfr.FeedBroadcastEvent;
+import tda.app.app.id.Ids;
 
 import java.time.Instant;
-import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
-import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class FeedService {
@@ -30,25 +44,117 @@ public class FeedService {
 
     private final FeedItemRepository repo;
 
+    // newest N items per course, kept current by the write paths below
+    private final FeedCache cache;
+
     // active SSE connections per course
-    private final Map<String, Set<SseEmitter>> emittersByCourse = new ConcurrentHashMap<>();
+    private final SseSubscribers subscribers;
+
+    // changes are routed through the bus so that every instance can notify its SSE clients
+    private final FeedEventBus bus;
+
+    // auto events are coalesced per course and written with JDBC batches
+    private final AutoEventBatcher autoEvents;
+
+    private final ApplicationEventPublisher events;
 
-    public FeedService(FeedItemRepository repo) {
+    private final CourseRepository courses;
+    private final MeterRegistry registry;
+    private final Timer broadcastTimer;
+    // gauge odběratelů jen pro existující kurzy s aspoň jedním odběratelem –
+    // courseId z URL není ověřené, jinak by počet metrik rostl bez omezení
+    private final Map<String, Gauge> courseGauges = new ConcurrentHashMap<>();
+
+    public FeedService(
+            FeedItemRepository repo,
+            CourseRepository courses,
+            FeedEventBus bus,
+            AutoEventBatcher autoEvents,
+            ApplicationEventPublisher events,
+            MeterRegistry registry,
+            @Value("${app.feed.cache.window:200}") int cacheWindow,
+            @Value("${app.feed.cache.max-bytes:16777216}") long cacheMaxBytes,
+            @Value("${app.feed.sse.max-subscribers:50000}") int maxSubscribers,
+            @Value("${app.feed.sse.lanes:4}") int sseLanes,
+            @Value("${app.feed.sse.heartbeat-millis:25000}") long heartbeatMillis,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+    ) {
         this.repo = repo;
+        this.courses = courses;
+        this.bus = bus;
+        this.autoEvents = autoEvents;
+        this.events = events;
+        this.registry = registry;
+        this.broadcastTimer = Timer.builder("app.feed.broadcast")
+                .description("Serializace a předání události SSE odběratelům kurzu")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.cache = new FeedCache(cacheWindow, cacheMaxBytes);
+        this.subscribers = new SseSubscribers(maxSubscribers, sseLanes, heartbeatMillis, virtualThreads);
+        bus.subscribe(this::onBusEvent);
+        autoEvents.onFlushed(this::onAutoEventsPersisted);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.shutdown();
     }
 
     public List<FeedItemDto> list(String courseId) {
-        return repo.findByCourseIdOrderByCreatedAtDesc(courseId)
+        List<FeedItemDto> cached = cache.getAll(courseId);
+        if (cached != null) return cached;
+
+        long gen = cache.generation(courseId);
+        List<FeedItemDto> all = repo.findByCourseIdOrderByCreatedAtDesc(courseId)
                 .stream()
                 .map(this::toDto)
                 .toList();
+        cache.put(courseId, all, gen);
+        return all;
+    }
+
+    public List<FeedItemDto> listRecent(String courseId, int limit) {
+        int n = Math.max(1, limit);
+        List<FeedItemDto> cached = cache.getRecent(courseId, n);
+        if (cached != null) return cached;
+
+        // načteme celé okno (+1 = poznáme, zda je kompletní), ať další čtení trefí cache
+        long gen = cache.generation(courseId);
+        int fetch = Math.max(n, cache.windowSize()) + 1;
+        List<FeedItemDto> loaded = repo.findByCourseIdOrderByCreatedAtDesc(courseId, PageRequest.of(0, fetch))
+                .stream()
+                .map(this::toDto)
+                .toList();
+        cache.put(courseId, loaded, gen);
+        return loaded.subList(0, Math.min(n, loaded.size()));
+    }
+
+    /** Počet položek feedu po kurzech (jeden GROUP BY dotaz). */
+    public Map<String, Long> countsByCourse() {
+        Map<String, Long> out = new HashMap<>();
+        for (Object[] row : repo.countByCourse()) {
+            out.put((String) row[0], ((Number) row[1]).longValue());
+        }
+        return out;
+    }
+
+    public FeedCache.Stats cacheStats() {
+        return cache.stats();
     }
 
     public SseEmitter subscribe(String courseId) {
         // 0L = no timeout; keep it simple for TdA local testing
         SseEmitter emitter = new SseEmitter(0L);
 
-        emittersByCourse.computeIfAbsent(courseId, k -> new CopyOnWriteArraySet<>()).add(emitter);
+        if (!subscribers.add(courseId, emitter)) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Příliš mnoho připojení, zkuste to později.");
+        }
+        if (!courseGauges.containsKey(courseId) && courses.existsById(courseId)) {
+            courseGauges.computeIfAbsent(courseId, id ->
+                    Gauge.builder("app.sse.subscribers.course", subscribers, s -> s.count(id))
+                            .tags(Tags.of("course", id))
+                            .register(registry));
+        }
 
         emitter.onCompletion(() -> cleanup(courseId, emitter));
         emitter.onTimeout(() -> cleanup(courseId, emitter));
@@ -67,14 +173,22 @@ public class FeedService {
     }
 
     private void cleanup(String courseId, SseEmitter emitter) {
-        try {
-            Set<SseEmitter> set = emittersByCourse.get(courseId);
-            if (set != null) {
-                set.remove(emitter);
-                if (set.isEmpty()) emittersByCourse.remove(courseId);
-            }
-        } catch (Exception ignored) {
-        }
+        subscribers.remove(courseId, emitter);
+        // poslední odběratel odešel (i po smazání kurzu) -> gauge zrušit;
+        // kontrola uvnitř compute, aby souběžný subscribe o gauge nepřišel
+        courseGauges.computeIfPresent(courseId, (id, gauge) -> {
+            if (subscribers.count(id) > 0) return gauge;
+            registry.remove(gauge);
+            return null;
+        });
+    }
+
+    public int subscriberCount() {
+        return subscribers.count();
+    }
+
+    public Map<String, Integer> subscriberCountsByCourse() {
+        return subscribers.countsByCourse();
     }
 
     @Transactional
@@ -89,7 +203,7 @@ public class FeedService {
 
         Instant now = Instant.now();
         FeedItemEntity e = new FeedItemEntity(
-                UUID.randomUUID().toString(),
+                Ids.newId(),
                 courseId,
                 FeedItemType.POST,
                 msg,
@@ -100,31 +214,28 @@ public class FeedService {
         repo.save(e);
 
         FeedItemDto dto = toDto(e);
-        broadcast(courseId, dto);
+        afterCommit(() -> {
+            cache.onCreated(courseId, dto);
+            bus.publish(FeedEvent.created(dto));
+        });
         return dto;
     }
 
-    @Transactional
-    public FeedItemDto createAutoEvent(String courseId, String message) {
+    /**
+     * Automaticky generovaná událost (materiál, odkaz, kvíz). Nečeká se na zápis –
+     * události se per kurz slučují a zapisují dávkově (viz {@link AutoEventBatcher}).
+     */
+    public void createAutoEvent(String courseId, String message) {
         String msg = (message == null) ? "" : message.trim();
-        if (msg.isBlank()) return null;
+        if (msg.isBlank()) return;
         if (msg.length() > 4000) msg = msg.substring(0, 4000);
 
-        Instant now = Instant.now();
-        FeedItemEntity e = new FeedItemEntity(
-                UUID.randomUUID().toString(),
-                courseId,
-                FeedItemType.AUTO,
-                msg,
-                now,
-                now,
-                false
-        );
-        repo.save(e);
+        autoEvents.enqueue(courseId, msg);
+    }
 
-        FeedItemDto dto = toDto(e);
-        broadcast(courseId, dto);
-        return dto;
+    private void onAutoEventsPersisted(String courseId, List<FeedItemDto> items) {
+        for (FeedItemDto dto : items) cache.onCreated(courseId, dto);
+        bus.publish(FeedEvent.batch(courseId, items));
     }
 
     @Transactional
@@ -148,10 +259,10 @@ public class FeedService {
         repo.save(e);
 
         FeedItemDto dto = toDto(e);
-        broadcast(courseId, Map.of(
-                "type", "update",
-                "item", dto
-        ));
+        afterCommit(() -> {
+            cache.onUpdated(courseId, dto);
+            bus.publish(FeedEvent.updated(dto));
+        });
         return dto;
     }
 
@@ -165,10 +276,25 @@ public class FeedService {
             throw new IllegalArgumentException("Automatické události nelze mazat.");
         }
         repo.deleteById(id);
-        broadcast(courseId, Map.of(
-                "type", "delete",
-                "id", id
-        ));
+        afterCommit(() -> {
+            cache.onDeleted(courseId, id);
+            bus.publish(FeedEvent.deleted(courseId, id));
+        });
+    }
+
+    // Cache a SSE klienty aktualizujeme až po commitu – klient, který si po eventu
+    // znovu načte feed, tak vždy uvidí zapsaná data (a rollback nic nerozbije).
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 
     private FeedItemDto toDto(FeedItemEntity e) {
@@ -183,29 +309,39 @@ public class FeedService {
         );
     }
 
-    private void broadcast(String courseId, FeedItemDto dto) {
-        broadcast(courseId, Map.of(
-                "type", "new",
-                "item", dto
-        ));
+    private void onBusEvent(FeedEvent event, boolean local) {
+        // změny z jiných instancí musíme promítnout i do lokální cache
+        if (!local) {
+            switch (event.type()) {
+                case "new" -> cache.onCreated(event.courseId(), event.item());
+                case "update" -> cache.onUpdated(event.courseId(), event.item());
+                case "delete" -> cache.onDeleted(event.courseId(), event.id());
+                case "batch" -> event.items().forEach(it -> cache.onCreated(event.courseId(), it));
+                default -> cache.invalidate(event.courseId());
+            }
+        }
+        broadcast(event.courseId(), event.toPayload());
+
+        CourseChangeEvent.Action action = switch (event.type()) {
+            case "update" -> CourseChangeEvent.Action.UPDATED;
+            case "delete" -> CourseChangeEvent.Action.DELETED;
+            default -> CourseChangeEvent.Action.CREATED;
+        };
+        events.publishEvent(new CourseChangeEvent(event.courseId(), CourseChangeEvent.Kind.FEED, action, event.id(), event, !local));
     }
 
     private void broadcast(String courseId, Object payload) {
-        Set<SseEmitter> set = emittersByCourse.get(courseId);
-        if (set == null || set.isEmpty()) return;
-
-        List<SseEmitter> dead = new ArrayList<>();
-        for (SseEmitter emitter : set) {
-            try {
-                emitter.send(SseEmitter.event()
-                        .name("feed")
-                        .data(payload, MediaType.APPLICATION_JSON));
-            } catch (Exception e) {
-                dead.add(emitter);
-            }
-        }
-        for (SseEmitter d : dead) {
-            cleanup(courseId, d);
+        FeedBroadcastEvent event = new FeedBroadcastEvent();
+        event.begin();
+        long start = System.nanoTime();
+        int bytes = subscribers.broadcast(courseId, "feed", payload);
+        broadcastTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        event.end();
+        if (event.shouldCommit()) {
+            event.courseId = courseId;
+            event.subscribers = subscribers.count(courseId);
+            event.bytes = bytes;
+            event.commit();
         }
     }
 }
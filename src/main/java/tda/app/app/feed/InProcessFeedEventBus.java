@@ -0,0 +1,33 @@
+package tda.app.app.feed;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Výchozí bus pro jednu instanci – doručuje synchronně ve vlákně, které publikuje.
+ */
+@Component
+@ConditionalOnProperty(name = "app.feed.bus", havingValue = "local", matchIfMissing = true)
+public class InProcessFeedEventBus implements FeedEventBus {
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(FeedEvent event) {
+        for (Listener l : listeners) {
+            try {
+                l.onEvent(event, true);
+            } catch (Exception e) {
+                System.err.println("WARN: Feed listener selhal: " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+}
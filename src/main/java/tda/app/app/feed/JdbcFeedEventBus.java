@@ -0,0 +1,238 @@
+package tda.app.app.feed;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import tda.app.app.id.Ids;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bus pro více instancí za load balancerem.
+ *
+ * Události se zapisují do outbox tabulky ve sdílené DB (feed_outbox) a každá instance
+ * ji periodicky čte podle rostoucího seq. Doručení probíhá výhradně z outboxu
+ * (i pro vlastní události), takže všechny instance vidí události kurzu ve stejném pořadí.
+ * Zápis i čtení běží v jednom vlákně busu – publikující request na DB nečeká.
+ *
+ * Díra v seq (insert jiné instance commitnutý později než vyšší seq) se čeká GAP_GRACE_MILLIS;
+ * pak se přeskočí, ale její seq se ještě LATE_MILLIS dohledávají a pozdě commitnutá událost
+ * se doručí mimo pořadí – raději pozdě než vůbec. Seq, které se neobjeví (rollback), vypadnou.
+ *
+ * Pozn.: file H2 (jdbc:h2:file:...) otevře jen jeden proces; pro víc instancí je potřeba
+ * sdílená DB, např. H2 v server módu (jdbc:h2:tcp://...).
+ */
+@Component
+@ConditionalOnProperty(name = "app.feed.bus", havingValue = "jdbc")
+public class JdbcFeedEventBus implements FeedEventBus {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private static final int POLL_BATCH = 500;
+    // jak dlouho čekáme na "díru" v seq (insert jiné instance, který ještě není commitnutý)
+    private static final long GAP_GRACE_MILLIS = 1000;
+    // jak dlouho ještě dohledáváme přeskočené seq a kolik jich nejvýš držíme
+    private static final long LATE_MILLIS = 30_000;
+    private static final int MAX_SKIPPED = 1000;
+
+    private record Row(long seq, String origin, String payload) {}
+
+    private final JdbcTemplate jdbc;
+    private final long pollMillis;
+    private final long retentionMillis;
+    private final String instanceId = Ids.newId();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private final ScheduledExecutorService worker;
+
+    // stav čtení – mění ho jen vlákno workeru
+    private long lastSeq;
+    private long gapSeenAt = -1;
+    private long lastCleanup;
+    // přeskočený seq -> kdy jsme ho přeskočili
+    private final TreeMap<Long, Long> skipped = new TreeMap<>();
+
+    public JdbcFeedEventBus(
+            DataSource dataSource,
+            @Value("${app.feed.bus.poll-millis:250}") long pollMillis,
+            @Value("${app.feed.bus.retention-millis:600000}") long retentionMillis,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+    ) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.pollMillis = Math.max(10, pollMillis);
+        this.retentionMillis = retentionMillis;
+        this.worker = Executors.newSingleThreadScheduledExecutor(virtualThreads
+                ? Thread.ofVirtual().name("feed-bus-jdbc").factory()
+                : r -> {
+                    Thread t = new Thread(r, "feed-bus-jdbc");
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    @PostConstruct
+    public void start() {
+        jdbc.execute("""
+                CREATE TABLE IF NOT EXISTS feed_outbox (
+                    seq BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    origin VARCHAR(36) NOT NULL,
+                    course_id VARCHAR(255) NOT NULL,
+                    payload CLOB NOT NULL,
+                    created_at TIMESTAMP NOT NULL
+                )""");
+        jdbc.execute("CREATE INDEX IF NOT EXISTS idx_feed_outbox_created ON feed_outbox(created_at)");
+
+        // nová instance začíná od aktuálního konce – starší události už klienti mají
+        Long max = jdbc.queryForObject("SELECT COALESCE(MAX(seq), 0) FROM feed_outbox", Long.class);
+        lastSeq = (max == null) ? 0 : max;
+
+        worker.scheduleWithFixedDelay(this::pollSafely, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        worker.shutdown();
+        try {
+            worker.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void publish(FeedEvent event) {
+        String json;
+        try {
+            json = MAPPER.writeValueAsString(event);
+        } catch (Exception e) {
+            System.err.println("WARN: Nelze serializovat událost feedu: " + e.getMessage());
+            return;
+        }
+
+        try {
+            worker.execute(() -> {
+                try {
+                    jdbc.update(
+                            "INSERT INTO feed_outbox (origin, course_id, payload, created_at) VALUES (?, ?, ?, ?)",
+                            instanceId, event.courseId(), json, Timestamp.from(Instant.now())
+                    );
+                } catch (Exception e) {
+                    System.err.println("WARN: Zápis do feed_outbox selhal: " + e.getMessage());
+                    return;
+                }
+                // vlastní událost doručíme hned, ne až při dalším ticku
+                pollSafely();
+            });
+        } catch (RejectedExecutionException ignored) {
+            // probíhá shutdown
+        }
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    private void pollSafely() {
+        try {
+            poll();
+            cleanup();
+        } catch (Exception e) {
+            System.err.println("WARN: Čtení feed_outbox selhalo: " + e.getMessage());
+        }
+    }
+
+    private void poll() {
+        pollSkipped();
+
+        List<Row> rows = jdbc.query(
+                "SELECT seq, origin, payload FROM feed_outbox WHERE seq > ? ORDER BY seq LIMIT " + POLL_BATCH,
+                (rs, n) -> new Row(rs.getLong(1), rs.getString(2), rs.getString(3)),
+                lastSeq
+        );
+
+        for (Row row : rows) {
+            if (row.seq() != lastSeq + 1) {
+                long now = System.currentTimeMillis();
+                if (gapSeenAt < 0) gapSeenAt = now;
+                if (now - gapSeenAt < GAP_GRACE_MILLIS) return; // zkusíme znovu v dalším ticku
+                skip(lastSeq + 1, row.seq() - 1, now);
+            }
+            gapSeenAt = -1;
+            lastSeq = row.seq();
+            deliver(row);
+        }
+    }
+
+    private void skip(long from, long to, long now) {
+        for (long seq = from; seq <= to; seq++) {
+            if (skipped.size() >= MAX_SKIPPED) {
+                System.err.println("WARN: feed_outbox: příliš mnoho přeskočených seq, " + seq + "–" + to + " se nedohledají");
+                return;
+            }
+            skipped.put(seq, now);
+        }
+    }
+
+    /** Dohledá přeskočené seq, které mezitím jiná instance commitnula. */
+    private void pollSkipped() {
+        if (skipped.isEmpty()) return;
+        long now = System.currentTimeMillis();
+        skipped.values().removeIf(at -> now - at > LATE_MILLIS);
+        if (skipped.isEmpty()) return;
+
+        List<Row> late = jdbc.query(
+                "SELECT seq, origin, payload FROM feed_outbox WHERE seq IN ("
+                        + String.join(",", Collections.nCopies(skipped.size(), "?")) + ") ORDER BY seq",
+                (rs, n) -> new Row(rs.getLong(1), rs.getString(2), rs.getString(3)),
+                skipped.keySet().toArray()
+        );
+        for (Row row : late) {
+            skipped.remove(row.seq());
+            deliver(row);
+        }
+    }
+
+    private void deliver(Row row) {
+        FeedEvent event;
+        try {
+            event = MAPPER.readValue(row.payload(), FeedEvent.class);
+        } catch (Exception e) {
+            System.err.println("WARN: Neplatná událost v feed_outbox (seq " + row.seq() + "): " + e.getMessage());
+            return;
+        }
+
+        boolean local = instanceId.equals(row.origin());
+        for (Listener l : listeners) {
+            try {
+                l.onEvent(event, local);
+            } catch (Exception e) {
+                System.err.println("WARN: Feed listener selhal: " + e.getMessage());
+            }
+        }
+    }
+
+    private void cleanup() {
+        long now = System.currentTimeMillis();
+        if (now - lastCleanup < retentionMillis / 10) return;
+        lastCleanup = now;
+        jdbc.update("DELETE FROM feed_outbox WHERE created_at < ?", Timestamp.from(Instant.ofEpochMilli(now - retentionMillis)));
+    }
+}
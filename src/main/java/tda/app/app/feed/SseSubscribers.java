@@ -0,0 +1,187 @@
+package tda.app.app.feed;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tda.app.app.jfr.SseFanoutEvent;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registr SSE odběratelů feedu (per kurz).
+ *
+ * - přidání/odebrání je O(1) (concurrent key set místo CopyOnWriteArraySet,
+ *   který při každém připojení kopíroval celé pole)
+ * - payload se serializuje jednou a stejný rámec se pošle všem odběratelům
+ * - rozesílání běží mimo vlákno zápisu; kurz je vždy obsluhován stejným "lane"
+ *   vláknem, takže pořadí událostí v kurzu zůstává zachované
+ * - heartbeat pravidelně odhalí mrtvá spojení (jinak by s timeoutem 0 visela navždy)
+ * - celkový počet odběratelů je omezený – drží paměť v pevném rozpočtu
+ * - s virtuálními vlákny (spring.threads.virtual.enabled) jsou lanes virtuální: pomalý
+ *   klient blokující zápis do socketu nedrží nosné vlákno
+ */
+class SseSubscribers {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final Map<String, Set<SseEmitter>> byCourse = new ConcurrentHashMap<>();
+    private final AtomicInteger total = new AtomicInteger();
+    private final int maxSubscribers;
+
+    private final ExecutorService[] lanes;
+    private final ScheduledExecutorService heartbeat;
+
+    SseSubscribers(int maxSubscribers, int laneCount, long heartbeatMillis, boolean virtualThreads) {
+        this.maxSubscribers = maxSubscribers;
+        this.lanes = new ExecutorService[Math.max(1, laneCount)];
+        for (int i = 0; i < lanes.length; i++) {
+            String name = "feed-sse-" + i;
+            lanes[i] = Executors.newSingleThreadExecutor(virtualThreads
+                    ? Thread.ofVirtual().name(name).factory()
+                    : r -> daemon(r, name));
+        }
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(r -> daemon(r, "feed-sse-heartbeat"));
+        if (heartbeatMillis > 0) {
+            heartbeat.scheduleWithFixedDelay(this::ping, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** @return false, pokud je dosažený limit odběratelů */
+    boolean add(String courseId, SseEmitter emitter) {
+        if (total.incrementAndGet() > maxSubscribers) {
+            total.decrementAndGet();
+            return false;
+        }
+        byCourse.compute(courseId, (k, set) -> {
+            Set<SseEmitter> s = (set == null) ? ConcurrentHashMap.newKeySet() : set;
+            s.add(emitter);
+            return s;
+        });
+        return true;
+    }
+
+    void remove(String courseId, SseEmitter emitter) {
+        // volá se z onCompletion/onTimeout/onError i z neúspěšného send -> musí být idempotentní
+        byCourse.computeIfPresent(courseId, (k, set) -> {
+            if (set.remove(emitter)) total.decrementAndGet();
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    /** @return délka serializovaného payloadu (0 = nikdo neodebírá nebo chyba) */
+    int broadcast(String courseId, String eventName, Object payload) {
+        Set<SseEmitter> set = byCourse.get(courseId);
+        if (set == null || set.isEmpty()) return 0;
+
+        Set<ResponseBodyEmitter.DataWithMediaType> frame;
+        String data;
+        try {
+            data = encode(payload);
+            frame = frame(eventName, data);
+        } catch (Exception e) {
+            System.err.println("WARN: Nelze serializovat SSE událost: " + e.getMessage());
+            return 0;
+        }
+        submit(courseId, () -> sendAll(courseId, frame, data.length()));
+        return data.length();
+    }
+
+    static String encode(Object payload) throws JsonProcessingException {
+        return MAPPER.writeValueAsString(payload);
+    }
+
+    static Set<ResponseBodyEmitter.DataWithMediaType> frame(String eventName, String data) {
+        return SseEmitter.event()
+                .name(eventName)
+                .data(data)
+                .build();
+    }
+
+    int count() {
+        return total.get();
+    }
+
+    int count(String courseId) {
+        Set<SseEmitter> set = byCourse.get(courseId);
+        return set == null ? 0 : set.size();
+    }
+
+    Map<String, Integer> countsByCourse() {
+        Map<String, Integer> out = new HashMap<>();
+        byCourse.forEach((courseId, set) -> out.put(courseId, set.size()));
+        return out;
+    }
+
+    void shutdown() {
+        heartbeat.shutdownNow();
+        for (ExecutorService lane : lanes) lane.shutdown();
+    }
+
+    // --------------- helpers ---------------
+
+    private void sendAll(String courseId, Set<ResponseBodyEmitter.DataWithMediaType> frame, int bytes) {
+        Set<SseEmitter> set = byCourse.get(courseId);
+        if (set == null) return;
+
+        SseFanoutEvent event = new SseFanoutEvent();
+        boolean timed = event.isEnabled();
+        event.begin();
+        int recipients = 0;
+        int failed = 0;
+        long slowest = 0;
+        for (SseEmitter emitter : set) {
+            long t0 = timed ? System.nanoTime() : 0;
+            recipients++;
+            try {
+                emitter.send(frame);
+            } catch (Exception e) {
+                failed++;
+                remove(courseId, emitter);
+            }
+            if (timed) slowest = Math.max(slowest, System.nanoTime() - t0);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.courseId = courseId;
+            event.recipients = recipients;
+            event.failed = failed;
+            event.bytes = bytes;
+            event.slowestSend = slowest;
+            event.commit();
+        }
+    }
+
+    private void ping() {
+        Set<ResponseBodyEmitter.DataWithMediaType> frame = SseEmitter.event().comment("ping").build();
+        for (String courseId : byCourse.keySet()) {
+            submit(courseId, () -> sendAll(courseId, frame, 0));
+        }
+    }
+
+    private void submit(String courseId, Runnable task) {
+        try {
+            lanes[Math.floorMod(courseId.hashCode(), lanes.length)].execute(task);
+        } catch (RejectedExecutionException ignored) {
+            // probíhá shutdown
+        }
+    }
+
+    private static Thread daemon(Runnable r, String name) {
+        Thread t = new Thread(r, name);
+        t.setDaemon(true);
+        return t;
+    }
+}
@@ -0,0 +1,15 @@
+package tda.app.app.id;
+
+import java.util.UUID;
+
+/**
+ * Zdroj nových ID (kurzy, materiály, kvízy, možnosti, pokusy, příspěvky feedu).
+ * Aplikace ho volá přes Ids.newId(); implementaci vybírá app.ids.generator.
+ */
+public interface IdGenerator {
+
+    UUID next();
+
+    /** Původní chování: náhodné UUIDv4 ze sdíleného SecureRandom. */
+    IdGenerator RANDOM = UUID::randomUUID;
+}
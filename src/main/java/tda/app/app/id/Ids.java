@@ -0,0 +1,28 @@
+package tda.app.app.id;
+
+/**
+ * Jediné místo, kde aplikace vytváří nová ID.
+ *
+ * Statický vstup, protože ID vznikají i mimo Spring beany (normalizace otázek a možností
+ * kvízu, záznamy feedu). Výchozí je UUIDv7; IdsConfig při startu nastaví generátor podle
+ * app.ids.generator (v7 | random).
+ */
+public final class Ids {
+
+    private static volatile IdGenerator generator = new UuidV7Generator();
+
+    private Ids() {
+    }
+
+    public static String newId() {
+        return generator.next().toString();
+    }
+
+    public static IdGenerator generator() {
+        return generator;
+    }
+
+    static void use(IdGenerator g) {
+        generator = g;
+    }
+}
@@ -0,0 +1,21 @@
+package tda.app.app.id;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Výběr generátoru ID podle app.ids.generator:
+ *   v7     = časově řazená UUIDv7 (výchozí)
+ *   random = UUIDv4 z SecureRandom (původní chování)
+ */
+@Configuration
+public class IdsConfig {
+
+    public IdsConfig(@Value("${app.ids.generator:v7}") String generator) {
+        switch (generator.trim().toLowerCase()) {
+            case "v7" -> Ids.use(new UuidV7Generator());
+            case "random" -> Ids.use(IdGenerator.RANDOM);
+            default -> throw new IllegalArgumentException("Neznámý app.ids.generator: " + generator + " (v7 | random)");
+        }
+    }
+}
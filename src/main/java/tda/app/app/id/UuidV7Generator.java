@@ -0,0 +1,58 @@
+package tda.app.app.id;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Časově řazená UUIDv7 (RFC 9562) bez zámků.
+ *
+ * - 48 bitů: unix čas v ms, 12 bitů (rand_a): sekvence v rámci ms, 62 bitů (rand_b): náhoda
+ * - čas + sekvence se posouvají jedním CAS na AtomicLong, takže ID z jedné instance jsou
+ *   striktně rostoucí i při tisících ID za ms (při přetečení sekvence se čas posune o 1 ms
+ *   dopředu – RFC 9562, 6.2, metoda 3) i při posunu hodin zpět
+ * - textová podoba (hex, malá písmena) se řadí stejně jako čas -> nové řádky v B-stromu
+ *   primárních klíčů jdou na konec místo náhodných stránek
+ *
+ * Náhodná část je z ThreadLocalRandom (bez sdíleného zámku SecureRandom). ID tedy nejsou
+ * tajemství – přístup k datům v aplikaci na neuhodnutelnosti ID nestojí (lektor má token).
+ */
+public final class UuidV7Generator implements IdGenerator {
+
+    private static final int SEQ_BITS = 12;
+
+    // (unix ms << 12) | sekvence posledního vydaného ID
+    private final AtomicLong state = new AtomicLong();
+    private final LongSupplier clock;
+
+    public UuidV7Generator() {
+        this(System::currentTimeMillis);
+    }
+
+    UuidV7Generator(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public UUID next() {
+        long now = clock.getAsLong() << SEQ_BITS;
+        long prev;
+        long next;
+        do {
+            prev = state.get();
+            next = Math.max(prev + 1, now);
+        } while (!state.compareAndSet(prev, next));
+
+        long millis = next >>> SEQ_BITS;
+        long seq = next & ((1L << SEQ_BITS) - 1);
+        long msb = (millis << 16) | (0x7L << 12) | seq;
+        long lsb = (ThreadLocalRandom.current().nextLong() & 0x3FFF_FFFF_FFFF_FFFFL) | 0x8000_0000_0000_0000L;
+        return new UUID(msb, lsb);
+    }
+
+    /** Čas vzniku (unix ms) z UUIDv7; pro jiné verze -1. */
+    public static long timestamp(UUID id) {
+        return id.version() == 7 ? id.getMostSignificantBits() >>> 16 : -1;
+    }
+}
@@ -0,0 +1,30 @@
+package tda.app.app.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Rozeslání události feedu. Broadcast jen serializuje a předá rámec lane vláknu;
+ * samotný zápis klientům je SseFanoutEvent (tam se projeví pomalý klient).
+ */
+@Name("tda.app.FeedBroadcast")
+@Label("Rozeslání feedu")
+@Category({"TdA", "Feed"})
+@Description("Serializace události feedu a předání SSE lane")
+@StackTrace(false)
+public class FeedBroadcastEvent extends jdk.jfr.Event {
+
+    @Label("Kurz")
+    public String courseId;
+
+    @Label("Odběratelů")
+    public int subscribers;
+
+    @Label("Payload")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,213 @@
+package tda.app.app.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import tda.app.app.Auth;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JFR nahrávky na vyžádání (jen pro lektora).
+ *
+ * - POST   /api/jfr/recordings[?seconds=60&settings=default|profile]  -> spustí nahrávku
+ * - GET    /api/jfr/recordings                                        -> seznam
+ * - POST   /api/jfr/recordings/{id}/stop                              -> zastaví
+ * - GET    /api/jfr/recordings/{id}/file                              -> stáhne .jfr (i za běhu – snapshot)
+ * - DELETE /api/jfr/recordings/{id}                                   -> zahodí
+ *
+ * Nahrávky jsou omezené: nejvýš jedna běží, délka i velikost mají strop (app.jfr.*)
+ * a drží se jen posledních několik. Kromě standardních událostí JVM obsahují
+ * vlastní události tda.app.* (zápis úložiště, odevzdání kvízu, rozeslání feedu, stažení).
+ */
+@RestController
+@RequestMapping("/api/jfr/recordings")
+public class JfrRecordingController {
+
+    public record RecordingDto(long id, String name, RecordingState state, Instant startedAt, Instant stoppedAt,
+                               long maxSeconds, long sizeBytes) {}
+
+    private static final List<Class<? extends jdk.jfr.Event>> APP_EVENTS = List.of(
+            PersistenceEvent.class,
+            QuizSubmitEvent.class,
+            FeedBroadcastEvent.class,
+            SseFanoutEvent.class,
+            MaterialDownloadEvent.class
+    );
+
+    private final long maxSeconds;
+    private final long maxBytes;
+    private final int keep;
+
+    // id -> nahrávka, v pořadí vytvoření (chráněno zámkem na mapě)
+    private final Map<Long, Recording> recordings = new LinkedHashMap<>();
+
+    public JfrRecordingController(
+            @Value("${app.jfr.max-seconds:600}") long maxSeconds,
+            @Value("${app.jfr.max-size-mb:100}") long maxSizeMb,
+            @Value("${app.jfr.keep:5}") int keep
+    ) {
+        this.maxSeconds = Math.max(1, maxSeconds);
+        this.maxBytes = Math.max(1, maxSizeMb) * 1024 * 1024;
+        this.keep = Math.max(1, keep);
+    }
+
+    @PostMapping
+    public RecordingDto start(
+            @RequestHeader(name = "Authorization", required = false) String authHeader,
+            @RequestParam(name = "seconds", defaultValue = "60") long seconds,
+            @RequestParam(name = "settings", defaultValue = "default") String settings
+    ) {
+        requireLecturer(authHeader);
+        if (!settings.equals("default") && !settings.equals("profile")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "settings musí být default nebo profile.");
+        }
+
+        synchronized (recordings) {
+            for (Recording r : recordings.values()) {
+                if (r.getState() == RecordingState.RUNNING || r.getState() == RecordingState.DELAYED) {
+                    throw new ResponseStatusException(HttpStatus.CONFLICT, "Nahrávka " + r.getId() + " už běží.");
+                }
+            }
+
+            Recording r;
+            try {
+                r = new Recording(Configuration.getConfiguration(settings));
+            } catch (Exception e) {
+                throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "JFR není dostupné: " + e.getMessage());
+            }
+            for (Class<? extends jdk.jfr.Event> type : APP_EVENTS) r.enable(type).withoutThreshold();
+            r.setName("tda-" + Instant.now());
+            r.setToDisk(true);
+            r.setDuration(Duration.ofSeconds(Math.max(1, Math.min(seconds, maxSeconds))));
+            r.setMaxSize(maxBytes);
+            r.start();
+
+            recordings.put(r.getId(), r);
+            evictOld();
+            return toDto(r);
+        }
+    }
+
+    @GetMapping
+    public List<RecordingDto> list(@RequestHeader(name = "Authorization", required = false) String authHeader) {
+        requireLecturer(authHeader);
+        synchronized (recordings) {
+            return recordings.values().stream().map(JfrRecordingController::toDto).toList();
+        }
+    }
+
+    @PostMapping("/{id}/stop")
+    public RecordingDto stop(
+            @RequestHeader(name = "Authorization", required = false) String authHeader,
+            @PathVariable long id
+    ) {
+        requireLecturer(authHeader);
+        synchronized (recordings) {
+            Recording r = getOrThrow(id);
+            if (r.getState() == RecordingState.RUNNING) r.stop();
+            return toDto(r);
+        }
+    }
+
+    @GetMapping("/{id}/file")
+    public ResponseEntity<Resource> file(
+            @RequestHeader(name = "Authorization", required = false) String authHeader,
+            @PathVariable long id
+    ) throws IOException {
+        requireLecturer(authHeader);
+
+        Path tmp = Files.createTempFile("tda-recording-" + id + "-", ".jfr");
+        try {
+            synchronized (recordings) {
+                Recording r = getOrThrow(id);
+                if (r.getState() == RecordingState.NEW || r.getState() == RecordingState.DELAYED) {
+                    throw new ResponseStatusException(HttpStatus.CONFLICT, "Nahrávka zatím nemá data.");
+                }
+                // dump funguje i za běhu (kopie dosavadních dat)
+                r.dump(tmp);
+            }
+        } catch (RuntimeException | IOException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+
+        long size = Files.size(tmp);
+        // soubor se smaže po odeslání (zavření streamu)
+        Resource body = new InputStreamResource(Files.newInputStream(tmp, StandardOpenOption.DELETE_ON_CLOSE));
+        ContentDisposition cd = ContentDisposition.attachment().filename("recording-" + id + ".jfr").build();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(size)
+                .header(HttpHeaders.CONTENT_DISPOSITION, cd.toString())
+                .body(body);
+    }
+
+    @DeleteMapping("/{id}")
+    public Map<String, Object> delete(
+            @RequestHeader(name = "Authorization", required = false) String authHeader,
+            @PathVariable long id
+    ) {
+        requireLecturer(authHeader);
+        synchronized (recordings) {
+            Recording r = getOrThrow(id);
+            recordings.remove(id);
+            r.close();
+        }
+        return Map.of("message", "Deleted", "id", id);
+    }
+
+    // --------------- helpers (volat pod zámkem) ---------------
+
+    private Recording getOrThrow(long id) {
+        Recording r = recordings.get(id);
+        if (r == null) throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Nahrávka nenalezena.");
+        return r;
+    }
+
+    private void evictOld() {
+        List<Long> ids = new ArrayList<>(recordings.keySet());
+        for (int i = 0; i < ids.size() - keep; i++) {
+            Recording old = recordings.remove(ids.get(i));
+            if (old != null) old.close();
+        }
+    }
+
+    private static RecordingDto toDto(Recording r) {
+        Duration d = r.getDuration();
+        return new RecordingDto(
+                r.getId(),
+                r.getName(),
+                r.getState(),
+                r.getStartTime(),
+                r.getStopTime(),
+                d == null ? 0 : d.toSeconds(),
+                r.getSize()
+        );
+    }
+
+    private static void requireLecturer(String authHeader) {
+        if (!Auth.isBearerValid(authHeader)) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
+        }
+    }
+}
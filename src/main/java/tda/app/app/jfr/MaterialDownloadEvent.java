@@ -0,0 +1,72 @@
+package tda.app.app.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Stažení souboru materiálu. Událost trvá od otevření souboru do zavření streamu,
+ * takže zahrnuje i zápis těla odpovědi (pomalý klient = dlouhá událost).
+ */
+@Name("tda.app.MaterialDownload")
+@Label("Stažení materiálu")
+@Category({"TdA", "Materiály"})
+@Description("Přenos souboru materiálu klientovi")
+@StackTrace(false)
+public class MaterialDownloadEvent extends jdk.jfr.Event {
+
+    @Label("Kurz")
+    public String courseId;
+
+    @Label("Materiál")
+    public String materialId;
+
+    @Label("Přeneseno")
+    @DataAmount
+    public long bytes;
+
+    /** Obalí stream souboru; událost se zapíše při close(). Bez zapnutého JFR vrací stream beze změny. */
+    public static InputStream track(InputStream in, String courseId, String materialId) {
+        MaterialDownloadEvent event = new MaterialDownloadEvent();
+        if (!event.isEnabled()) return in;
+        event.courseId = courseId;
+        event.materialId = materialId;
+        event.begin();
+        return new FilterInputStream(in) {
+            private boolean closed;
+
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b >= 0) event.bytes++;
+                return b;
+            }
+
+            @Override
+            public int read(byte[] buf, int off, int len) throws IOException {
+                int n = super.read(buf, off, len);
+                if (n > 0) event.bytes += n;
+                return n;
+            }
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    if (!closed) {
+                        closed = true;
+                        event.commit();
+                    }
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package tda.app.app.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** Přepis JSON úložiště na disk (materials.json, quizzes.json + quiz_results.json). */
+@Name("tda.app.Persistence")
+@Label("Zápis úložiště")
+@Category({"TdA", "Perzistence"})
+@Description("Přepis celého JSON indexu na disk; courseId = kurz, jehož změna zápis vyvolala")
+@StackTrace(false)
+public class PersistenceEvent extends jdk.jfr.Event {
+
+    @Label("Úložiště")
+    public String store;
+
+    @Label("Kurz")
+    public String courseId;
+
+    @Label("Zapsáno")
+    @DataAmount
+    public long bytes;
+}
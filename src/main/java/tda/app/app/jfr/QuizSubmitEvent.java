@@ -0,0 +1,33 @@
+package tda.app.app.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/** Odevzdání kvízu: vyhodnocení + zápis výsledku (trvání události = celé odevzdání). */
+@Name("tda.app.QuizSubmit")
+@Label("Odevzdání kvízu")
+@Category({"TdA", "Kvízy"})
+@Description("Vyhodnocení odpovědí a uložení pokusu")
+@StackTrace(false)
+public class QuizSubmitEvent extends jdk.jfr.Event {
+
+    @Label("Kurz")
+    public String courseId;
+
+    @Label("Kvíz")
+    public String quizId;
+
+    @Label("Otázek")
+    public int questions;
+
+    @Label("Správně")
+    public int correct;
+
+    @Label("Vyhodnocení")
+    @Timespan(Timespan.NANOSECONDS)
+    public long gradingDuration;
+}
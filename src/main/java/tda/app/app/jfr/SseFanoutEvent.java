@@ -0,0 +1,35 @@
+package tda.app.app.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/** Zápis jednoho SSE rámce všem odběratelům kurzu (v lane vlákně). */
+@Name("tda.app.SseFanout")
+@Label("SSE fan-out")
+@Category({"TdA", "Feed"})
+@Description("Odeslání rámce všem odběratelům kurzu; slowestSend ukáže pomalého klienta")
+@StackTrace(false)
+public class SseFanoutEvent extends jdk.jfr.Event {
+
+    @Label("Kurz")
+    public String courseId;
+
+    @Label("Příjemců")
+    public int recipients;
+
+    @Label("Selhalo")
+    public int failed;
+
+    @Label("Rámec")
+    @DataAmount
+    public long bytes;
+
+    @Label("Nejpomalejší zápis")
+    @Timespan(Timespan.NANOSECONDS)
+    public long slowestSend;
+}
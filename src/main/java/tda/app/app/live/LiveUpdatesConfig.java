@@ -0,0 +1,22 @@
+package tda.app.app.live;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+@Configuration
+@EnableWebSocket
+public class LiveUpdatesConfig implements WebSocketConfigurer {
+
+    private final LiveUpdatesHandler handler;
+
+    public LiveUpdatesConfig(LiveUpdatesHandler handler) {
+        this.handler = handler;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(handler, "/ws/live");
+    }
+}
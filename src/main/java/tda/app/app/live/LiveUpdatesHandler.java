@@ -0,0 +1,195 @@
+package tda.app.app.live;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import tda.app.app.CourseChangeEvent;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.regex.Pattern;
+
+/**
+ * Jedno WebSocket spojení (/ws/live) pro všechny živé aktualizace kurzů.
+ *
+ * Klient -> server:
+ *   {"op":"sub","topics":["feed:<courseId>","materials:<courseId>","quizzes:<courseId>"]}
+ *   {"op":"unsub","topics":[...]}
+ *   {"op":"ping"}
+ * Server -> klient:
+ *   {"t":"<topic>","d":{...}}   (d u feedu = stejný payload jako SSE)
+ *   {"t":"pong"}
+ *
+ * Rozesílání běží mimo vlákno zápisu (stejně jako SSE): topic obsluhuje vždy stejné
+ * "lane" vlákno, takže pořadí událostí v topicu zůstává zachované. Klient frame aplikuje
+ * podle id bez verzí – spoléhá na to, že úložiště publikuje CourseChangeEvent ještě pod
+ * svým zámkem, tedy v pořadí zápisů.
+ */
+@Component
+public class LiveUpdatesHandler extends TextWebSocketHandler {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private static final Pattern TOPIC = Pattern.compile("(feed|materials|quizzes):[A-Za-z0-9-]{1,64}");
+    private static final int MAX_TOPICS_PER_SESSION = 64;
+    // pomalý klient nesmí blokovat rozesílání: max 10 s na send a 512 kB fronty, pak se odpojí
+    private static final int SEND_TIME_LIMIT_MS = 10_000;
+    private static final int BUFFER_LIMIT_BYTES = 512 * 1024;
+
+    private static final TextMessage PONG = new TextMessage("{\"t\":\"pong\"}");
+
+    // topic -> odběratelé
+    private final Map<String, Set<WebSocketSession>> sessionsByTopic = new ConcurrentHashMap<>();
+    // session id -> (thread-safe obal session, odebírané topicy)
+    private final Map<String, Subscriber> subscribers = new ConcurrentHashMap<>();
+
+    private record Subscriber(WebSocketSession session, Set<String> topics) {}
+
+    private final ExecutorService[] lanes;
+
+    public LiveUpdatesHandler(
+            @Value("${app.live.lanes:4}") int laneCount,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+    ) {
+        this.lanes = new ExecutorService[Math.max(1, laneCount)];
+        for (int i = 0; i < lanes.length; i++) {
+            String name = "live-ws-" + i;
+            lanes[i] = Executors.newSingleThreadExecutor(virtualThreads
+                    ? Thread.ofVirtual().name(name).factory()
+                    : r -> {
+                        Thread t = new Thread(r, name);
+                        t.setDaemon(true);
+                        return t;
+                    });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ExecutorService lane : lanes) lane.shutdown();
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        WebSocketSession safe = new ConcurrentWebSocketSessionDecorator(
+                session, SEND_TIME_LIMIT_MS, BUFFER_LIMIT_BYTES,
+                ConcurrentWebSocketSessionDecorator.OverflowStrategy.TERMINATE);
+        subscribers.put(session.getId(), new Subscriber(safe, ConcurrentHashMap.newKeySet()));
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+        Subscriber sub = subscribers.get(session.getId());
+        if (sub == null) return;
+
+        JsonNode msg;
+        try {
+            msg = MAPPER.readTree(message.getPayload());
+        } catch (Exception e) {
+            session.close(CloseStatus.NOT_ACCEPTABLE.withReason("Neplatný JSON"));
+            return;
+        }
+
+        switch (msg.path("op").asText("")) {
+            case "sub" -> {
+                for (JsonNode t : msg.path("topics")) {
+                    String topic = t.asText("");
+                    if (!TOPIC.matcher(topic).matches()) continue;
+                    if (sub.topics().size() >= MAX_TOPICS_PER_SESSION) break;
+                    if (sub.topics().add(topic)) {
+                        sessionsByTopic.computeIfAbsent(topic, k -> ConcurrentHashMap.newKeySet()).add(sub.session());
+                    }
+                }
+            }
+            case "unsub" -> {
+                for (JsonNode t : msg.path("topics")) {
+                    String topic = t.asText("");
+                    if (sub.topics().remove(topic)) unsubscribe(topic, sub.session());
+                }
+            }
+            case "ping" -> sub.session().sendMessage(PONG);
+            default -> { }
+        }
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) throws Exception {
+        if (session.isOpen()) session.close(CloseStatus.SERVER_ERROR);
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        Subscriber sub = subscribers.remove(session.getId());
+        if (sub == null) return;
+        for (String topic : sub.topics()) unsubscribe(topic, sub.session());
+    }
+
+    @EventListener
+    public void onCourseChange(CourseChangeEvent e) {
+        String prefix = switch (e.kind()) {
+            case FEED -> "feed:";
+            case MATERIAL -> "materials:";
+            case QUIZ -> "quizzes:";
+            default -> null;
+        };
+        if (prefix == null) return;
+        String topic = prefix + e.courseId();
+
+        Set<WebSocketSession> sessions = sessionsByTopic.get(topic);
+        if (sessions == null || sessions.isEmpty()) return;
+
+        TextMessage frame;
+        try {
+            frame = new TextMessage(MAPPER.writeValueAsString(Map.of("t", topic, "d", e.publicPayload())));
+        } catch (Exception ex) {
+            System.err.println("WARN: Nelze serializovat live událost: " + ex.getMessage());
+            return;
+        }
+
+        try {
+            lanes[Math.floorMod(topic.hashCode(), lanes.length)].execute(() -> sendAll(topic, frame));
+        } catch (RejectedExecutionException ignored) {
+            // probíhá shutdown
+        }
+    }
+
+    private void sendAll(String topic, TextMessage frame) {
+        Set<WebSocketSession> sessions = sessionsByTopic.get(topic);
+        if (sessions == null) return;
+
+        for (WebSocketSession s : sessions) {
+            try {
+                s.sendMessage(frame);
+            } catch (Exception ex) {
+                // TERMINATE strategie už session zavřela; úklid doběhne v afterConnectionClosed
+                unsubscribe(topic, s);
+            }
+        }
+    }
+
+    public int sessionCount() {
+        return subscribers.size();
+    }
+
+    private void unsubscribe(String topic, WebSocketSession session) {
+        sessionsByTopic.computeIfPresent(topic, (k, set) -> {
+            set.remove(session);
+            return set.isEmpty() ? null : set;
+        });
+    }
+}
@@ -3,8 +3,18 @@ package tda.app.app.quiz;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import tda.app.app.CourseChangeEvent;
+import tda.app.app.InstrumentedLock;
+import tda.app.app.jfr.PersistenceEvent;
+import tda.app.app.jfr.QuizSubmitEvent;
+import tda.app.app.id.Ids;
+import tda.app.app.timeline.TimelineOrder;
 
 import java.io.IOException;
 import java.nio.file.Files;
@@ -12,6 +22,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class QuizStore {
@@ -40,9 +51,9 @@ public class QuizStore {
             List<QuizOption> options
     ) {}
 
-    private static final Path UPLOAD_ROOT = Paths.get("uploads");
-    private static final Path QUIZZES_FILE = UPLOAD_ROOT.resolve("quizzes.json");
-    private static final Path RESULTS_FILE = UPLOAD_ROOT.resolve("quiz_results.json");
+    private final Path uploadRoot;
+    private final Path quizzesFile;
+    private final Path resultsFile;
 
     private static final ObjectMapper MAPPER = new ObjectMapper()
             .findAndRegisterModules()
@@ -52,11 +63,40 @@ public class QuizStore {
     private final Map<String, List<Quiz>> quizzesByCourse = new HashMap<>();
     // quizId -> results
     private final Map<String, List<QuizResult>> resultsByQuiz = new HashMap<>();
+    // chrání obě mapy i zápis JSON souborů (ReentrantLock: I/O pod zámkem nepinuje virtuální vlákna)
+    private final InstrumentedLock lock;
+
+    private final ApplicationEventPublisher events;
+
+    private final Timer saveTimer;
+    private final Timer gradingTimer;
+
+    @Autowired
+    public QuizStore(ApplicationEventPublisher events, MeterRegistry registry) {
+        this(events, registry, Paths.get("uploads"));
+    }
+
+    /** Úložiště v jiném adresáři (testy – data aplikace v ./uploads zůstanou netknutá). */
+    QuizStore(ApplicationEventPublisher events, MeterRegistry registry, Path uploadRoot) {
+        this.uploadRoot = uploadRoot;
+        this.quizzesFile = uploadRoot.resolve("quizzes.json");
+        this.resultsFile = uploadRoot.resolve("quiz_results.json");
+        this.events = events;
+        this.lock = new InstrumentedLock(registry, "quizzes");
+        this.saveTimer = Timer.builder("app.persistence")
+                .tag("op", "quizzes.save")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.gradingTimer = Timer.builder("app.quiz.grading")
+                .description("Vyhodnocení odevzdaného kvízu (bez zápisu)")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
 
     @PostConstruct
     public void init() {
         try {
-            Files.createDirectories(UPLOAD_ROOT);
+            Files.createDirectories(uploadRoot);
             load();
         } catch (Exception e) {
             System.err.println("WARN: Nelze načíst kvízy z disku: " + e.getMessage());
@@ -64,7 +104,8 @@ public class QuizStore {
     }
 
     public List<QuizSummaryDto> listSummaries(String courseId) {
-        synchronized (quizzesByCourse) {
+        lock.lock();
+        try {
             List<Quiz> list = new ArrayList<>(quizzesByCourse.getOrDefault(courseId, List.of()));
             list.sort((a, b) -> b.createdAt().compareTo(a.createdAt()));
 
@@ -77,6 +118,8 @@ public class QuizStore {
                             statusOrOpen(q)
                     ))
                     .toList();
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -98,7 +141,7 @@ public class QuizStore {
         if (t.isBlank()) throw new IllegalArgumentException("Chybí název kvízu.");
 
         Quiz q = new Quiz(
-                UUID.randomUUID().toString(),
+                Ids.newId(),
                 courseId,
                 t,
                 Instant.now(),
@@ -106,9 +149,13 @@ public class QuizStore {
                 QuizStatus.OPEN
         );
 
-        synchronized (quizzesByCourse) {
+        lock.lock();
+        try {
             quizzesByCourse.computeIfAbsent(courseId, k -> new ArrayList<>()).add(q);
-            save();
+            save(courseId);
+            publish(courseId, CourseChangeEvent.Kind.QUIZ, CourseChangeEvent.Action.CREATED, q.id(), q);
+        } finally {
+            lock.unlock();
         }
         return q;
     }
@@ -117,28 +164,38 @@ public class QuizStore {
         String t = (title == null) ? "" : title.trim();
         if (t.isBlank()) throw new IllegalArgumentException("Chybí název kvízu.");
 
-        synchronized (quizzesByCourse) {
+        Quiz updated;
+        lock.lock();
+        try {
             List<Quiz> list = new ArrayList<>(quizzesByCourse.getOrDefault(courseId, List.of()));
             int idx = indexOfQuiz(list, quizId);
             if (idx < 0) throw new IllegalArgumentException("Kvíz nebyl nalezen.");
             Quiz old = list.get(idx);
-            Quiz updated = new Quiz(old.id(), old.courseId(), t, old.createdAt(), old.questions(), statusOrOpen(old));
+            updated = new Quiz(old.id(), old.courseId(), t, old.createdAt(), old.questions(), statusOrOpen(old));
             list.set(idx, updated);
             quizzesByCourse.put(courseId, list);
-            save();
-            return updated;
+            save(courseId);
+            publish(courseId, CourseChangeEvent.Kind.QUIZ, CourseChangeEvent.Action.UPDATED, quizId, updated);
+        } finally {
+            lock.unlock();
         }
+        return updated;
     }
 
     public void deleteQuiz(String courseId, String quizId) throws IOException {
-        synchronized (quizzesByCourse) {
+        Quiz removed;
+        lock.lock();
+        try {
             List<Quiz> list = new ArrayList<>(quizzesByCourse.getOrDefault(courseId, List.of()));
             int idx = indexOfQuiz(list, quizId);
             if (idx < 0) throw new IllegalArgumentException("Kvíz nebyl nalezen.");
-            list.remove(idx);
+            removed = list.remove(idx);
             quizzesByCourse.put(courseId, list);
             resultsByQuiz.remove(quizId);
-            save();
+            save(courseId);
+            publish(courseId, CourseChangeEvent.Kind.QUIZ, CourseChangeEvent.Action.DELETED, quizId, removed);
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -154,10 +211,12 @@ public class QuizStore {
 
         List<String> correct = normalizeCorrect(incoming.type(), incoming.correctOptionIds(), options);
 
-        String qId = (incoming.id() == null || incoming.id().isBlank()) ? UUID.randomUUID().toString() : incoming.id();
+        String qId = (incoming.id() == null || incoming.id().isBlank()) ? Ids.newId() : incoming.id();
         QuizQuestion normalized = new QuizQuestion(qId, incoming.type(), text, options, correct);
 
-        synchronized (quizzesByCourse) {
+        Quiz updated;
+        lock.lock();
+        try {
             List<Quiz> list = new ArrayList<>(quizzesByCourse.getOrDefault(courseId, List.of()));
             int idx = indexOfQuiz(list, quizId);
             if (idx < 0) throw new IllegalArgumentException("Kvíz nebyl nalezen.");
@@ -171,16 +230,21 @@ public class QuizStore {
                 qs.set(qIdx, normalized);
             }
 
-            Quiz updated = new Quiz(old.id(), old.courseId(), old.title(), old.createdAt(), qs, statusOrOpen(old));
+            updated = new Quiz(old.id(), old.courseId(), old.title(), old.createdAt(), qs, statusOrOpen(old));
             list.set(idx, updated);
             quizzesByCourse.put(courseId, list);
-            save();
-            return updated;
+            save(courseId);
+            publish(courseId, CourseChangeEvent.Kind.QUIZ, CourseChangeEvent.Action.UPDATED, quizId, updated);
+        } finally {
+            lock.unlock();
         }
+        return updated;
     }
 
     public Quiz deleteQuestion(String courseId, String quizId, String questionId) throws IOException {
-        synchronized (quizzesByCourse) {
+        Quiz updated;
+        lock.lock();
+        try {
             List<Quiz> list = new ArrayList<>(quizzesByCourse.getOrDefault(courseId, List.of()));
             int idx = indexOfQuiz(list, quizId);
             if (idx < 0) throw new IllegalArgumentException("Kvíz nebyl nalezen.");
@@ -189,29 +253,37 @@ public class QuizStore {
             int qIdx = indexOfQuestion(qs, questionId);
             if (qIdx < 0) throw new IllegalArgumentException("Otázka nebyla nalezena.");
             qs.remove(qIdx);
-            Quiz updated = new Quiz(old.id(), old.courseId(), old.title(), old.createdAt(), qs, statusOrOpen(old));
+            updated = new Quiz(old.id(), old.courseId(), old.title(), old.createdAt(), qs, statusOrOpen(old));
             list.set(idx, updated);
             quizzesByCourse.put(courseId, list);
-            save();
-            return updated;
+            save(courseId);
+            publish(courseId, CourseChangeEvent.Kind.QUIZ, CourseChangeEvent.Action.UPDATED, quizId, updated);
+        } finally {
+            lock.unlock();
         }
+        return updated;
     }
 
     public record StatusRequest(QuizStatus status) {}
 
     public Quiz updateStatus(String courseId, String quizId, QuizStatus status) throws IOException {
         if (status == null) throw new IllegalArgumentException("Chybí status.");
-        synchronized (quizzesByCourse) {
+        Quiz updated;
+        lock.lock();
+        try {
             List<Quiz> list = new ArrayList<>(quizzesByCourse.getOrDefault(courseId, List.of()));
             int idx = indexOfQuiz(list, quizId);
             if (idx < 0) throw new IllegalArgumentException("Kvíz nebyl nalezen.");
             Quiz old = list.get(idx);
-            Quiz updated = new Quiz(old.id(), old.courseId(), old.title(), old.createdAt(), old.questions(), status);
+            updated = new Quiz(old.id(), old.courseId(), old.title(), old.createdAt(), old.questions(), status);
             list.set(idx, updated);
             quizzesByCourse.put(courseId, list);
-            save();
-            return updated;
+            save(courseId);
+            publish(courseId, CourseChangeEvent.Kind.QUIZ, CourseChangeEvent.Action.UPDATED, quizId, updated);
+        } finally {
+            lock.unlock();
         }
+        return updated;
     }
 
     public record SubmitRequest(Map<String, List<String>> answers) {}
@@ -231,11 +303,53 @@ public class QuizStore {
     ) {}
 
     public SubmitResponse submit(String courseId, String quizId, SubmitRequest req, String studentKey) throws IOException {
+        QuizSubmitEvent event = new QuizSubmitEvent();
+        event.begin();
         Quiz quiz = getQuizOrThrow(courseId, quizId);
         if (statusOrOpen(quiz) == QuizStatus.CLOSED) {
             throw new IllegalArgumentException("Kvíz je uzavřený. Nový pokus nelze odevzdat.");
         }
 
+        long gradingStart = System.nanoTime();
+        SubmitResponse graded = grade(quiz, req);
+        long gradingNanos = System.nanoTime() - gradingStart;
+        gradingTimer.record(gradingNanos, TimeUnit.NANOSECONDS);
+        int total = graded.totalQuestions();
+        int correct = graded.correctQuestions();
+
+        QuizResult result = new QuizResult(
+                Ids.newId(),
+                courseId,
+                quizId,
+                Instant.now(),
+                total,
+                correct,
+                (studentKey == null || studentKey.isBlank()) ? null : studentKey
+        );
+
+        lock.lock();
+        try {
+            resultsByQuiz.computeIfAbsent(quizId, k -> new ArrayList<>()).add(result);
+            save(courseId);
+            publish(courseId, CourseChangeEvent.Kind.ATTEMPT, CourseChangeEvent.Action.CREATED, result.id(), result);
+        } finally {
+            lock.unlock();
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.courseId = courseId;
+            event.quizId = quizId;
+            event.questions = total;
+            event.correct = correct;
+            event.gradingDuration = gradingNanos;
+            event.commit();
+        }
+        return graded;
+    }
+
+    /** Vyhodnocení odpovědí (bez zápisu) – otázka je správně, když výběr přesně odpovídá správným možnostem. */
+    static SubmitResponse grade(Quiz quiz, SubmitRequest req) {
         Map<String, List<String>> answers = (req == null || req.answers() == null) ? Map.of() : req.answers();
         List<QuizQuestion> questions = quiz.questions() == null ? List.of() : quiz.questions();
 
@@ -259,22 +373,6 @@ public class QuizStore {
         }
 
         double percent = total == 0 ? 0.0 : (correct * 100.0 / total);
-
-        QuizResult result = new QuizResult(
-                UUID.randomUUID().toString(),
-                courseId,
-                quizId,
-                Instant.now(),
-                total,
-                correct,
-                (studentKey == null || studentKey.isBlank()) ? null : studentKey
-        );
-
-        synchronized (quizzesByCourse) {
-            resultsByQuiz.computeIfAbsent(quizId, k -> new ArrayList<>()).add(result);
-            save();
-        }
-
         return new SubmitResponse(total, correct, Math.round(percent * 10.0) / 10.0, details);
     }
 
@@ -290,12 +388,75 @@ public class QuizStore {
     public List<TeacherAttemptDto> results(String courseId, String quizId) {
         // courseId is checked only for safety (quiz must exist in that course)
         getQuizOrThrow(courseId, quizId);
-        synchronized (quizzesByCourse) {
+        lock.lock();
+        try {
             List<QuizResult> list = new ArrayList<>(resultsByQuiz.getOrDefault(quizId, List.of()));
             list.sort((a, b) -> b.submittedAt().compareTo(a.submittedAt()));
             return list.stream()
                     .map(r -> new TeacherAttemptDto(r.id(), r.courseId(), r.quizId(), r.submittedAt(), r.totalQuestions(), r.correctQuestions()))
                     .toList();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // --------------- časová osa (TimelineService) ---------------
+    // Seznamy kvízů kurzu i pokusů kvízu jsou v pořadí přidání -> stačí je projít od konce do limitu.
+
+    /** Pokus na časové ose – jen že proběhl, bez studenta a skóre (výsledky vidí pouze lektor). */
+    public record AttemptRef(String id, String quizId, String quizTitle, Instant submittedAt) {}
+
+    /** Nejnovější kvízy kurzu starší než (at, id). */
+    public List<Quiz> quizzesNewestBefore(String courseId, Instant at, String id, int limit) {
+        lock.lock();
+        try {
+            List<Quiz> list = quizzesByCourse.getOrDefault(courseId, List.of());
+            List<Quiz> out = new ArrayList<>(Math.min(limit, list.size()));
+            for (int i = list.size() - 1; i >= 0 && out.size() < limit; i--) {
+                Quiz q = list.get(i);
+                if (TimelineOrder.isAfter(q.createdAt(), q.id(), at, id)) out.add(q);
+            }
+            return out;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Nejnovější pokusy ve všech kvízech kurzu starší než (at, id) – z každého kvízu nejvýš limit. */
+    public List<AttemptRef> attemptsNewestBefore(String courseId, Instant at, String id, int limit) {
+        lock.lock();
+        try {
+            List<AttemptRef> out = new ArrayList<>();
+            for (Quiz q : quizzesByCourse.getOrDefault(courseId, List.of())) {
+                List<QuizResult> results = resultsByQuiz.getOrDefault(q.id(), List.of());
+                int taken = 0;
+                for (int i = results.size() - 1; i >= 0 && taken < limit; i--) {
+                    QuizResult r = results.get(i);
+                    if (!TimelineOrder.isAfter(r.submittedAt(), r.id(), at, id)) continue;
+                    out.add(new AttemptRef(r.id(), q.id(), q.title(), r.submittedAt()));
+                    taken++;
+                }
+            }
+            out.sort((a, b) -> TimelineOrder.compare(a.submittedAt(), a.id(), b.submittedAt(), b.id()));
+            return out.size() > limit ? new ArrayList<>(out.subList(0, limit)) : out;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Kopie všech kvízů a pokusů – pro přepočet souhrnných čítačů (dashboard). */
+    public record Snapshot(Map<String, List<Quiz>> quizzesByCourse, List<QuizResult> results) {}
+
+    public Snapshot snapshot() {
+        lock.lock();
+        try {
+            Map<String, List<Quiz>> quizzes = new HashMap<>();
+            quizzesByCourse.forEach((courseId, list) -> quizzes.put(courseId, List.copyOf(list)));
+            List<QuizResult> results = new ArrayList<>();
+            resultsByQuiz.values().forEach(results::addAll);
+            return new Snapshot(quizzes, results);
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -305,15 +466,23 @@ public class QuizStore {
     // --------------- helpers ---------------
 
     private Quiz getQuizOrThrow(String courseId, String quizId) {
-        synchronized (quizzesByCourse) {
+        lock.lock();
+        try {
             return quizzesByCourse.getOrDefault(courseId, List.of())
                     .stream()
                     .filter(q -> Objects.equals(q.id(), quizId))
                     .findFirst()
                     .orElseThrow(() -> new IllegalArgumentException("Kvíz nebyl nalezen."));
+        } finally {
+            lock.unlock();
         }
     }
 
+    /** Volá se ještě pod zámkem – change log a live frame tak dostanou změny v pořadí zápisů. */
+    private void publish(String courseId, CourseChangeEvent.Kind kind, CourseChangeEvent.Action action, String id, Object item) {
+        events.publishEvent(new CourseChangeEvent(courseId, kind, action, id, item));
+    }
+
     private QuizStatus statusOrOpen(Quiz q) {
         return (q == null || q.status() == null) ? QuizStatus.OPEN : q.status();
     }
@@ -339,7 +508,7 @@ public class QuizStore {
                 if (o == null) continue;
                 String txt = (o.text() == null) ? "" : o.text().trim();
                 if (txt.isBlank()) continue;
-                String id = (o.id() == null || o.id().isBlank()) ? UUID.randomUUID().toString() : o.id();
+                String id = (o.id() == null || o.id().isBlank()) ? Ids.newId() : o.id();
                 out.add(new QuizOption(id, txt));
             }
         }
@@ -369,21 +538,60 @@ public class QuizStore {
     }
 
     private void load() throws IOException {
-        if (Files.exists(QUIZZES_FILE)) {
-            Map<String, List<Quiz>> map = MAPPER.readValue(QUIZZES_FILE.toFile(), new TypeReference<>() {});
+        if (Files.exists(quizzesFile)) {
+            Map<String, List<Quiz>> map = MAPPER.readValue(quizzesFile.toFile(), new TypeReference<>() {});
             quizzesByCourse.clear();
             if (map != null) quizzesByCourse.putAll(map);
         }
-        if (Files.exists(RESULTS_FILE)) {
-            Map<String, List<QuizResult>> map = MAPPER.readValue(RESULTS_FILE.toFile(), new TypeReference<>() {});
+        if (Files.exists(resultsFile)) {
+            Map<String, List<QuizResult>> map = MAPPER.readValue(resultsFile.toFile(), new TypeReference<>() {});
             resultsByQuiz.clear();
             if (map != null) resultsByQuiz.putAll(map);
         }
     }
 
-    private void save() throws IOException {
-        // keep the on-disk format stable
-        MAPPER.writerWithDefaultPrettyPrinter().writeValue(QUIZZES_FILE.toFile(), quizzesByCourse);
-        MAPPER.writerWithDefaultPrettyPrinter().writeValue(RESULTS_FILE.toFile(), resultsByQuiz);
+    private void save(String courseId) throws IOException {
+        PersistenceEvent event = new PersistenceEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            // keep the on-disk format stable
+            MAPPER.writerWithDefaultPrettyPrinter().writeValue(quizzesFile.toFile(), quizzesByCourse);
+            MAPPER.writerWithDefaultPrettyPrinter().writeValue(resultsFile.toFile(), resultsByQuiz);
+        } finally {
+            saveTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            event.end();
+            if (event.shouldCommit()) {
+                // velikost souborů zjišťujeme jen když se událost opravdu zapíše
+                event.store = "quizzes";
+                event.courseId = courseId;
+                event.bytes = quizzesFile.toFile().length() + resultsFile.toFile().length();
+                event.commit();
+            }
+        }
+    }
+
+    /** Počet kvízů (gauge v AppMetrics). */
+    public int quizCount() {
+        lock.lock();
+        try {
+            int n = 0;
+            for (List<Quiz> list : quizzesByCourse.values()) n += list.size();
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Počet odevzdaných pokusů (gauge v AppMetrics). */
+    public int resultCount() {
+        lock.lock();
+        try {
+            int n = 0;
+            for (List<QuizResult> list : resultsByQuiz.values()) n += list.size();
+            return n;
+        } finally {
+            lock.unlock();
+        }
     }
 }
@@ -0,0 +1,35 @@
+package tda.app.app.timeline;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Časová osa kurzu (feed, materiály, kvízy, pokusy), nejnovější první.
+ *
+ * - GET /api/courses/{courseId}/timeline[?limit=20][&cursor=..]
+ *
+ * nextCursor předej jako ?cursor= pro starší položky (keyset – hloubka v ose nic nestojí).
+ */
+@RestController
+@RequestMapping("/api/courses/{courseId}/timeline")
+public class TimelineController {
+
+    private final TimelineService timeline;
+
+    public TimelineController(TimelineService timeline) {
+        this.timeline = timeline;
+    }
+
+    @GetMapping
+    public TimelineService.TimelinePage page(
+            @PathVariable String courseId,
+            @RequestParam(name = "limit", defaultValue = "20") int limit,
+            @RequestParam(name = "cursor", required = false) String cursor
+    ) {
+        if (limit < 1 || limit > TimelineService.MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be 1.." + TimelineService.MAX_LIMIT);
+        }
+        return timeline.page(courseId, cursor, limit);
+    }
+}
@@ -0,0 +1,16 @@
+package tda.app.app.timeline;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+/**
+ * Položka časové osy kurzu.
+ *
+ * kind: feed | material | quiz | attempt
+ * text: zpráva feedu, název materiálu/kvízu; u pokusu název kvízu (bez studenta a skóre)
+ * quizId: jen u pokusu
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TimelineItem(String kind, String id, Instant at, String text, String quizId) {
+}
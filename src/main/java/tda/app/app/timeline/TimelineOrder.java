@@ -0,0 +1,29 @@
+package tda.app.app.timeline;
+
+import java.time.Instant;
+
+/**
+ * Pořadí časové osy: nejnovější první, shoda času se rozhodne podle id (sestupně).
+ * ID všech zdrojů jsou UUID, takže pořadí je úplné a kurzor (čas, id) jednoznačný.
+ * Chybějící čas (stará data) se bere jako EPOCH.
+ */
+public final class TimelineOrder {
+
+    private TimelineOrder() {
+    }
+
+    /** < 0, když (atA, idA) patří na ose před (atB, idB), tj. je novější. */
+    public static int compare(Instant atA, String idA, Instant atB, String idB) {
+        int c = orEpoch(atB).compareTo(orEpoch(atA));
+        return c != 0 ? c : idB.compareTo(idA);
+    }
+
+    /** Patří položka na osu až za kurzor (je starší)? Kurzor s at == null = začátek osy. */
+    public static boolean isAfter(Instant at, String id, Instant cursorAt, String cursorId) {
+        return cursorAt == null || compare(at, id, cursorAt, cursorId) > 0;
+    }
+
+    static Instant orEpoch(Instant at) {
+        return at == null ? Instant.EPOCH : at;
+    }
+}
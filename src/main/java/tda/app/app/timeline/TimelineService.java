@@ -0,0 +1,167 @@
+package tda.app.app.timeline;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import tda.app.app.MaterialController;
+import tda.app.app.feed.FeedItemRepository;
+import tda.app.app.quiz.QuizStore;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * "Co je nového" v kurzu – feed, nové materiály, nové kvízy a pokusy v jedné časové ose.
+ *
+ * Každý zdroj už umí vrátit své položky od nejnovější starší než kurzor (feed keyset dotazem,
+ * materiály a kvízy zpětným průchodem seznamu v pořadí přidání). Stránka vzniká líným k-cestným
+ * slučováním: z každého zdroje se načte malý blok, prioritní fronta bere vždy nejnovější hlavu
+ * a další blok zdroje se dotáhne až ve chvíli, kdy je ho potřeba. Paměť i dotazy tak závisí
+ * na velikosti stránky, ne na velikosti kurzu.
+ */
+@Service
+public class TimelineService {
+
+    public record TimelinePage(List<TimelineItem> items, boolean hasNext, String nextCursor) {}
+
+    /** Položky zdroje starší než (at, id), nejnovější první, nejvýš limit. at == null = od začátku. */
+    interface Source {
+        List<TimelineItem> before(Instant at, String id, int limit);
+    }
+
+    static final int MAX_LIMIT = 100;
+    // blok jednoho zdroje – malé stránky se načtou jedním dotazem, velké po částech
+    static final int MAX_CHUNK = 32;
+
+    static final Comparator<TimelineItem> NEWEST_FIRST =
+            (a, b) -> TimelineOrder.compare(a.at(), a.id(), b.at(), b.id());
+
+    private final FeedItemRepository feed;
+    private final MaterialController materials;
+    private final QuizStore quizzes;
+
+    public TimelineService(FeedItemRepository feed, MaterialController materials, QuizStore quizzes) {
+        this.feed = feed;
+        this.materials = materials;
+        this.quizzes = quizzes;
+    }
+
+    public TimelinePage page(String courseId, String cursor, int limit) {
+        Instant at = null;
+        String id = null;
+        if (cursor != null) {
+            String[] c = decodeCursor(cursor);
+            at = Instant.parse(c[0]);
+            id = c[1];
+        }
+        return merge(sources(courseId), at, id, limit);
+    }
+
+    List<Source> sources(String courseId) {
+        return List.of(
+                (at, id, limit) -> (at == null
+                        ? feed.findByCourseIdOrderByCreatedAtDescIdDesc(courseId, PageRequest.of(0, limit))
+                        : feed.findPageBefore(courseId, at, id, PageRequest.of(0, limit)))
+                        .stream()
+                        .map(f -> new TimelineItem("feed", f.getId(), f.getCreatedAt(), f.getMessage(), null))
+                        .toList(),
+                (at, id, limit) -> materials.newestBefore(courseId, at, id, limit).stream()
+                        .map(m -> new TimelineItem("material", m.id(), m.createdAt(), m.title(), null))
+                        .toList(),
+                (at, id, limit) -> quizzes.quizzesNewestBefore(courseId, at, id, limit).stream()
+                        .map(q -> new TimelineItem("quiz", q.id(), q.createdAt(), q.title(), null))
+                        .toList(),
+                (at, id, limit) -> quizzes.attemptsNewestBefore(courseId, at, id, limit).stream()
+                        .map(a -> new TimelineItem("attempt", a.id(), a.submittedAt(), a.quizTitle(), a.quizId()))
+                        .toList()
+        );
+    }
+
+    static TimelinePage merge(List<Source> sources, Instant at, String id, int limit) {
+        int chunk = Math.min(limit + 1, MAX_CHUNK);
+
+        PriorityQueue<Lane> heads = new PriorityQueue<>(sources.size(), (a, b) -> NEWEST_FIRST.compare(a.head(), b.head()));
+        for (Source s : sources) {
+            Lane lane = new Lane(s, chunk, at, id);
+            if (lane.head() != null) heads.add(lane);
+        }
+
+        List<TimelineItem> items = new ArrayList<>(limit);
+        while (items.size() < limit && !heads.isEmpty()) {
+            Lane lane = heads.poll();
+            items.add(lane.take());
+            if (lane.head() != null) heads.add(lane);
+        }
+
+        boolean hasNext = !heads.isEmpty();
+        String next = hasNext ? encodeCursor(items.get(items.size() - 1)) : null;
+        return new TimelinePage(items, hasNext, next);
+    }
+
+    /** Jeden zdroj v průběhu slučování: načtený blok + kurzor, odkud číst další. */
+    private static final class Lane {
+        private final Source source;
+        private final int chunk;
+        private Instant at;
+        private String id;
+        private List<TimelineItem> buffer = List.of();
+        private int pos;
+        private boolean exhausted;
+
+        Lane(Source source, int chunk, Instant at, String id) {
+            this.source = source;
+            this.chunk = chunk;
+            this.at = at;
+            this.id = id;
+        }
+
+        TimelineItem head() {
+            if (pos == buffer.size() && !exhausted) fetch();
+            return pos < buffer.size() ? buffer.get(pos) : null;
+        }
+
+        TimelineItem take() {
+            return buffer.get(pos++);
+        }
+
+        private void fetch() {
+            List<TimelineItem> next = new ArrayList<>(source.before(at, id, chunk));
+            next.sort(NEWEST_FIRST);
+            exhausted = next.size() < chunk;
+            buffer = next;
+            pos = 0;
+            if (!next.isEmpty()) {
+                TimelineItem last = next.get(next.size() - 1);
+                at = TimelineOrder.orEpoch(last.at());
+                id = last.id();
+            }
+        }
+    }
+
+    static String encodeCursor(TimelineItem last) {
+        String raw = TimelineOrder.orEpoch(last.at()) + "\0" + last.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** @return [at, id] */
+    private static String[] decodeCursor(String cursor) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\0", -1);
+            if (parts.length == 2) Instant.parse(parts[0]);
+        } catch (IllegalArgumentException | DateTimeException e) {
+            parts = new String[0];
+        }
+        if (parts.length != 2 || parts[1].isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+        return parts;
+    }
+}
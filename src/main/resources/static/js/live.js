@@ -0,0 +1,107 @@
+// Jedno WebSocket spojení pro všechny živé aktualizace (/ws/live).
+//   Live.subscribe("materials:<courseId>", data => ...)
+//   Live.unsubscribe("materials:<courseId>")
+//   Live.onReconnect(() => ...)   // po výpadku mohly události utéct -> znovu načíst
+//   Live.onUnavailable(() => ...) // WebSocket nejde (chybí API, proxy ho blokuje) -> SSE
+// Při výpadku se automaticky znovu připojí (s rostoucí prodlevou) a obnoví odběry.
+// Když se spojení nepodaří otevřít MAX_FAILURES× po sobě, Live to vzdá a zavolá onUnavailable.
+const Live = (() => {
+  const MAX_FAILURES = 3;
+  const handlers = new Map();      // topic -> Set<fn>
+  const reconnectHooks = [];
+  const unavailableHooks = [];
+  let ws = null;
+  let retry = 0;
+  let failures = 0;                // pokusy po sobě, které se nepřipojily
+  let pingTimer = null;
+  let everOpened = false;
+  let unavailable = !("WebSocket" in window);
+
+  function url() {
+    const proto = location.protocol === "https:" ? "wss:" : "ws:";
+    return `${proto}//${location.host}/ws/live`;
+  }
+
+  function send(obj) {
+    if (ws && ws.readyState === WebSocket.OPEN) ws.send(JSON.stringify(obj));
+  }
+
+  function giveUp() {
+    if (unavailable) return;
+    unavailable = true;
+    ws = null;
+    unavailableHooks.forEach(fn => { try { fn(); } catch (_) {} });
+  }
+
+  function connect() {
+    if (unavailable) return;
+    let opened = false;
+    try {
+      ws = new WebSocket(url());
+    } catch (_) {
+      giveUp();
+      return;
+    }
+
+    ws.onopen = () => {
+      opened = true;
+      retry = 0;
+      failures = 0;
+      if (handlers.size) send({ op: "sub", topics: Array.from(handlers.keys()) });
+      pingTimer = setInterval(() => send({ op: "ping" }), 25000);
+      if (everOpened) reconnectHooks.forEach(fn => { try { fn(); } catch (_) {} });
+      everOpened = true;
+    };
+
+    ws.onmessage = (e) => {
+      let msg;
+      try { msg = JSON.parse(e.data); } catch (_) { return; }
+      const set = handlers.get(msg.t);
+      if (set) set.forEach(fn => { try { fn(msg.d); } catch (err) { console.error(err); } });
+    };
+
+    ws.onclose = () => {
+      clearInterval(pingTimer);
+      if (!opened && ++failures >= MAX_FAILURES) {
+        giveUp();
+        return;
+      }
+      ws = null;
+      const delay = Math.min(30000, 500 * Math.pow(2, retry++));
+      setTimeout(connect, delay);
+    };
+
+    ws.onerror = () => { /* po chybě vždy přijde onclose – reconnect nebo vzdání */ };
+  }
+
+  function subscribe(topic, fn) {
+    let set = handlers.get(topic);
+    if (!set) {
+      set = new Set();
+      handlers.set(topic, set);
+      send({ op: "sub", topics: [topic] });
+    }
+    set.add(fn);
+    if (!ws && !unavailable) connect();
+  }
+
+  function unsubscribe(topic) {
+    if (handlers.delete(topic)) send({ op: "unsub", topics: [topic] });
+  }
+
+  function onReconnect(fn) {
+    reconnectHooks.push(fn);
+  }
+
+  // zavolá se jednou; pokud už Live vzdal (nebo WebSocket chybí), hned
+  function onUnavailable(fn) {
+    if (unavailable) { try { fn(); } catch (_) {} }
+    else unavailableHooks.push(fn);
+  }
+
+  function supported() {
+    return !unavailable;
+  }
+
+  return { subscribe, unsubscribe, onReconnect, onUnavailable, supported };
+})();
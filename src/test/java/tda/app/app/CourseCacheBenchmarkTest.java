@@ -0,0 +1,98 @@
+package tda.app.app;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Počet SQL příkazů na jedno "načtení stránky" (detail kurzu + katalog)
+ * bez L2 cache (regiony vyprázdněné před každým načtením) a s ní.
+ *
+ * Vlastní in-memory H2 (ne ./uploads/feeddb); měření počtu SQL se spouští jen explicitně:
+ *   mvn test -Dtest=CourseCacheBenchmarkTest -Dcache.bench=true
+ */
+@SpringBootTest
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:course-cache;DB_CLOSE_DELAY=-1")
+class CourseCacheBenchmarkTest {
+
+    private static final int LOADS = 50;
+
+    @Autowired
+    CourseController courses;
+
+    @Autowired
+    CourseRepository repo;
+
+    @Autowired
+    EntityManagerFactory emf;
+
+    private SessionFactory sf;
+    private String courseId;
+
+    @BeforeEach
+    void setUp() {
+        sf = emf.unwrap(SessionFactory.class);
+        courseId = UUID.randomUUID().toString();
+        repo.save(new CourseEntity(courseId, "Cache benchmark", "Popis", "Lektor"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        repo.deleteById(courseId);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "cache.bench", matches = "true")
+    void secondLevelCacheRemovesCourseRoundTrips() {
+        Statistics stats = sf.getStatistics();
+        assertTrue(stats.isStatisticsEnabled(), "hibernate.generate_statistics musí být zapnuté");
+
+        double cold = statementsPerLoad(stats, true);
+        pageLoad(); // zahřátí cache
+        double warm = statementsPerLoad(stats, false);
+
+        System.out.printf("course cache: %.2f SQL/načtení bez cache, %.2f s cache%n", cold, warm);
+        assertTrue(cold >= 2, "bez cache čekáme dotaz na kurz i na seznam");
+        assertEquals(0.0, warm, "s teplou cache by stránka neměla jít do DB");
+    }
+
+    @Test
+    void updateAndDeleteInvalidateCache() {
+        pageLoad();
+        courses.update("Bearer " + Auth.TOKEN, courseId,
+                new CourseController.CourseCreateUpdateRequest("Nový název", "Popis", "Lektor"));
+        assertEquals("Nový název", courses.get(courseId).title());
+        assertTrue(courses.list(null, new MockHttpServletResponse()).stream().anyMatch(c -> c.title().equals("Nový název")));
+
+        courses.delete("Bearer " + Auth.TOKEN, courseId);
+        assertThrows(ResponseStatusException.class, () -> courses.get(courseId));
+        assertTrue(courses.list(null, new MockHttpServletResponse()).stream().noneMatch(c -> c.id().equals(courseId)));
+    }
+
+    private double statementsPerLoad(Statistics stats, boolean evict) {
+        long before = stats.getPrepareStatementCount();
+        for (int i = 0; i < LOADS; i++) {
+            if (evict) sf.getCache().evictAllRegions();
+            pageLoad();
+        }
+        return (stats.getPrepareStatementCount() - before) / (double) LOADS;
+    }
+
+    private void pageLoad() {
+        courses.get(courseId);
+        courses.list(null, new MockHttpServletResponse());
+    }
+}
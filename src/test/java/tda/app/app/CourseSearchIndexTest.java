@@ -0,0 +1,145 @@
+package tda.app.app;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourseSearchIndexTest {
+
+    private static CourseSearchIndex index(CourseEntity... courses) {
+        CourseSearchIndex idx = new CourseSearchIndex(null);
+        idx.load(List.of(courses));
+        return idx;
+    }
+
+    private static List<String> ids(List<Course> hits) {
+        return hits.stream().map(Course::id).toList();
+    }
+
+    @Test
+    void ignoresDiacriticsAndCase() {
+        CourseSearchIndex idx = index(
+                new CourseEntity("1", "Základy HTML", "Tagy a formuláře.", "Lektor A"),
+                new CourseEntity("2", "Úvod do JavaScriptu", "Proměnné, funkce.", "Lektor B")
+        );
+
+        assertEquals(List.of("1"), ids(idx.search("zaklady")));
+        assertEquals(List.of("1"), ids(idx.search("ZÁKLADY html")));
+        assertEquals(List.of("2"), ids(idx.search("uvod")));
+        assertEquals(List.of("2"), ids(idx.search("promenne")));
+    }
+
+    @Test
+    void matchesPrefixAndInfix() {
+        CourseSearchIndex idx = index(new CourseEntity("1", "Úvod do JavaScriptu", "DOM", "Lektor B"));
+
+        assertEquals(List.of("1"), ids(idx.search("java")));   // prefix
+        assertEquals(List.of("1"), ids(idx.search("script"))); // podřetězec
+        assertEquals(List.of("1"), ids(idx.search("vo")));     // kratší než trigram
+        assertEquals(List.of("1"), ids(idx.search("t")));
+        assertTrue(idx.search("python").isEmpty());
+    }
+
+    @Test
+    void requiresAllTermsAndRanksTitleFirst() {
+        CourseSearchIndex idx = index(
+                new CourseEntity("desc", "Web", "Kurz o HTML a CSS.", "Lektor A"),
+                new CourseEntity("title", "HTML pro začátečníky", "Úvod do webu.", "Lektor B"),
+                new CourseEntity("other", "CSS", "Layout.", "Lektor C")
+        );
+
+        assertEquals(List.of("title", "desc"), ids(idx.search("html")));
+        assertEquals(List.of("desc"), ids(idx.search("html css")));
+    }
+
+    @Test
+    void staysCurrentOnPutAndRemove() {
+        CourseSearchIndex idx = index(new CourseEntity("1", "Základy HTML", "Popis", "Lektor A"));
+
+        idx.put(new CourseEntity("1", "Pokročilé CSS", "Popis", "Lektor A"));
+        assertTrue(idx.search("html").isEmpty());
+        assertEquals(List.of("1"), ids(idx.search("pokrocile")));
+
+        idx.remove("1");
+        assertTrue(idx.search("pokrocile").isEmpty());
+        assertEquals(0, idx.size());
+    }
+
+    @Test
+    void pagesByKeyAndFiltersLecturerInsideIndex() {
+        List<CourseEntity> catalog = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            catalog.add(new CourseEntity("c" + i, (i % 3 == 0 ? "HTML " : "Web HTML ") + i, "Popis", "Lektor " + (i % 2)));
+        }
+        CourseSearchIndex idx = index(catalog.toArray(CourseEntity[]::new));
+        List<String> all = ids(idx.search("html"));
+
+        List<String> paged = new ArrayList<>();
+        CourseSearchIndex.SearchKey after = null;
+        List<CourseSearchIndex.Hit> page;
+        do {
+            page = idx.search("html", null, after, 7);
+            page.forEach(h -> paged.add(h.course().id()));
+            if (!page.isEmpty()) after = page.get(page.size() - 1).key();
+        } while (page.size() == 7);
+        assertEquals(all, paged);
+
+        List<CourseSearchIndex.Hit> lecturer1 = idx.search("html", "Lektor 1", null, 100);
+        assertEquals(15, lecturer1.size());
+        assertTrue(lecturer1.stream().allMatch(h -> h.course().lecturer().equals("Lektor 1")));
+        assertEquals(all.stream().filter(id -> Integer.parseInt(id.substring(1)) % 2 == 1).limit(5).toList(),
+                idx.search("html", "Lektor 1", null, 5).stream().map(h -> h.course().id()).toList());
+    }
+
+    /**
+     * Benchmark nad katalogem 100 000 kurzů (spouští se jen explicitně):
+     *   mvn test -Dtest=CourseSearchIndexTest -Dsearch.bench=true
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "search.bench", matches = "true")
+    void benchmark100kCatalog() {
+        String[] words = {"Základy", "Úvod", "Pokročilé", "HTML", "CSS", "JavaScript", "Java", "Python",
+                "databáze", "síťování", "bezpečnost", "grafika", "účetnictví", "čeština", "matematika",
+                "fyzika", "chemie", "řízení", "projektů", "programování", "algoritmy", "struktury"};
+        Random rnd = new Random(42);
+        List<CourseEntity> catalog = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            String title = words[rnd.nextInt(words.length)] + " " + words[rnd.nextInt(words.length)] + " " + i;
+            String desc = words[rnd.nextInt(words.length)] + " " + words[rnd.nextInt(words.length)] + " "
+                    + words[rnd.nextInt(words.length)];
+            catalog.add(new CourseEntity("c" + i, title, desc, "Lektor " + (i % 500)));
+        }
+
+        long t0 = System.nanoTime();
+        CourseSearchIndex idx = new CourseSearchIndex(null);
+        idx.load(catalog);
+        System.out.printf("search bench: build %d kurzů za %d ms%n", idx.size(), (System.nanoTime() - t0) / 1_000_000);
+
+        String[] queries = {"zaklady", "javascript", "rizeni projektu", "gram", "ucet", "lektor 42"};
+        for (String q : queries) {
+            int rounds = 50;
+            int hits = 0;
+            long t1 = System.nanoTime();
+            for (int r = 0; r < rounds; r++) hits = idx.search(q).size();
+            long indexUs = (System.nanoTime() - t1) / 1_000 / rounds;
+
+            // původní přístup: lineární průchod s toLowerCase().contains
+            long t2 = System.nanoTime();
+            for (int r = 0; r < rounds; r++) {
+                String s = q.toLowerCase();
+                catalog.stream().filter(c -> c.getTitle().toLowerCase().contains(s)
+                        || c.getDescription().toLowerCase().contains(s)
+                        || c.getLecturer().toLowerCase().contains(s)).count();
+            }
+            long scanUs = (System.nanoTime() - t2) / 1_000 / rounds;
+
+            System.out.printf("search bench: %-16s %6d výsledků, index %7d µs, scan %7d µs%n", q, hits, indexUs, scanUs);
+            assertTrue(hits > 0, q);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package tda.app.app;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourseVersionsTest {
+
+    @Test
+    void changeBumpsOnlyItsOwnResource() {
+        CourseVersions v = new CourseVersions();
+        String materials = v.etag("c1", CourseVersions.Resource.MATERIALS);
+        String quizzes = v.etag("c1", CourseVersions.Resource.QUIZZES);
+
+        v.onCourseChange(new CourseChangeEvent("c1", CourseChangeEvent.Kind.MATERIAL, CourseChangeEvent.Action.CREATED, "m1", null));
+
+        assertNotEquals(materials, v.etag("c1", CourseVersions.Resource.MATERIALS));
+        assertEquals(quizzes, v.etag("c1", CourseVersions.Resource.QUIZZES));
+        assertEquals(0, v.version("c2", CourseVersions.Resource.MATERIALS));
+        assertTrue(materials.startsWith("\"") && materials.endsWith("\""), "silný ETag je v uvozovkách");
+    }
+
+    @Test
+    void restartChangesEtagForSameVersion() {
+        assertNotEquals(new CourseVersions().etag("c1", CourseVersions.Resource.FEED),
+                new CourseVersions().etag("c1", CourseVersions.Resource.FEED));
+    }
+}
@@ -0,0 +1,116 @@
+package tda.app.app;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MaterialArchiveTest {
+
+    @TempDir
+    Path dir;
+
+    private final List<Material> materials = new ArrayList<>();
+    private byte[] video;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        video = new byte[300_000];
+        new Random(7).nextBytes(video);
+        Files.write(dir.resolve("s1_lecture.mp4"), video);
+        Files.writeString(dir.resolve("s2_notes.txt"), "poznámky ".repeat(5_000));
+        Files.writeString(dir.resolve("s3_notes.txt"), "jiné poznámky");
+
+        Instant t = Instant.parse("2026-03-01T08:00:00Z");
+        materials.add(file("m1", "lecture.mp4", "s1_lecture.mp4", t));
+        materials.add(file("m2", "notes.txt", "s2_notes.txt", t.plusSeconds(60)));
+        materials.add(file("m3", "Notes.txt", "s3_notes.txt", t.plusSeconds(120)));
+        materials.add(file("m4", "missing.pdf", "s4_missing.pdf", t.plusSeconds(180)));
+        materials.add(new Material("m5", "c1", MaterialType.LINK, "Dokumentace <Java>", "API", t.plusSeconds(240),
+                "https://docs.oracle.com/", null, null, null, null, 0L));
+        materials.add(new Material("m6", "c1", MaterialType.LINK, "Zlý odkaz", null, t.plusSeconds(300),
+                "javascript:alert(1)", null, null, null, null, 0L));
+    }
+
+    @Test
+    void storesCompressedTypesAndDeflatesTheRest() throws Exception {
+        byte[] zip = write(MaterialArchive.of(materials, dir));
+
+        Map<String, Integer> methods = new HashMap<>();
+        Map<String, byte[]> contents = new HashMap<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip), StandardCharsets.UTF_8)) {
+            ZipEntry e;
+            while ((e = in.getNextEntry()) != null) {
+                methods.put(e.getName(), e.getMethod());
+                contents.put(e.getName(), in.readAllBytes());
+            }
+        }
+
+        assertEquals(List.of("Notes (2).txt", "lecture.mp4", "links.html", "notes.txt"), methods.keySet().stream().sorted().toList());
+        assertEquals(ZipEntry.STORED, (int) methods.get("lecture.mp4"));
+        assertEquals(ZipEntry.DEFLATED, (int) methods.get("notes.txt"));
+        assertArrayEquals(video, contents.get("lecture.mp4"));
+
+        String links = new String(contents.get("links.html"), StandardCharsets.UTF_8);
+        assertTrue(links.contains("<a href=\"https://docs.oracle.com/\">Dokumentace &lt;Java&gt;</a>"));
+        assertFalse(links.contains("href=\"javascript:"));
+    }
+
+    @Test
+    void isDeterministicAndResumable() throws Exception {
+        MaterialArchive archive = MaterialArchive.of(materials, dir);
+        byte[] full = write(archive);
+
+        assertEquals(full.length, archive.length());
+        // jen STORED položky: délka z hlaviček, bez čtení souborů
+        MaterialArchive stored = MaterialArchive.of(List.of(materials.get(0)), dir);
+        assertEquals(write(stored).length, stored.length());
+        assertEquals(archive.etag(), MaterialArchive.of(materials, dir).etag());
+        assertArrayEquals(full, write(MaterialArchive.of(materials, dir)));
+
+        for (long[] r : new long[][]{{0, 99}, {1_000, full.length - 1}, {150_000, 150_000}, {full.length - 22, full.length - 1}}) {
+            ByteArrayOutputStream part = new ByteArrayOutputStream();
+            archive.writeRange(part, r[0], r[1]);
+            assertArrayEquals(Arrays.copyOfRange(full, (int) r[0], (int) r[1] + 1), part.toByteArray(), "rozsah " + r[0] + "-" + r[1]);
+        }
+
+        materials.remove(2);
+        assertNotEquals(archive.etag(), MaterialArchive.of(materials, dir).etag());
+    }
+
+    @Test
+    void parsesSingleByteRanges() {
+        assertArrayEquals(new long[]{100, 999}, MaterialController.byteRange("100-", 1000));
+        assertArrayEquals(new long[]{0, 49}, MaterialController.byteRange("0-49", 1000));
+        assertArrayEquals(new long[]{900, 999}, MaterialController.byteRange("-100", 1000));
+        assertArrayEquals(new long[]{500, 999}, MaterialController.byteRange("500-5000", 1000));
+        assertNull(MaterialController.byteRange("1000-", 1000));
+        assertNull(MaterialController.byteRange("9-3", 1000));
+    }
+
+    private static byte[] write(MaterialArchive archive) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(archive.write(out), out.size());
+        return out.toByteArray();
+    }
+
+    private static Material file(String id, String original, String stored, Instant at) {
+        return new Material(id, "c1", MaterialType.FILE, original, "", at, null, null, original, stored, null, 0L);
+    }
+}
@@ -0,0 +1,56 @@
+package tda.app.app;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tda.app.app.budget.Budget;
+import tda.app.app.budget.BudgetMeter;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Rozpočet seznamu materiálů (GET /api/courses/{id}/materials) – 200 materiálů v kurzu,
+ * controller nad vlastním adresářem.
+ */
+class MaterialControllerBudgetTest {
+
+    private static final String COURSE = "budget-course";
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @TempDir
+    Path dir;
+
+    private MaterialController controller;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Random rnd = new Random(42);
+        Instant base = Instant.parse("2026-01-01T00:00:00Z");
+        List<Material> materials = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            materials.add(new Material("m" + i, COURSE, MaterialType.LINK, "Materiál " + i, "Popis " + i,
+                    base.plusSeconds(rnd.nextInt(10_000_000)), "https://example.com/" + i, null, null, null, null, 0L));
+        }
+        Files.write(dir.resolve("materials.json"), MAPPER.writeValueAsBytes(Map.of(COURSE, materials)));
+
+        controller = new MaterialController(null, event -> {}, new SimpleMeterRegistry(), dir);
+        controller.init();
+    }
+
+    @Test
+    @Budget(bytesPerOp = 8 * 1024, millisPerOp = 0.2)
+    void list(BudgetMeter meter) throws Exception {
+        meter.measure(() -> controller.list(COURSE));
+    }
+}
@@ -0,0 +1,60 @@
+package tda.app.app;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/** Hashované assety z asset-manifest.json (výstup AssetPipeline) se servírují jako immutable. */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:static-assets;DB_CLOSE_DELAY=-1")
+class StaticAssetsConfigTest {
+
+    @Autowired
+    MockMvc mvc;
+
+    @Test
+    void servesHashedAssetsAsImmutable() throws Exception {
+        for (String original : new String[]{"/style.css", "/js/live.js"}) {
+            String hashed = hashedName(original);
+
+            MvcResult res = mvc.perform(get(hashed)).andReturn();
+            assertEquals(200, res.getResponse().getStatus(), hashed);
+            assertTrue(res.getResponse().getHeader(HttpHeaders.CACHE_CONTROL).contains("immutable"), hashed);
+            assertTrue(res.getResponse().getContentAsByteArray().length > 0, hashed);
+
+            // předkomprimovaná varianta podle Accept-Encoding
+            MvcResult gz = mvc.perform(get(hashed).header(HttpHeaders.ACCEPT_ENCODING, "gzip")).andReturn();
+            assertEquals(200, gz.getResponse().getStatus(), hashed);
+            assertEquals("gzip", gz.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING), hashed);
+        }
+    }
+
+    @Test
+    void unknownHashIsNotFound() throws Exception {
+        assertEquals(404, mvc.perform(get("/js/live.0000000000.js")).andReturn().getResponse().getStatus());
+    }
+
+    private static String hashedName(String original) throws Exception {
+        ClassPathResource manifest = new ClassPathResource("static/asset-manifest.json");
+        assumeTrue(manifest.exists(), "asset pipeline neběžela (process-resources)");
+        String json = manifest.getContentAsString(StandardCharsets.UTF_8);
+        Matcher m = Pattern.compile("\"" + Pattern.quote(original) + "\": \"([^\"]+)\"").matcher(json);
+        assertTrue(m.find(), original + " chybí v manifestu");
+        return m.group(1);
+    }
+}
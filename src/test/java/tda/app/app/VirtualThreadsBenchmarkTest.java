@@ -0,0 +1,194 @@
+package tda.app.app;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Srovnání platformních vláken (pevný pool Tomcatu) a profilu vthreads při smíšené zátěži:
+ * katalog, souhrn kurzu (H2 + souběžné větve), stažení souboru (file I/O), seznam materiálů
+ * a zápis do feedu. Každý režim běží ve vlastní instanci aplikace s in-memory DB.
+ *
+ * Spouští se jen explicitně:
+ *   mvn test -Dtest=VirtualThreadsBenchmarkTest -Dvthreads.bench=true
+ *       [-Dvthreads.bench.clients=400] [-Dvthreads.bench.seconds=15] [-Dvthreads.bench.tomcat-threads=50]
+ *
+ * Výstup: propustnost (req/s), p50/p99/max latence a počet chyb pro oba režimy.
+ */
+@EnabledIfSystemProperty(named = "vthreads.bench", matches = "true")
+class VirtualThreadsBenchmarkTest {
+
+    private static final int FILE_BYTES = 256 * 1024;
+    private static final String AUTH = "Bearer " + Auth.TOKEN;
+
+    private record Result(String mode, long requests, long errors, double seconds, long[] latenciesMicros) {
+        double throughput() {
+            return requests / seconds;
+        }
+
+        long percentile(double p) {
+            if (latenciesMicros.length == 0) return 0;
+            int idx = (int) Math.ceil(p / 100.0 * latenciesMicros.length) - 1;
+            return latenciesMicros[Math.max(0, Math.min(idx, latenciesMicros.length - 1))];
+        }
+    }
+
+    @Test
+    void comparesPlatformAndVirtualThreads() throws Exception {
+        int clients = Integer.getInteger("vthreads.bench.clients", 400);
+        int seconds = Integer.getInteger("vthreads.bench.seconds", 15);
+        int tomcatThreads = Integer.getInteger("vthreads.bench.tomcat-threads", 50);
+
+        Map<String, String> platform = new LinkedHashMap<>();
+        platform.put("spring.threads.virtual.enabled", "false");
+        platform.put("server.tomcat.threads.max", String.valueOf(tomcatThreads));
+
+        Map<String, String> virtual = new LinkedHashMap<>();
+        virtual.put("spring.threads.virtual.enabled", "true");
+        virtual.put("app.vthreads.pinning-monitor.enabled", "true");
+
+        Result p = run("platform(" + tomcatThreads + ")", platform, clients, seconds);
+        Result v = run("virtual", virtual, clients, seconds);
+
+        System.out.printf("%n%-14s %10s %9s %9s %9s %8s%n", "režim", "req/s", "p50 ms", "p99 ms", "max ms", "chyby");
+        for (Result r : List.of(p, v)) {
+            System.out.printf("%-14s %10.0f %9.1f %9.1f %9.1f %8d%n", r.mode(), r.throughput(),
+                    r.percentile(50) / 1000.0, r.percentile(99) / 1000.0, r.percentile(100) / 1000.0, r.errors());
+        }
+
+        assertTrue(p.requests() > 0 && v.requests() > 0, "benchmark neodbavil žádné requesty");
+    }
+
+    private Result run(String mode, Map<String, String> props, int clients, int seconds) throws Exception {
+        Map<String, String> all = new LinkedHashMap<>(props);
+        all.put("server.port", "0");
+        all.put("spring.datasource.url", "jdbc:h2:mem:vtbench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        all.put("app.feed.sse.heartbeat-millis", "0");
+
+        String[] args = all.entrySet().stream().map(e -> "--" + e.getKey() + "=" + e.getValue()).toArray(String[]::new);
+        try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(AppApplication.class).run(args)) {
+            int port = ((WebServerApplicationContext) ctx).getWebServer().getPort();
+            String base = "http://localhost:" + port;
+
+            String courseId = UUID.randomUUID().toString();
+            ctx.getBean(CourseRepository.class).save(new CourseEntity(courseId, "Benchmark " + mode, "Popis", "Lektor"));
+            MaterialController materials = ctx.getBean(MaterialController.class);
+            Material file = materials.upload(AUTH, courseId, "bench.pdf", null,
+                    new MockMultipartFile("file", "bench.pdf", "application/pdf", new byte[FILE_BYTES]));
+
+            try {
+                List<HttpRequest> reads = List.of(
+                        get(base + "/api/courses?size=20"),
+                        get(base + "/api/courses/" + courseId + "/overview"),
+                        get(base + "/api/courses/" + courseId + "/materials/" + file.id() + "/download"),
+                        get(base + "/api/courses/" + courseId + "/materials")
+                );
+                // váhy operací: katalog 40 %, souhrn 25 %, download 20 %, materiály 10 %, zápis do feedu 5 %
+                int[] weights = {40, 25, 20, 10};
+                HttpRequest write = HttpRequest.newBuilder(URI.create(base + "/api/courses/" + courseId + "/feed"))
+                        .header("Authorization", AUTH)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"message\":\"benchmark\"}"))
+                        .build();
+
+                load(reads, weights, write, clients, 3); // zahřátí (JIT, cache, spojení)
+                Result r = load(reads, weights, write, clients, seconds);
+                ctx.getBeanProvider(VirtualThreadPinningMonitor.class).ifAvailable(m ->
+                        System.out.println(mode + " pinning: " + m.stats()));
+                return new Result(mode, r.requests(), r.errors(), r.seconds(), r.latenciesMicros());
+            } finally {
+                materials.delete(AUTH, courseId, file.id());
+            }
+        }
+    }
+
+    private static Result load(List<HttpRequest> reads, int[] weights, HttpRequest write, int clients, int seconds)
+            throws Exception {
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(pool)
+                     .connectTimeout(Duration.ofSeconds(5))
+                     .build()) {
+
+            long start = System.nanoTime();
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                futures.add(pool.submit(() -> {
+                    long[] lat = new long[1024];
+                    int n = 0;
+                    ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest req = pick(reads, weights, write, rnd.nextInt(100));
+                        long t0 = System.nanoTime();
+                        try {
+                            HttpResponse<byte[]> res = http.send(req, HttpResponse.BodyHandlers.ofByteArray());
+                            if (res.statusCode() >= 400) errors.incrementAndGet();
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        if (n == lat.length) lat = Arrays.copyOf(lat, n * 2);
+                        lat[n++] = (System.nanoTime() - t0) / 1000;
+                    }
+                    return Arrays.copyOf(lat, n);
+                }));
+            }
+
+            List<long[]> parts = new ArrayList<>();
+            int total = 0;
+            for (Future<long[]> f : futures) {
+                long[] part = f.get();
+                parts.add(part);
+                total += part.length;
+            }
+            double elapsed = (System.nanoTime() - start) / 1e9;
+
+            long[] all = new long[total];
+            int pos = 0;
+            for (long[] part : parts) {
+                System.arraycopy(part, 0, all, pos, part.length);
+                pos += part.length;
+            }
+            Arrays.sort(all);
+            return new Result("", total, errors.get(), elapsed, all);
+        }
+    }
+
+    private static HttpRequest pick(List<HttpRequest> reads, int[] weights, HttpRequest write, int roll) {
+        int acc = 0;
+        for (int i = 0; i < weights.length; i++) {
+            acc += weights[i];
+            if (roll < acc) return reads.get(i);
+        }
+        return write;
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).GET().build();
+    }
+}
@@ -0,0 +1,33 @@
+package tda.app.app.budget;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Rozpočet jedné operace na hot path: alokované bajty a průměrný čas na jedno volání.
+ *
+ * Test dostane parametr BudgetMeter a operaci změří přes meter.measure(...); překročení
+ * rozpočtu alokací test shodí vždy (mvn test), časový rozpočet jen s -Dbudget.time=true.
+ * Limity jsou s rezervou nad naměřenou hodnotou – cílem je chytit regresi (nová kopie
+ * seznamu, serializace navíc), ne šum.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(BudgetExtension.class)
+public @interface Budget {
+
+    /** Max. alokovaných bajtů na jedno volání (průměr přes iterace). */
+    long bytesPerOp();
+
+    /** Max. průměrný čas jednoho volání v ms (vynucuje se jen s -Dbudget.time=true). */
+    double millisPerOp();
+
+    /** Volání před měřením (JIT, cache, první alokace bufferů). */
+    int warmup() default 2_000;
+
+    int iterations() default 5_000;
+}
@@ -0,0 +1,31 @@
+package tda.app.app.budget;
+
+import org.junit.jupiter.api.extension.ExtensionConfigurationException;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Předá testu s anotací @Budget parametr BudgetMeter nastavený podle jeho rozpočtu.
+ * JVM bez čítače alokací per vlákno (ne-HotSpot) test přeskočí.
+ */
+public class BudgetExtension implements ParameterResolver {
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return parameterContext.getParameter().getType() == BudgetMeter.class;
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        Budget budget = extensionContext.getRequiredTestMethod().getAnnotation(Budget.class);
+        if (budget == null) {
+            throw new ExtensionConfigurationException("BudgetMeter vyžaduje anotaci @Budget na testu.");
+        }
+        com.sun.management.ThreadMXBean threads = BudgetMeter.threadBean();
+        assumeTrue(threads != null, "JVM neumí měřit alokace per vlákno");
+        return new BudgetMeter(threads, budget, extensionContext.getRequiredTestMethod().getName());
+    }
+}
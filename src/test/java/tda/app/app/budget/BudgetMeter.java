@@ -0,0 +1,70 @@
+package tda.app.app.budget;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Měření rozpočtu operace: alokace přes čítač alokací aktuálního vlákna
+ * (com.sun.management.ThreadMXBean) a čas přes System.nanoTime().
+ *
+ * Operace musí běžet synchronně na vlákně testu – alokace jiných vláken se nepočítají.
+ *
+ * Časový rozpočet závisí na stroji (sdílené CI runnery), proto se vynucuje jen na vyžádání:
+ *   mvn test -Dbudget.time=true
+ */
+public final class BudgetMeter {
+
+    private static final boolean ENFORCE_TIME = Boolean.getBoolean("budget.time");
+
+    public interface Op {
+        void run() throws Exception;
+    }
+
+    public record Result(String label, double bytesPerOp, double millisPerOp) {}
+
+    private final com.sun.management.ThreadMXBean threads;
+    private final Budget budget;
+    private final String testName;
+
+    BudgetMeter(com.sun.management.ThreadMXBean threads, Budget budget, String testName) {
+        this.threads = threads;
+        this.budget = budget;
+        this.testName = testName;
+    }
+
+    static com.sun.management.ThreadMXBean threadBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported()) {
+            if (!bean.isThreadAllocatedMemoryEnabled()) bean.setThreadAllocatedMemoryEnabled(true);
+            return bean;
+        }
+        return null;
+    }
+
+    public Result measure(Op op) throws Exception {
+        return measure(testName, op);
+    }
+
+    /** Zahřeje, změří průměr přes budget.iterations() a porovná s rozpočtem testu. */
+    public Result measure(String label, Op op) throws Exception {
+        for (int i = 0; i < budget.warmup(); i++) op.run();
+
+        int n = Math.max(1, budget.iterations());
+        long bytesBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < n; i++) op.run();
+        long nanos = System.nanoTime() - start;
+        long bytes = threads.getCurrentThreadAllocatedBytes() - bytesBefore;
+
+        Result r = new Result(label, (double) bytes / n, nanos / 1e6 / n);
+
+        if (r.bytesPerOp() > budget.bytesPerOp()) {
+            fail(String.format("%s: %.0f B/op překračuje rozpočet %d B/op", label, r.bytesPerOp(), budget.bytesPerOp()));
+        }
+        if (ENFORCE_TIME && r.millisPerOp() > budget.millisPerOp()) {
+            fail(String.format("%s: %.4f ms/op překračuje rozpočet %s ms/op", label, r.millisPerOp(), budget.millisPerOp()));
+        }
+        return r;
+    }
+}
@@ -0,0 +1,60 @@
+package tda.app.app.bulkhead;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadTest {
+
+    @Test
+    void rejectsWhenLimitAndQueueAreFull() throws Exception {
+        Bulkhead b = new Bulkhead("files", 1, 0, 0);
+
+        assertEquals(Bulkhead.Admission.ADMITTED, b.acquire());
+        assertEquals(Bulkhead.Admission.QUEUE_FULL, b.acquire());
+
+        b.release();
+        assertEquals(Bulkhead.Admission.ADMITTED, b.acquire());
+        b.release();
+
+        Bulkhead.Stats s = b.stats();
+        assertEquals(2, s.admitted());
+        assertEquals(1, s.rejectedQueueFull());
+        assertEquals(0, s.active());
+        assertEquals(1, s.peakActive());
+    }
+
+    @Test
+    void queuedRequestWaitsForReleaseOrTimesOut() throws Exception {
+        Bulkhead b = new Bulkhead("api", 1, 1, 5_000);
+        assertEquals(Bulkhead.Admission.ADMITTED, b.acquire());
+
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            CountDownLatch started = new CountDownLatch(1);
+            Future<Bulkhead.Admission> waiter = pool.submit(() -> {
+                started.countDown();
+                return b.acquire();
+            });
+            started.await();
+            while (b.stats().waiting() == 0) Thread.sleep(1);
+
+            // fronta (1) je plná -> další request hned odmítnut, ostatní třídy nečekají
+            assertEquals(Bulkhead.Admission.QUEUE_FULL, b.acquire());
+
+            b.release();
+            assertEquals(Bulkhead.Admission.ADMITTED, waiter.get(5, TimeUnit.SECONDS));
+            assertEquals(1, b.stats().queued());
+        }
+
+        Bulkhead quick = new Bulkhead("api", 1, 1, 20);
+        assertEquals(Bulkhead.Admission.ADMITTED, quick.acquire());
+        assertEquals(Bulkhead.Admission.TIMED_OUT, quick.acquire());
+        assertEquals(1, quick.stats().rejectedTimeout());
+    }
+}
@@ -0,0 +1,54 @@
+package tda.app.app.capture;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TraceSanitizerTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    void bodyKeepsShapeButNotText() throws Exception {
+        JsonNode body = MAPPER.readTree("""
+                {"message":"Ahoj třído","answers":{"q1":["opt-a","opt-b"]},"limit":20,"draft":true,"note":null}""");
+
+        JsonNode shaped = TraceSanitizer.shape(body);
+
+        assertEquals("xxxxxxxxxx", shaped.path("message").asText());
+        assertEquals(2, shaped.path("answers").path("q1").size());
+        assertEquals("xxxxx", shaped.path("answers").path("q1").get(0).asText());
+        assertEquals(20, shaped.path("limit").asInt());
+        assertTrue(shaped.path("draft").asBoolean());
+        assertTrue(shaped.path("note").isNull());
+        assertFalse(shaped.toString().contains("Ahoj"));
+    }
+
+    @Test
+    void queryKeepsNumbersAndMasksText() {
+        Map<String, String> q = TraceSanitizer.query("size=20&search=jan%20nov%C3%A1k&page=2&flag");
+
+        assertEquals("20", q.get("size"));
+        assertEquals("2", q.get("page"));
+        assertEquals("xxxxxxxxx", q.get("search"));
+        assertEquals("", q.get("flag"));
+        assertNull(TraceSanitizer.query(null));
+    }
+
+    @Test
+    void studentPseudonymIsStableAndOpaque() {
+        TraceSanitizer s = new TraceSanitizer();
+
+        assertEquals(s.pseudonym("student-42"), s.pseudonym("student-42"));
+        assertNotEquals(s.pseudonym("student-42"), s.pseudonym("student-43"));
+        assertTrue(s.pseudonym("student-42").matches("[0-9a-f]{16}"));
+        // jiná sůl (restart) -> jiný pseudonym
+        assertNotEquals(s.pseudonym("student-42"), new TraceSanitizer().pseudonym("student-42"));
+        assertNull(s.pseudonym(" "));
+        assertEquals("file.mp4", TraceSanitizer.extension("Přednáška 3 - Novák.MP4"));
+    }
+}
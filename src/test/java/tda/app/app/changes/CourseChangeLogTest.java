@@ -0,0 +1,102 @@
+package tda.app.app.changes;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tda.app.app.CourseChangeEvent;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourseChangeLogTest {
+
+    private CourseChangeLog log;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource ds = new JdbcDataSource();
+        ds.setURL("jdbc:h2:mem:changes-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        log = new CourseChangeLog(ds, 150);
+        log.init();
+    }
+
+    @Test
+    void returnsOnlyDeltasInOrder() {
+        change("c1", CourseChangeEvent.Kind.MATERIAL, CourseChangeEvent.Action.CREATED, "m1");
+        change("c1", CourseChangeEvent.Kind.ATTEMPT, CourseChangeEvent.Action.CREATED, "a1");
+        change("c2", CourseChangeEvent.Kind.QUIZ, CourseChangeEvent.Action.CREATED, "q1");
+        change("c1", CourseChangeEvent.Kind.QUIZ, CourseChangeEvent.Action.DELETED, "q2");
+
+        CourseChangeLog.Changes all = log.since("c1", 0, 100);
+        assertFalse(all.snapshot());
+        assertEquals(2, all.seq());
+        assertEquals("material", all.changes().get(0).kind());
+        assertEquals("{\"action\":\"deleted\",\"id\":\"q2\"}", all.changes().get(1).data());
+
+        CourseChangeLog.Changes delta = log.since("c1", 1, 100);
+        assertEquals(1, delta.changes().size());
+        assertEquals("q2", delta.changes().get(0).id());
+
+        assertTrue(log.since("c1", 2, 100).changes().isEmpty());
+        assertTrue(log.since("c1", 7, 100).snapshot(), "seq, který log nevydal");
+    }
+
+    @Test
+    void pagesAndCompactsToSnapshotWhenTooOld() {
+        for (int i = 0; i < 300; i++) {
+            change("c1", CourseChangeEvent.Kind.MATERIAL, CourseChangeEvent.Action.UPDATED, "m" + i);
+        }
+
+        // 300 % 100 == 0 -> ořez na posledních 150
+        assertTrue(log.since("c1", 0, 100).snapshot());
+        assertTrue(log.since("c1", 149, 100).snapshot());
+
+        CourseChangeLog.Changes page = log.since("c1", 150, 100);
+        assertFalse(page.snapshot());
+        assertTrue(page.hasMore());
+        assertEquals(250, page.seq());
+
+        CourseChangeLog.Changes rest = log.since("c1", page.seq(), 100);
+        assertFalse(rest.hasMore());
+        assertEquals(50, rest.changes().size());
+        assertEquals(300, rest.seq());
+    }
+
+    @Test
+    void failedAppendForcesSnapshotForClientsBehindIt() {
+        change("c1", CourseChangeEvent.Kind.MATERIAL, CourseChangeEvent.Action.CREATED, "m1");
+        change("c1", CourseChangeEvent.Kind.MATERIAL, CourseChangeEvent.Action.CREATED, "m2");
+
+        // item_id přes VARCHAR(255) -> insert selže
+        change("c1", CourseChangeEvent.Kind.MATERIAL, CourseChangeEvent.Action.CREATED, "x".repeat(300));
+
+        CourseChangeLog.Changes behind = log.since("c1", 2, 100);
+        assertTrue(behind.snapshot());
+        assertEquals(3, behind.seq());
+        assertTrue(log.since("c1", 1, 100).snapshot());
+
+        CourseChangeLog.Changes fresh = log.since("c1", 3, 100);
+        assertFalse(fresh.snapshot());
+        assertTrue(fresh.changes().isEmpty());
+
+        change("c1", CourseChangeEvent.Kind.MATERIAL, CourseChangeEvent.Action.CREATED, "m4");
+        CourseChangeLog.Changes next = log.since("c1", 3, 100);
+        assertEquals(4, next.seq());
+        assertEquals("m4", next.changes().get(0).id());
+    }
+
+    @Test
+    void skipsFeedChangesRelayedFromOtherInstances() {
+        log.onCourseChange(new CourseChangeEvent("c1", CourseChangeEvent.Kind.FEED, CourseChangeEvent.Action.CREATED, "f1", null, true));
+        change("c1", CourseChangeEvent.Kind.FEED, CourseChangeEvent.Action.CREATED, "f2");
+
+        CourseChangeLog.Changes all = log.since("c1", 0, 100);
+        assertEquals(1, all.changes().size());
+        assertEquals("f2", all.changes().get(0).id());
+    }
+
+    private void change(String courseId, CourseChangeEvent.Kind kind, CourseChangeEvent.Action action, String id) {
+        log.onCourseChange(new CourseChangeEvent(courseId, kind, action, id, null));
+    }
+}
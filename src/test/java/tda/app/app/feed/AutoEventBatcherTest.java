@@ -0,0 +1,91 @@
+package tda.app.app.feed;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AutoEventBatcherTest {
+
+    private record Flushed(String courseId, List<String> messages) {}
+
+    private final BlockingQueue<Flushed> flushed = new LinkedBlockingQueue<>();
+    private final List<AutoEventBatcher> batchers = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        batchers.forEach(AutoEventBatcher::shutdown);
+    }
+
+    @Test
+    void flushesWhenWindowExpires() throws Exception {
+        AutoEventBatcher batcher = batcher(100, 10);
+        batcher.enqueue("c1", "a");
+        batcher.enqueue("c1", "b");
+        batcher.enqueue("c2", "c");
+
+        List<Flushed> got = List.of(next(), next());
+        assertTrue(got.contains(new Flushed("c1", List.of("a", "b"))), got.toString());
+        assertTrue(got.contains(new Flushed("c2", List.of("c"))), got.toString());
+    }
+
+    @Test
+    void flushesFullBatchAndStartsAFreshWindow() throws Exception {
+        long window = 400;
+        AutoEventBatcher batcher = batcher(window, 3);
+        long start = System.nanoTime();
+        batcher.enqueue("c1", "a");
+        batcher.enqueue("c1", "b");
+        batcher.enqueue("c1", "c");
+        assertEquals(new Flushed("c1", List.of("a", "b", "c")), next());
+
+        // časovač první dávky (start + window) nesmí zkrátit okno druhé
+        Thread.sleep(window / 2);
+        batcher.enqueue("c1", "d");
+        long untilFirstTimerPassed = window + 100 - (System.nanoTime() - start) / 1_000_000;
+        assertNull(flushed.poll(Math.max(0, untilFirstTimerPassed), TimeUnit.MILLISECONDS));
+        assertEquals(new Flushed("c1", List.of("d")), next());
+    }
+
+    @Test
+    void flushesPendingBatchesOnShutdown() {
+        AutoEventBatcher batcher = batcher(60_000, 10);
+        batcher.enqueue("c1", "a");
+        batcher.enqueue("c2", "b");
+
+        batcher.shutdown();
+        assertEquals(2, flushed.size());
+
+        // po shutdownu se zapisuje hned
+        batcher.enqueue("c1", "c");
+        assertEquals(3, flushed.size());
+    }
+
+    private AutoEventBatcher batcher(long windowMillis, int maxBatch) {
+        JdbcTemplate jdbc = new JdbcTemplate() {
+            @Override
+            public int[] batchUpdate(String sql, BatchPreparedStatementSetter pss) {
+                return new int[pss.getBatchSize()];
+            }
+        };
+        AutoEventBatcher batcher = new AutoEventBatcher(jdbc, windowMillis, maxBatch, false);
+        batcher.onFlushed((courseId, items) ->
+                flushed.add(new Flushed(courseId, items.stream().map(FeedService.FeedItemDto::message).toList())));
+        batchers.add(batcher);
+        return batcher;
+    }
+
+    private Flushed next() throws InterruptedException {
+        Flushed f = flushed.poll(5, TimeUnit.SECONDS);
+        assertNotNull(f, "žádná dávka do 5 s");
+        return f;
+    }
+}
@@ -0,0 +1,39 @@
+package tda.app.app.feed;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeedCacheTest {
+
+    @Test
+    void createdItemAlreadyInConcurrentlyLoadedWindowIsNotDuplicated() {
+        FeedCache cache = new FeedCache(10, 1 << 20);
+        FeedService.FeedItemDto old = item("f1", 1);
+        FeedService.FeedItemDto fresh = item("f2", 2);
+
+        // čtení z DB už vidí commitnutou f2, onCreated ještě neproběhl
+        long gen = cache.generation("c1");
+        cache.put("c1", List.of(fresh, old), gen);
+        cache.onCreated("c1", fresh);
+
+        assertEquals(List.of(fresh, old), cache.getAll("c1"));
+    }
+
+    @Test
+    void feedLongerThanWindowServesOnlyRecent() {
+        FeedCache cache = new FeedCache(2, 1 << 20);
+        cache.put("c1", List.of(item("f3", 3), item("f2", 2), item("f1", 1)), cache.generation("c1"));
+
+        assertNull(cache.getAll("c1"));
+        assertEquals(2, cache.getRecent("c1", 2).size());
+    }
+
+    private static FeedService.FeedItemDto item(String id, long second) {
+        Instant at = Instant.ofEpochSecond(second);
+        return new FeedService.FeedItemDto(id, "c1", FeedItemType.POST, "zpráva " + id, at, at, false);
+    }
+}
@@ -0,0 +1,46 @@
+package tda.app.app.feed;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import tda.app.app.budget.Budget;
+import tda.app.app.budget.BudgetMeter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Rozpočet čtení feedu kurzu (GET /api/courses/{id}/feed) z cache – 50 příspěvků.
+ */
+@SpringBootTest
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:feed-budget;DB_CLOSE_DELAY=-1")
+class FeedServiceBudgetTest {
+
+    @Autowired
+    FeedService feed;
+
+    private String courseId;
+    private final List<String> posts = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        courseId = "budget-" + UUID.randomUUID();
+        for (int i = 0; i < 50; i++) posts.add(feed.createLecturerPost(courseId, "Příspěvek " + i).id());
+        feed.list(courseId); // naplní cache
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (String id : posts) feed.deleteLecturerPost(courseId, id);
+    }
+
+    @Test
+    @Budget(bytesPerOp = 8 * 1024, millisPerOp = 0.5)
+    void listFromCache(BudgetMeter meter) throws Exception {
+        meter.measure(() -> feed.list(courseId));
+    }
+}
@@ -0,0 +1,127 @@
+package tda.app.app.feed;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Dvě instance busu nad stejnou DB – simulace dvou uzlů za load balancerem.
+ */
+class JdbcFeedEventBusTest {
+
+    private final List<JdbcFeedEventBus> nodes = new ArrayList<>();
+
+    @AfterEach
+    void stopNodes() {
+        nodes.forEach(JdbcFeedEventBus::stop);
+    }
+
+    @Test
+    void eventsReachAllInstancesInTheSameOrder() throws Exception {
+        DataSource ds = new DriverManagerDataSource("jdbc:h2:mem:feedbus;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcFeedEventBus nodeA = node(ds);
+        JdbcFeedEventBus nodeB = node(ds);
+
+        List<String> seenA = Collections.synchronizedList(new ArrayList<>());
+        List<String> seenB = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger localOnA = new AtomicInteger();
+        nodeA.subscribe((e, local) -> {
+            seenA.add(e.courseId() + "/" + e.id());
+            if (local) localOnA.incrementAndGet();
+        });
+        nodeB.subscribe((e, local) -> seenB.add(e.courseId() + "/" + e.id()));
+
+        int perNode = 100;
+        Thread pa = new Thread(() -> publish(nodeA, "a", perNode));
+        Thread pb = new Thread(() -> publish(nodeB, "b", perNode));
+        pa.start();
+        pb.start();
+        pa.join();
+        pb.join();
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while ((seenA.size() < 2 * perNode || seenB.size() < 2 * perNode) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        assertEquals(2 * perNode, seenA.size());
+        assertEquals(2 * perNode, seenB.size());
+        assertEquals(perNode, localOnA.get());
+
+        // obě instance doručily stejnou sekvenci => i pořadí v rámci kurzu je shodné
+        assertEquals(seenA, seenB);
+
+        // pořadí jednoho publikujícího v rámci kurzu zůstalo zachované
+        for (String course : List.of("c1", "c2")) {
+            for (String origin : List.of("a", "b")) {
+                List<String> ids = seenA.stream()
+                        .filter(s -> s.startsWith(course + "/" + origin))
+                        .toList();
+                List<String> sorted = new ArrayList<>(ids);
+                Collections.sort(sorted);
+                assertEquals(sorted, ids);
+            }
+        }
+    }
+
+    @Test
+    void seqCommittedAfterTheGapWasSkippedIsStillDelivered() throws Exception {
+        DataSource ds = new DriverManagerDataSource("jdbc:h2:mem:feedbus-late;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcFeedEventBus node = node(ds);
+        List<String> seen = Collections.synchronizedList(new ArrayList<>());
+        node.subscribe((e, local) -> seen.add(e.id()));
+
+        // seq 2 je vidět dřív než seq 1 (souběžná transakce jiné instance)
+        JdbcTemplate jdbc = new JdbcTemplate(ds);
+        outbox(jdbc, 2, "early");
+        await(() -> seen.contains("early"));
+
+        outbox(jdbc, 1, "late");
+        await(() -> seen.contains("late"));
+        assertEquals(List.of("early", "late"), seen);
+    }
+
+    private static void outbox(JdbcTemplate jdbc, long seq, String id) {
+        jdbc.update(
+                "INSERT INTO feed_outbox (seq, origin, course_id, payload, created_at) VALUES (?, 'other', 'c1', ?, CURRENT_TIMESTAMP)",
+                seq, "{\"courseId\":\"c1\",\"type\":\"delete\",\"id\":\"" + id + "\"}"
+        );
+    }
+
+    private static void await(BooleanSupplier done) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!done.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(done.getAsBoolean());
+    }
+
+    private JdbcFeedEventBus node(DataSource ds) {
+        JdbcFeedEventBus bus = new JdbcFeedEventBus(ds, 20, 600_000, false);
+        bus.start();
+        nodes.add(bus);
+        return bus;
+    }
+
+    private static void publish(JdbcFeedEventBus bus, String origin, int count) {
+        for (int i = 0; i < count; i++) {
+            String courseId = (i % 2 == 0) ? "c1" : "c2";
+            String id = String.format("%s-%03d", origin, i);
+            Instant now = Instant.now();
+            bus.publish(FeedEvent.created(new FeedService.FeedItemDto(
+                    id, courseId, FeedItemType.POST, "zpráva " + i, now, now, false
+            )));
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package tda.app.app.feed;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Zátěžový test SSE: otevře N (výchozí 50 000) nečinných spojení na jeden kurz,
+ * ověří, že se všechna zaregistrovala v pevném rozpočtu heapu a že jeden příspěvek
+ * dorazí všem.
+ *
+ * Spouští se jen explicitně (vyžaduje vyšší limit souborů, např. ulimit -n 200000):
+ *   mvn test -Dtest=SseLoadTest -Dsse.load=true [-Dsse.load.connections=50000]
+ *
+ * Klientské sockety se váží na 127.0.0.x, aby nedošly efemérní porty jedné adresy.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@EnabledIfSystemProperty(named = "sse.load", matches = "true")
+class SseLoadTest {
+
+    private static final int CONNECTIONS_PER_SOURCE_IP = 20_000;
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    FeedService feed;
+
+    private static final class Conn {
+        String tail = "";
+        boolean hello;
+        boolean feed;
+    }
+
+    @Test
+    void holdsManyIdleSubscribersWithinHeapBudget() throws Exception {
+        int n = Integer.getInteger("sse.load.connections", 50_000);
+        long budgetPerConnection = Long.getLong("sse.load.bytes-per-connection", 32 * 1024);
+        String courseId = "sse-load-" + UUID.randomUUID();
+        byte[] request = ("GET /api/courses/" + courseId + "/feed/stream HTTP/1.1\r\n"
+                + "Host: localhost\r\nAccept: text/event-stream\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+
+        int baseline = feed.subscriberCount();
+        long heapBefore = usedHeap();
+
+        List<SocketChannel> channels = new ArrayList<>(n);
+        try (Selector selector = Selector.open()) {
+            for (int i = 0; i < n; i++) {
+                SocketChannel ch = SocketChannel.open();
+                ch.bind(new InetSocketAddress("127.0.0." + (1 + i / CONNECTIONS_PER_SOURCE_IP), 0));
+                ch.connect(new InetSocketAddress("127.0.0.1", port));
+                ch.write(ByteBuffer.wrap(request));
+                ch.configureBlocking(false);
+                ch.register(selector, SelectionKey.OP_READ, new Conn());
+                channels.add(ch);
+            }
+
+            assertEquals(n, awaitAll(selector, n, false), "ne všechna spojení dostala hello");
+            assertEquals(baseline + n, feed.subscriberCount());
+
+            long perConnection = (usedHeap() - heapBefore) / n;
+            System.out.printf("SSE load: %d spojení, ~%d B heapu na spojení (klient i server)%n", n, perConnection);
+            assertTrue(perConnection < budgetPerConnection,
+                    "heap na spojení " + perConnection + " B > rozpočet " + budgetPerConnection + " B");
+
+            long t0 = System.nanoTime();
+            feed.createLecturerPost(courseId, "load test");
+            assertEquals(n, awaitAll(selector, n, true), "ne všechna spojení dostala událost feedu");
+            System.out.printf("SSE load: broadcast na %d spojení za %d ms%n", n, (System.nanoTime() - t0) / 1_000_000);
+        } finally {
+            for (SocketChannel ch : channels) {
+                try {
+                    ch.close();
+                } catch (Exception ignored) {
+                }
+            }
+        }
+    }
+
+    private static int awaitAll(Selector selector, int n, boolean feedEvent) throws Exception {
+        ByteBuffer buf = ByteBuffer.allocate(16 * 1024);
+        long deadline = System.currentTimeMillis() + 120_000;
+        int done = countDone(selector, feedEvent);
+
+        while (done < n && System.currentTimeMillis() < deadline) {
+            if (selector.select(500) == 0) continue;
+            var it = selector.selectedKeys().iterator();
+            while (it.hasNext()) {
+                SelectionKey key = it.next();
+                it.remove();
+                Conn c = (Conn) key.attachment();
+                buf.clear();
+                int read = ((SocketChannel) key.channel()).read(buf);
+                if (read <= 0) continue;
+
+                String chunk = c.tail + new String(buf.array(), 0, read, StandardCharsets.ISO_8859_1);
+                boolean before = feedEvent ? c.feed : c.hello;
+                if (chunk.contains("event:hello")) c.hello = true;
+                if (chunk.contains("event:feed")) c.feed = true;
+                c.tail = chunk.substring(Math.max(0, chunk.length() - 16));
+                if (!before && (feedEvent ? c.feed : c.hello)) done++;
+            }
+        }
+        return done;
+    }
+
+    private static int countDone(Selector selector, boolean feedEvent) {
+        int done = 0;
+        for (SelectionKey key : selector.keys()) {
+            Conn c = (Conn) key.attachment();
+            if (feedEvent ? c.feed : c.hello) done++;
+        }
+        return done;
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
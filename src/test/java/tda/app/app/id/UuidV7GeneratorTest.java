@@ -0,0 +1,63 @@
+package tda.app.app.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7GeneratorTest {
+
+    @Test
+    void layoutFollowsRfc9562() {
+        UuidV7Generator g = new UuidV7Generator(() -> 1_700_000_000_123L);
+        UUID id = g.next();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        assertEquals(1_700_000_000_123L, UuidV7Generator.timestamp(id));
+        assertEquals(-1, UuidV7Generator.timestamp(UUID.randomUUID()));
+    }
+
+    @Test
+    void staysOrderedWithinMillisecondOverflowAndClockGoingBack() {
+        AtomicLong clock = new AtomicLong(1_000);
+        UuidV7Generator g = new UuidV7Generator(clock::get);
+
+        List<String> ids = new ArrayList<>();
+        // 5000 ID v jedné ms -> přeteče 12bitová sekvence
+        for (int i = 0; i < 5_000; i++) ids.add(g.next().toString());
+        clock.set(900); // hodiny couvly
+        for (int i = 0; i < 10; i++) ids.add(g.next().toString());
+
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i - 1).compareTo(ids.get(i)) < 0, "ID " + i + " není větší než předchozí");
+        }
+    }
+
+    @Test
+    void uniqueAcrossThreads() throws Exception {
+        UuidV7Generator g = new UuidV7Generator();
+        List<Future<List<UUID>>> parts = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(8)) {
+            for (int t = 0; t < 8; t++) {
+                parts.add(pool.submit(() -> {
+                    List<UUID> out = new ArrayList<>();
+                    for (int i = 0; i < 20_000; i++) out.add(g.next());
+                    return out;
+                }));
+            }
+            Set<UUID> all = new HashSet<>();
+            for (Future<List<UUID>> f : parts) all.addAll(f.get());
+            assertEquals(8 * 20_000, all.size());
+        }
+    }
+}
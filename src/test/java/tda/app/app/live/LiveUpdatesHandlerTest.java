@@ -0,0 +1,97 @@
+package tda.app.app.live;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import tda.app.app.CourseChangeEvent;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.security.Principal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LiveUpdatesHandlerTest {
+
+    // jedno lane -> události se doručují v pořadí publikace
+    private final LiveUpdatesHandler handler = new LiveUpdatesHandler(1, false);
+
+    @AfterEach
+    void tearDown() {
+        handler.shutdown();
+    }
+
+    @Test
+    void deliversOnlySubscribedTopicsUntilUnsubscribed() throws Exception {
+        FakeSession session = new FakeSession("s1");
+        handler.afterConnectionEstablished(session);
+        handler.handleTextMessage(session, new TextMessage("{\"op\":\"sub\",\"topics\":[\"materials:c1\",\"feed:c1\",\"quizzes:bad id\"]}"));
+
+        material("c2", "m0");
+        material("c1", "m1");
+        String frame = session.next();
+        assertTrue(frame.contains("\"t\":\"materials:c1\""), frame);
+        assertTrue(frame.contains("\"id\":\"m1\""), frame);
+
+        handler.handleTextMessage(session, new TextMessage("{\"op\":\"unsub\",\"topics\":[\"materials:c1\"]}"));
+        material("c1", "m2");
+        handler.onCourseChange(new CourseChangeEvent("c1", CourseChangeEvent.Kind.FEED, CourseChangeEvent.Action.DELETED, "f1", null));
+        assertTrue(session.next().contains("\"t\":\"feed:c1\""), "m2 se po unsub nesmí doručit");
+
+        handler.handleTextMessage(session, new TextMessage("{\"op\":\"ping\"}"));
+        assertEquals("{\"t\":\"pong\"}", session.next());
+
+        handler.afterConnectionClosed(session, CloseStatus.NORMAL);
+        assertEquals(0, handler.sessionCount());
+    }
+
+    private void material(String courseId, String id) {
+        handler.onCourseChange(new CourseChangeEvent(courseId, CourseChangeEvent.Kind.MATERIAL, CourseChangeEvent.Action.DELETED, id, null));
+    }
+
+    private static final class FakeSession implements WebSocketSession {
+        private final String id;
+        private final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+        private final Map<String, Object> attributes = new HashMap<>();
+        private boolean open = true;
+
+        FakeSession(String id) {
+            this.id = id;
+        }
+
+        String next() throws InterruptedException {
+            String frame = sent.poll(5, TimeUnit.SECONDS);
+            assertNotNull(frame, "žádná zpráva do 5 s");
+            return frame;
+        }
+
+        @Override public String getId() { return id; }
+        @Override public URI getUri() { return null; }
+        @Override public HttpHeaders getHandshakeHeaders() { return new HttpHeaders(); }
+        @Override public Map<String, Object> getAttributes() { return attributes; }
+        @Override public Principal getPrincipal() { return null; }
+        @Override public InetSocketAddress getLocalAddress() { return null; }
+        @Override public InetSocketAddress getRemoteAddress() { return null; }
+        @Override public String getAcceptedProtocol() { return null; }
+        @Override public void setTextMessageSizeLimit(int messageSizeLimit) { }
+        @Override public int getTextMessageSizeLimit() { return 0; }
+        @Override public void setBinaryMessageSizeLimit(int messageSizeLimit) { }
+        @Override public int getBinaryMessageSizeLimit() { return 0; }
+        @Override public List<WebSocketExtension> getExtensions() { return List.of(); }
+        @Override public void sendMessage(WebSocketMessage<?> message) { sent.add(((TextMessage) message).getPayload()); }
+        @Override public boolean isOpen() { return open; }
+        @Override public void close() { open = false; }
+        @Override public void close(CloseStatus status) { open = false; }
+    }
+}
@@ -0,0 +1,86 @@
+package tda.app.app.quiz;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+import tda.app.app.CourseChangeEvent;
+import tda.app.app.CourseETagInterceptor;
+import tda.app.app.CourseVersions;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Podmíněný GET seznamu kvízů: 304 bez změny, po odevzdaném pokusu (filledCount) znovu 200. */
+class QuizListETagTest {
+
+    private static final String COURSE = "etag-course";
+
+    @TempDir
+    Path dir;
+
+    private CourseETagInterceptor interceptor;
+    private QuizStore store;
+    private String quizId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        CourseVersions versions = new CourseVersions();
+        interceptor = new CourseETagInterceptor(versions, COURSE::equals);
+        store = new QuizStore(event -> {
+            if (event instanceof CourseChangeEvent e) versions.onCourseChange(e);
+        }, new SimpleMeterRegistry(), dir);
+        store.init();
+        quizId = store.createQuiz(COURSE, "ETag").id();
+        store.upsertQuestion(COURSE, quizId, new QuizQuestion("q1", QuestionType.SINGLE, "Otázka",
+                List.of(new QuizOption("a", "A"), new QuizOption("b", "B")), List.of("a")));
+    }
+
+    @Test
+    void attemptInvalidatesQuizList() throws Exception {
+        MockHttpServletResponse first = get(null);
+        assertEquals(200, first.getStatus());
+        String etag = first.getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        assertEquals(304, get(etag).getStatus());
+
+        store.submit(COURSE, quizId, new QuizStore.SubmitRequest(Map.of("q1", List.of("a"))), "student");
+
+        MockHttpServletResponse after = get(etag);
+        assertEquals(200, after.getStatus());
+        assertNotEquals(etag, after.getHeader(HttpHeaders.ETAG));
+        assertEquals(1, store.listSummaries(COURSE).get(0).filledCount());
+    }
+
+    @Test
+    void unknownCourseGetsNoValidator() throws Exception {
+        String etag = get(null).getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletResponse res = get("missing-course", etag);
+        assertEquals(200, res.getStatus(), "o 404 rozhodne controller, ne 304");
+        assertNull(res.getHeader(HttpHeaders.ETAG));
+    }
+
+    private MockHttpServletResponse get(String ifNoneMatch) throws Exception {
+        return get(COURSE, ifNoneMatch);
+    }
+
+    private MockHttpServletResponse get(String courseId, String ifNoneMatch) throws Exception {
+        MockHttpServletRequest req = new MockHttpServletRequest("GET", "/api/courses/" + courseId + "/quizzes");
+        req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/courses/{courseId}/quizzes");
+        req.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("courseId", courseId));
+        if (ifNoneMatch != null) req.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        MockHttpServletResponse res = new MockHttpServletResponse();
+        boolean proceed = interceptor.preHandle(req, res, new Object());
+        assertEquals(proceed, res.getStatus() == 200);
+        return res;
+    }
+}
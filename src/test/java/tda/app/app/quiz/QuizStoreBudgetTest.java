@@ -0,0 +1,62 @@
+package tda.app.app.quiz;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tda.app.app.budget.Budget;
+import tda.app.app.budget.BudgetMeter;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rozpočty QuizStore nad vlastním adresářem (10 otázek po 4 možnostech).
+ *
+ * submit zapisuje při každém pokusu celé quizzes.json i quiz_results.json, takže jeho cena
+ * roste s počtem pokusů – proto málo iterací a pevný počet výsledků na začátku (0).
+ */
+class QuizStoreBudgetTest {
+
+    private static final String COURSE = "budget-course";
+
+    @TempDir
+    Path dir;
+
+    private QuizStore store;
+    private String quizId;
+    private QuizStore.SubmitRequest request;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        store = new QuizStore(event -> {}, new SimpleMeterRegistry(), dir);
+        store.init();
+        quizId = store.createQuiz(COURSE, "Rozpočet").id();
+
+        List<QuizOption> options = List.of(
+                new QuizOption("a", "Možnost A"),
+                new QuizOption("b", "Možnost B"),
+                new QuizOption("c", "Možnost C"),
+                new QuizOption("d", "Možnost D"));
+        Map<String, List<String>> answers = new HashMap<>();
+        for (int i = 0; i < 10; i++) {
+            store.upsertQuestion(COURSE, quizId, new QuizQuestion("q" + i, QuestionType.SINGLE, "Otázka " + i, options, List.of("a")));
+            answers.put("q" + i, List.of(i % 2 == 0 ? "a" : "b"));
+        }
+        request = new QuizStore.SubmitRequest(answers);
+    }
+
+    @Test
+    @Budget(bytesPerOp = 8 * 1024, millisPerOp = 0.2)
+    void getPublicQuiz(BudgetMeter meter) throws Exception {
+        meter.measure(() -> store.getPublicQuiz(COURSE, quizId));
+    }
+
+    @Test
+    @Budget(bytesPerOp = 512 * 1024, millisPerOp = 20, warmup = 50, iterations = 200)
+    void submit(BudgetMeter meter) throws Exception {
+        meter.measure(() -> store.submit(COURSE, quizId, request, "student"));
+    }
+}
@@ -0,0 +1,53 @@
+package tda.app.app.quiz;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tda.app.app.CourseChangeEvent;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Souběžné zápisy jednoho kurzu: poslední událost (live frame, change log) = výsledný stav. */
+class QuizStoreEventOrderTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void eventsFollowTheOrderOfWrites() throws Exception {
+        List<CourseChangeEvent> published = new ArrayList<>();
+        QuizStore store = new QuizStore(event -> {
+            if (event instanceof CourseChangeEvent e) {
+                synchronized (published) {
+                    published.add(e);
+                }
+            }
+        }, new SimpleMeterRegistry(), dir);
+        store.init();
+        String quizId = store.createQuiz("c1", "t").id();
+
+        List<Future<?>> writers = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(8)) {
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                writers.add(pool.submit(() -> {
+                    for (int i = 0; i < 25; i++) store.updateQuizTitle("c1", quizId, "t" + thread + "-" + i);
+                    return null;
+                }));
+            }
+            for (Future<?> f : writers) f.get();
+        }
+
+        assertEquals(1 + 8 * 25, published.size());
+        assertEquals(CourseChangeEvent.Action.CREATED, published.get(0).action());
+        Quiz last = (Quiz) published.get(published.size() - 1).item();
+        assertEquals(store.getFullQuiz("c1", quizId).title(), last.title());
+    }
+}
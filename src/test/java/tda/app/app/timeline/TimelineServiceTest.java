@@ -0,0 +1,80 @@
+package tda.app.app.timeline;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimelineServiceTest {
+
+    @Test
+    void mergesSourcesNewestFirstAcrossPages() {
+        // feed každou sekundu, materiál každé 3 s, kvíz každých 7 s; 20 ms v jedné sekundě se shodným časem
+        List<TimelineService.Source> sources = List.of(
+                source("feed", 0, 1, 300, null),
+                source("material", 0, 3, 100, null),
+                source("quiz", 0, 7, 40, null),
+                source("attempt", 5, 1, 20, new AtomicInteger()) // stejné časy jako feed -> rozhodne id
+        );
+
+        List<TimelineItem> all = new ArrayList<>();
+        Instant at = null;
+        String id = null;
+        TimelineService.TimelinePage page;
+        do {
+            page = TimelineService.merge(sources, at, id, 25);
+            all.addAll(page.items());
+            TimelineItem last = page.items().get(page.items().size() - 1);
+            at = last.at();
+            id = last.id();
+        } while (page.hasNext());
+
+        assertEquals(300 + 100 + 40 + 20, all.size());
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < all.size(); i++) {
+            assertTrue(ids.add(all.get(i).id()), "duplicita " + all.get(i).id());
+            if (i > 0) assertTrue(TimelineService.NEWEST_FIRST.compare(all.get(i - 1), all.get(i)) < 0);
+        }
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void readsOnlyWhatThePageNeeds() {
+        AtomicInteger served = new AtomicInteger();
+        List<TimelineService.Source> sources = List.of(
+                source("feed", 0, 1, 100_000, served),
+                source("material", 0, 1, 100_000, served)
+        );
+
+        TimelineService.TimelinePage page = TimelineService.merge(sources, null, null, 10);
+
+        assertEquals(10, page.items().size());
+        assertTrue(page.hasNext());
+        assertNotNull(page.nextCursor());
+        assertTrue(served.get() <= 2 * 11, "načteno " + served.get() + " položek");
+    }
+
+    /** count položek: čas = start + i * step sekund (od nejstarší), id = kind-i s nulami zleva. */
+    private static TimelineService.Source source(String kind, int start, int step, int count, AtomicInteger served) {
+        List<TimelineItem> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            items.add(new TimelineItem(kind, String.format("%s-%06d", kind, i),
+                    Instant.ofEpochSecond(1_000_000 + start + (long) i * step), kind + " " + i, null));
+        }
+        return (at, id, limit) -> {
+            List<TimelineItem> out = new ArrayList<>();
+            for (int i = items.size() - 1; i >= 0 && out.size() < limit; i--) {
+                TimelineItem it = items.get(i);
+                if (TimelineOrder.isAfter(it.at(), it.id(), at, id)) out.add(it);
+            }
+            if (served != null) served.addAndGet(out.size());
+            return out;
+        };
+    }
+}